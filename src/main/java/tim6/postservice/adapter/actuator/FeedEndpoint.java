@@ -0,0 +1,74 @@
+package tim6.postservice.adapter.actuator;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+import tim6.postservice.domain.models.User;
+import tim6.postservice.domain.services.FollowersCountBackfill;
+import tim6.postservice.domain.services.TimelineService;
+import tim6.postservice.domain.services.UserService;
+
+@Component
+@Endpoint(id = "feed")
+public class FeedEndpoint {
+
+    private static final int MAX_LISTED_PULLED_POSTERS = 100;
+
+    private final TimelineService timelineService;
+    private final UserService userService;
+    private final FollowersCountBackfill followersCountBackfill;
+
+    @Autowired
+    public FeedEndpoint(
+            final TimelineService timelineService,
+            final UserService userService,
+            final FollowersCountBackfill followersCountBackfill) {
+        this.timelineService = timelineService;
+        this.userService = userService;
+        this.followersCountBackfill = followersCountBackfill;
+    }
+
+    private Map<String, Object> classificationOf(final User poster) {
+        final Map<String, Object> classification = new LinkedHashMap<>();
+        classification.put("posterId", poster.getId());
+        classification.put("username", poster.getUsername());
+        classification.put("followersCount", poster.getFollowersCount());
+        classification.put(
+                "delivery", this.timelineService.isPulledPoster(poster) ? "PULL" : "PUSH");
+        return classification;
+    }
+
+    @ReadOperation
+    public Map<String, Object> feed() {
+        final long threshold = this.timelineService.getPullFollowerThreshold();
+        final List<Map<String, Object>> pulledPosters =
+                this.userService.findTopByFollowersCount(threshold, MAX_LISTED_PULLED_POSTERS)
+                        .stream()
+                        .map(this::classificationOf)
+                        .collect(Collectors.toList());
+
+        final Map<String, Object> feed = new LinkedHashMap<>();
+        feed.put("pullFollowerThreshold", threshold);
+        feed.put("pulledPosters", pulledPosters);
+        return feed;
+    }
+
+    @ReadOperation
+    public Map<String, Object> poster(@Selector final String posterId) {
+        return this.classificationOf(this.userService.findById(posterId));
+    }
+
+    @WriteOperation
+    public Map<String, Object> recountFollowers() {
+        final Map<String, Object> recount = new LinkedHashMap<>();
+        recount.put("usersCorrected", this.followersCountBackfill.backfill());
+        return recount;
+    }
+}
@@ -0,0 +1,64 @@
+package tim6.postservice.adapter.actuator;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+import tim6.postservice.domain.models.PropagationJob;
+import tim6.postservice.domain.models.PropagationJobStatus;
+import tim6.postservice.domain.services.UserInfoPropagationService;
+
+@Component
+@Endpoint(id = "propagation")
+public class PropagationEndpoint {
+
+    private static final int MAX_LISTED_JOBS = 100;
+
+    private final UserInfoPropagationService userInfoPropagationService;
+
+    @Autowired
+    public PropagationEndpoint(final UserInfoPropagationService userInfoPropagationService) {
+        this.userInfoPropagationService = userInfoPropagationService;
+    }
+
+    private Map<String, Object> progressOf(final PropagationJob job) {
+        final Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("userId", job.getId());
+        progress.put("profileVersion", job.getProfileVersion());
+        progress.put("phase", job.getPhase());
+        progress.put("enqueuedAt", job.getEnqueuedAt());
+        progress.put("startedAt", job.getStartedAt());
+        progress.put("heartbeatAt", job.getHeartbeatAt());
+        progress.put("documentsUpdated", job.getDocumentsUpdated());
+        progress.put("documentsFailed", job.getFailedIds().size());
+        progress.put("documentsPerSecond", this.throughputOf(job));
+        return progress;
+    }
+
+    private double throughputOf(final PropagationJob job) {
+        if (job.getStartedAt() == null || job.getHeartbeatAt() == null) {
+            return 0;
+        }
+        final long elapsedMillis = job.getHeartbeatAt().getTime() - job.getStartedAt().getTime();
+        return elapsedMillis <= 0 ? 0 : job.getDocumentsUpdated() * 1000.0 / elapsedMillis;
+    }
+
+    private List<Map<String, Object>> jobsWithStatus(final PropagationJobStatus status) {
+        return this.userInfoPropagationService.getJobs(status, MAX_LISTED_JOBS).stream()
+                .map(this::progressOf)
+                .collect(Collectors.toList());
+    }
+
+    @ReadOperation
+    public Map<String, Object> propagation() {
+        final Map<String, Object> propagation = new LinkedHashMap<>();
+        propagation.put("running", this.jobsWithStatus(PropagationJobStatus.RUNNING));
+        propagation.put("queued", this.jobsWithStatus(PropagationJobStatus.QUEUED));
+        propagation.put("failed", this.jobsWithStatus(PropagationJobStatus.FAILED));
+        return propagation;
+    }
+}
@@ -1,6 +1,7 @@
 package tim6.postservice.adapter.http.advice;
 
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
@@ -12,6 +13,8 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 import tim6.postservice.domain.exceptions.AuthorizationException;
 import tim6.postservice.domain.exceptions.EntityAlreadyExistsException;
 import tim6.postservice.domain.exceptions.EntityNotFoundException;
+import tim6.postservice.domain.exceptions.InvalidCursorException;
+import tim6.postservice.domain.exceptions.ReactionWriteException;
 
 @ControllerAdvice
 public class ErrorHandlingAdvice {
@@ -58,6 +61,34 @@ public class ErrorHandlingAdvice {
         return error;
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    @ResponseStatus(value = HttpStatus.BAD_REQUEST)
+    @ResponseBody
+    ValidationErrorResponse onInvalidCursorException(InvalidCursorException e) {
+        ValidationErrorResponse error = new ValidationErrorResponse();
+        error.getViolations().add(new Violation("cursor", e.getMessage()));
+        return error;
+    }
+
+    @ExceptionHandler(ReactionWriteException.class)
+    @ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+    @ResponseBody
+    ValidationErrorResponse onReactionWriteException(ReactionWriteException e) {
+        ValidationErrorResponse error = new ValidationErrorResponse();
+        error.getViolations().add(new Violation("Cause", e.getMessage()));
+        return error;
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(value = HttpStatus.CONFLICT)
+    @ResponseBody
+    ValidationErrorResponse onOptimisticLockingFailureException(
+            OptimisticLockingFailureException e) {
+        ValidationErrorResponse error = new ValidationErrorResponse();
+        error.getViolations().add(new Violation("Cause", e.getMessage()));
+        return error;
+    }
+
     @ExceptionHandler(EmptyResultDataAccessException.class)
     @ResponseStatus(value = HttpStatus.NOT_FOUND)
     @ResponseBody
@@ -5,6 +5,8 @@ import java.util.stream.Collectors;
 import javax.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
 import org.springframework.data.elasticsearch.core.SearchPage;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -21,10 +23,17 @@ import org.springframework.web.bind.annotation.RestController;
 import tim6.postservice.adapter.http.dto.CommentCreateDTO;
 import tim6.postservice.adapter.http.dto.PostCreateDTO;
 import tim6.postservice.adapter.http.dto.PostGetDTO;
-import tim6.postservice.adapter.http.dto.PostOverviewDTO;
+import tim6.postservice.adapter.http.mapper.CommentMapper;
 import tim6.postservice.adapter.http.mapper.PostMapper;
+import tim6.postservice.domain.exceptions.InvalidCursorException;
 import tim6.postservice.domain.helpers.AuthHelper;
+import tim6.postservice.domain.models.Comment;
+import tim6.postservice.domain.models.CommentCursor;
+import tim6.postservice.domain.models.FeedDelta;
 import tim6.postservice.domain.models.Post;
+import tim6.postservice.domain.models.PostCursor;
+import tim6.postservice.domain.models.PostCursorPage;
+import tim6.postservice.domain.models.ViewerReactions;
 import tim6.postservice.domain.services.CommentService;
 import tim6.postservice.domain.services.PostService;
 
@@ -51,48 +60,141 @@ public class PostController {
         Post post = PostMapper.toPost(postCreateDTO, authedUserId);
         post = this.postService.createNew(post);
 
-        return new ResponseEntity<>(PostMapper.toPostGetDTO(post), HttpStatus.CREATED);
+        return new ResponseEntity<>(
+                PostMapper.toPostGetDTO(post, List.of(), ViewerReactions.none()),
+                HttpStatus.CREATED);
     }
 
     @GetMapping(value = "/{postId}", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<?> getPostById(@PathVariable final String postId) {
         final String authedUserId = AuthHelper.getCurrentUserId();
-        final Post post = this.postService.getPostById(postId, authedUserId);
+        final Post post = this.postService.getPostDetails(postId, authedUserId);
+        final List<Comment> latestComments = this.commentService.getLatestComments(postId);
+
+        return new ResponseEntity<>(
+                PostMapper.toPostGetDTO(
+                        post,
+                        latestComments,
+                        this.postService.getViewerReactions(authedUserId, List.of(post))),
+                HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/{postId}/comments", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getComments(
+            @PathVariable final String postId,
+            @RequestParam(name = "cursor", required = false) final String cursor) {
+        final String authedUserId = AuthHelper.getCurrentUserId();
+        final List<Comment> comments =
+                this.commentService.getComments(
+                        postId, CommentCursor.decode(cursor), authedUserId);
 
-        return new ResponseEntity<>(PostMapper.toPostGetDTO(post), HttpStatus.OK);
+        return new ResponseEntity<>(
+                CommentMapper.toCommentCursorPage(comments, CommentService.MAX_COMMENTS_PER_PAGE),
+                HttpStatus.OK);
     }
 
     @GetMapping(value = "/feed", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<?> getFeed() {
+    public ResponseEntity<?> getFeed(
+            @RequestParam(name = "cursor", required = false) final String cursor) {
+        final String authedUserId = AuthHelper.getCurrentUserId();
+        final PostCursorPage cursorPage =
+                this.postService.getFeed(authedUserId, PostCursor.decode(cursor));
+
+        return new ResponseEntity<>(
+                PostMapper.toPostOverviewCursorPage(
+                        cursorPage,
+                        this.postService.getViewerReactions(
+                                authedUserId, cursorPage.getPosts())),
+                HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/feed/since", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getFeedSince(@RequestParam(name = "after") final String after) {
         final String authedUserId = AuthHelper.getCurrentUserId();
-        final List<Post> posts = this.postService.getFeed(authedUserId);
+        final PostCursor since = PostCursor.decode(after);
+        if (since == null) {
+            throw new InvalidCursorException("Cursor can't be blank");
+        }
+
+        final FeedDelta feedDelta = this.postService.getFeedSince(authedUserId, since);
+        if (feedDelta.getCount() == 0) {
+            return new ResponseEntity<>(HttpStatus.NOT_MODIFIED);
+        }
+        return new ResponseEntity<>(
+                PostMapper.toFeedDeltaDTO(
+                        feedDelta,
+                        since,
+                        this.postService.getViewerReactions(authedUserId, feedDelta.getPosts())),
+                HttpStatus.OK);
+    }
 
-        final List<PostOverviewDTO> postOverviewDTOs =
-                posts.stream().map(PostMapper::toPostOverviewDTO).collect(Collectors.toList());
+    @GetMapping(value = "/favorites", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getFavorites(
+            @RequestParam(name = "cursor", required = false) final String cursor) {
+        final String authedUserId = AuthHelper.getCurrentUserId();
+        final PostCursorPage cursorPage =
+                this.postService.getFavorites(authedUserId, PostCursor.decode(cursor));
 
-        return new ResponseEntity<>(postOverviewDTOs, HttpStatus.OK);
+        return new ResponseEntity<>(
+                PostMapper.toPostOverviewCursorPage(
+                        cursorPage,
+                        this.postService.getViewerReactions(
+                                authedUserId, cursorPage.getPosts())),
+                HttpStatus.OK);
     }
 
     @GetMapping(value = "/tags", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<?> searchPostsByTags(
-            @RequestParam(name = "tags") final List<String> tags, final Pageable pageable) {
+            @RequestParam(name = "tags") final List<String> tags,
+            @RequestParam(name = "cursor", required = false) final String cursor,
+            final Pageable pageable) {
         final String authedUserId = AuthHelper.getCurrentUserId();
+        if (cursor != null) {
+            final PostCursorPage cursorPage =
+                    this.postService.getPostsByTags(
+                            tags, PostCursor.decode(cursor), pageable.getPageSize(), authedUserId);
+            return new ResponseEntity<>(
+                    PostMapper.toPostOverviewCursorPage(
+                            cursorPage,
+                            this.postService.getViewerReactions(
+                                    authedUserId, cursorPage.getPosts())),
+                    HttpStatus.OK);
+        }
 
         final SearchPage<Post> postsSearchPage =
                 this.postService.getPostsByTags(tags, pageable, authedUserId);
         return new ResponseEntity<>(
-                PostMapper.toPostOverviewSearchReturnPage(postsSearchPage), HttpStatus.OK);
+                PostMapper.toPostOverviewSearchReturnPage(
+                        postsSearchPage,
+                        this.getViewerReactions(authedUserId, postsSearchPage.getSearchHits())),
+                HttpStatus.OK);
     }
 
     @GetMapping(value = "/poster/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<?> searchPostsByUserId(
-            @PathVariable final String id, final Pageable pageable) {
+            @PathVariable final String id,
+            @RequestParam(name = "cursor", required = false) final String cursor,
+            final Pageable pageable) {
         final String authedUserId = AuthHelper.getCurrentUserId();
+        if (cursor != null) {
+            final PostCursorPage cursorPage =
+                    this.postService.postsByPosterIdQuery(
+                            id, PostCursor.decode(cursor), pageable.getPageSize(), authedUserId);
+            return new ResponseEntity<>(
+                    PostMapper.toPostOverviewCursorPage(
+                            cursorPage,
+                            this.postService.getViewerReactions(
+                                    authedUserId, cursorPage.getPosts())),
+                    HttpStatus.OK);
+        }
 
         final SearchPage<Post> postsSearchPage =
                 this.postService.postsByPosterIdQuery(id, pageable, authedUserId);
         return new ResponseEntity<>(
-                PostMapper.toPostOverviewSearchReturnPage(postsSearchPage), HttpStatus.OK);
+                PostMapper.toPostOverviewSearchReturnPage(
+                        postsSearchPage,
+                        this.getViewerReactions(authedUserId, postsSearchPage.getSearchHits())),
+                HttpStatus.OK);
     }
 
     @PostMapping(
@@ -155,4 +257,11 @@ public class PostController {
         this.postService.unfavoritePost(postId, authedUserId);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
+
+    private ViewerReactions getViewerReactions(
+            final String authedUserId, final SearchHits<Post> searchHits) {
+        return this.postService.getViewerReactions(
+                authedUserId,
+                searchHits.stream().map(SearchHit::getContent).collect(Collectors.toList()));
+    }
 }
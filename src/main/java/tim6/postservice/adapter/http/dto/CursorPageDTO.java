@@ -0,0 +1,19 @@
+package tim6.postservice.adapter.http.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class CursorPageDTO<T> {
+
+    private List<T> content = new ArrayList<>();
+
+    private String nextCursor;
+}
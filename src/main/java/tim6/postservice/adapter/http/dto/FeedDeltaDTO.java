@@ -0,0 +1,23 @@
+package tim6.postservice.adapter.http.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class FeedDeltaDTO {
+
+    private List<PostOverviewDTO> content = new ArrayList<>();
+
+    private long count;
+
+    private String cursor;
+
+    private boolean hasMore;
+}
@@ -28,11 +28,19 @@ public class PostGetDTO {
 
     private Set<UserInfoDTO> userTags;
 
-    private Set<String> likes;
+    private long likes_count;
 
-    private Set<String> dislikes;
+    private long dislikes_count;
 
-    private Set<String> favorites;
+    private long favorites_count;
+
+    private int comments_count;
 
     private List<CommentGetDTO> comments;
+
+    private boolean likedByMe;
+
+    private boolean dislikedByMe;
+
+    private boolean favoritedByMe;
 }
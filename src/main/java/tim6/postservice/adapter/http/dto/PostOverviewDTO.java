@@ -1,7 +1,9 @@
 package tim6.postservice.adapter.http.dto;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -28,11 +30,19 @@ public class PostOverviewDTO {
 
     private Set<UserInfoDTO> userTags = new HashSet<>();
 
-    private int likes_count;
+    private long likes_count;
 
-    private int dislikes_count;
+    private long dislikes_count;
 
-    private int favorites_count;
+    private long favorites_count;
 
     private int comments_count;
+
+    private List<CommentGetDTO> latest_comments = new ArrayList<>();
+
+    private boolean likedByMe;
+
+    private boolean dislikedByMe;
+
+    private boolean favoritedByMe;
 }
@@ -5,7 +5,9 @@ import java.util.List;
 import java.util.stream.Collectors;
 import tim6.postservice.adapter.http.dto.CommentCreateDTO;
 import tim6.postservice.adapter.http.dto.CommentGetDTO;
+import tim6.postservice.adapter.http.dto.CursorPageDTO;
 import tim6.postservice.domain.models.Comment;
+import tim6.postservice.domain.models.CommentCursor;
 import tim6.postservice.domain.models.User;
 import tim6.postservice.domain.models.UserInfo;
 
@@ -34,4 +36,13 @@ public class CommentMapper {
                 .map(CommentMapper::toCommentGetDTO)
                 .collect(Collectors.toList());
     }
+
+    public static CursorPageDTO<CommentGetDTO> toCommentCursorPage(
+            final List<Comment> comments, final int pageSize) {
+        final String nextCursor =
+                comments.size() < pageSize
+                        ? null
+                        : CommentCursor.of(comments.get(comments.size() - 1)).encode();
+        return new CursorPageDTO<>(CommentMapper.toCommentGetDTOList(comments), nextCursor);
+    }
 }
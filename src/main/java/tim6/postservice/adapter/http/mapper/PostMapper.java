@@ -1,9 +1,8 @@
 package tim6.postservice.adapter.http.mapper;
 
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.Date;
-import java.util.HashSet;
+import java.util.List;
 import java.util.stream.Collectors;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -12,12 +11,19 @@ import org.springframework.data.elasticsearch.core.SearchHitSupport;
 import org.springframework.data.elasticsearch.core.SearchHits;
 import org.springframework.data.elasticsearch.core.SearchHitsImpl;
 import org.springframework.data.elasticsearch.core.SearchPage;
+import tim6.postservice.adapter.http.dto.CursorPageDTO;
+import tim6.postservice.adapter.http.dto.FeedDeltaDTO;
 import tim6.postservice.adapter.http.dto.PostCreateDTO;
 import tim6.postservice.adapter.http.dto.PostGetDTO;
 import tim6.postservice.adapter.http.dto.PostOverviewDTO;
 import tim6.postservice.domain.models.Comment;
+import tim6.postservice.domain.models.FeedDelta;
 import tim6.postservice.domain.models.Post;
+import tim6.postservice.domain.models.PostCursor;
+import tim6.postservice.domain.models.PostCursorPage;
+import tim6.postservice.domain.models.ReactionType;
 import tim6.postservice.domain.models.UserInfo;
+import tim6.postservice.domain.models.ViewerReactions;
 
 public class PostMapper {
 
@@ -34,14 +40,14 @@ public class PostMapper {
                         dto.getUserTags().stream()
                                 .map(tag -> new UserInfo(null, tag, null))
                                 .collect(Collectors.toSet()))
-                .likes(new HashSet<>())
-                .dislikes(new HashSet<>())
-                .favorites(new HashSet<>())
-                .comments(new ArrayList<>())
+                .latestComments(new ArrayList<>())
                 .build();
     }
 
-    public static PostGetDTO toPostGetDTO(final Post post) {
+    public static PostGetDTO toPostGetDTO(
+            final Post post,
+            final List<Comment> latestComments,
+            final ViewerReactions viewerReactions) {
         return PostGetDTO.builder()
                 .id(post.getId())
                 .imageUrl(post.getImageUrl())
@@ -53,20 +59,19 @@ public class PostMapper {
                         post.getUserTags().stream()
                                 .map(UserInfoMapper::toUserInfoDTO)
                                 .collect(Collectors.toSet()))
-                .likes(post.getLikes())
-                .dislikes(post.getDislikes())
-                .favorites(post.getFavorites())
-                .comments(
-                        CommentMapper.toCommentGetDTOList(
-                                post.getComments().stream()
-                                        .sorted(
-                                                Comparator.comparing(Comment::getCommentDate)
-                                                        .reversed())
-                                        .collect(Collectors.toList())))
+                .likes_count(post.getLikesCount())
+                .dislikes_count(post.getDislikesCount())
+                .favorites_count(post.getFavoritesCount())
+                .comments_count(post.getCommentsCount())
+                .comments(CommentMapper.toCommentGetDTOList(latestComments))
+                .likedByMe(viewerReactions.has(post.getId(), ReactionType.LIKE))
+                .dislikedByMe(viewerReactions.has(post.getId(), ReactionType.DISLIKE))
+                .favoritedByMe(viewerReactions.has(post.getId(), ReactionType.FAVORITE))
                 .build();
     }
 
-    public static PostOverviewDTO toPostOverviewDTO(final Post post) {
+    public static PostOverviewDTO toPostOverviewDTO(
+            final Post post, final ViewerReactions viewerReactions) {
         return PostOverviewDTO.builder()
                 .id(post.getId())
                 .imageUrl(post.getImageUrl())
@@ -78,24 +83,55 @@ public class PostMapper {
                         post.getUserTags().stream()
                                 .map(UserInfoMapper::toUserInfoDTO)
                                 .collect(Collectors.toSet()))
-                .likes_count(post.getLikes().size())
-                .dislikes_count(post.getDislikes().size())
-                .favorites_count(post.getFavorites().size())
-                .comments_count(post.getComments().size())
+                .likes_count(post.getLikesCount())
+                .dislikes_count(post.getDislikesCount())
+                .favorites_count(post.getFavoritesCount())
+                .comments_count(post.getCommentsCount())
+                .latest_comments(CommentMapper.toCommentGetDTOList(post.getLatestComments()))
+                .likedByMe(viewerReactions.has(post.getId(), ReactionType.LIKE))
+                .dislikedByMe(viewerReactions.has(post.getId(), ReactionType.DISLIKE))
+                .favoritedByMe(viewerReactions.has(post.getId(), ReactionType.FAVORITE))
                 .build();
     }
 
     public static Page<PostOverviewDTO> toPostOverviewPage(final Page<Post> pagedPosts) {
         return new PageImpl<>(
                 pagedPosts.getContent().stream()
-                        .map(PostMapper::toPostOverviewDTO)
+                        .map(post -> PostMapper.toPostOverviewDTO(post, ViewerReactions.none()))
                         .collect(Collectors.toList()),
                 pagedPosts.getPageable(),
                 pagedPosts.getTotalElements());
     }
 
+    public static CursorPageDTO<PostOverviewDTO> toPostOverviewCursorPage(
+            final PostCursorPage cursorPage, final ViewerReactions viewerReactions) {
+        final PostCursor nextCursor = cursorPage.getNextCursor();
+        return new CursorPageDTO<>(
+                cursorPage.getPosts().stream()
+                        .map(post -> PostMapper.toPostOverviewDTO(post, viewerReactions))
+                        .collect(Collectors.toList()),
+                nextCursor == null ? null : nextCursor.encode());
+    }
+
+    public static FeedDeltaDTO toFeedDeltaDTO(
+            final FeedDelta feedDelta,
+            final PostCursor since,
+            final ViewerReactions viewerReactions) {
+        final PostCursor highWaterMark =
+                feedDelta.getPosts().isEmpty()
+                        ? since
+                        : PostCursor.of(feedDelta.getPosts().get(0));
+        return new FeedDeltaDTO(
+                feedDelta.getPosts().stream()
+                        .map(post -> PostMapper.toPostOverviewDTO(post, viewerReactions))
+                        .collect(Collectors.toList()),
+                feedDelta.getCount(),
+                highWaterMark.encode(),
+                feedDelta.getCount() > feedDelta.getPosts().size());
+    }
+
     public static SearchPage<PostOverviewDTO> toPostOverviewSearchReturnPage(
-            final SearchPage<Post> searchPage) {
+            final SearchPage<Post> searchPage, final ViewerReactions viewerReactions) {
         final SearchHits<Post> searchHits = searchPage.getSearchHits();
         final SearchHits<PostOverviewDTO> overviewSearchHits =
                 new SearchHitsImpl<>(
@@ -118,7 +154,8 @@ public class PostMapper {
                                                         sh.getExplanation(),
                                                         sh.getMatchedQueries(),
                                                         PostMapper.toPostOverviewDTO(
-                                                                sh.getContent())))
+                                                                sh.getContent(),
+                                                                viewerReactions)))
                                 .collect(Collectors.toList()),
                         searchHits.getAggregations());
         return SearchHitSupport.searchPageFor(overviewSearchHits, searchPage.getPageable());
@@ -1,44 +1,112 @@
 package tim6.postservice.adapter.kafka;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
+import tim6.postservice.adapter.kafka.mapper.KafkaMessageMapper;
 import tim6.postservice.adapter.kafka.models.KafkaMessage;
 import tim6.postservice.adapter.kafka.models.payloads.BlockPayload;
 import tim6.postservice.adapter.kafka.models.payloads.FollowPayload;
 import tim6.postservice.adapter.kafka.models.payloads.MutePayload;
 import tim6.postservice.adapter.kafka.models.payloads.UserPayload;
 import tim6.postservice.domain.exceptions.EntityNotFoundException;
+import tim6.postservice.domain.models.GraphChange;
+import tim6.postservice.domain.models.GraphChangeType;
 import tim6.postservice.domain.models.User;
-import tim6.postservice.domain.models.UserInfo;
-import tim6.postservice.domain.services.PostService;
+import tim6.postservice.domain.services.TimelineService;
+import tim6.postservice.domain.services.UserInfoPropagationService;
 import tim6.postservice.domain.services.UserService;
 
 @Service
 public class ConsumerService {
 
     private final UserService userService;
-    private final PostService postService;
+    private final UserInfoPropagationService userInfoPropagationService;
+    private final TimelineService timelineService;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    @Value("${kafka.listener.batch-graph-updates:true}")
+    boolean batchGraphUpdates;
+
     @Autowired
-    public ConsumerService(final UserService userService, final PostService postService) {
+    public ConsumerService(
+            final UserService userService,
+            final UserInfoPropagationService userInfoPropagationService,
+            final TimelineService timelineService) {
         this.userService = userService;
-        this.postService = postService;
+        this.userInfoPropagationService = userInfoPropagationService;
+        this.timelineService = timelineService;
     }
 
     @KafkaListener(
             topics = "post_service_topic",
             groupId = "groupId",
             containerFactory = "kafkaMessageListener")
-    public void receiveMessage(final KafkaMessage message) {
+    public void receiveMessages(
+            @Payload final List<KafkaMessage> messages,
+            @Header(KafkaHeaders.RECEIVED_TIMESTAMP) final List<Long> timestamps) {
+        if (!this.batchGraphUpdates) {
+            for (int i = 0; i < messages.size(); i++) {
+                this.receiveMessage(messages.get(i), timestamps.get(i));
+            }
+            return;
+        }
+
+        final List<GraphChange> graphChanges = new ArrayList<>();
+        for (int i = 0; i < messages.size(); i++) {
+            final GraphChange graphChange = KafkaMessageMapper.toGraphChange(messages.get(i));
+            if (graphChange != null) {
+                graphChanges.add(graphChange);
+            } else {
+                this.applyGraphChanges(graphChanges);
+                graphChanges.clear();
+                this.receiveMessage(messages.get(i), timestamps.get(i));
+            }
+        }
+        this.applyGraphChanges(graphChanges);
+    }
+
+    private void applyGraphChanges(final List<GraphChange> graphChanges) {
+        if (graphChanges.isEmpty()) {
+            return;
+        }
+
+        final Map<String, User> users = this.userService.applyGraphChanges(graphChanges);
+        final Map<String, GraphChange> timelineChanges = new LinkedHashMap<>();
+        graphChanges.stream()
+                .filter(change -> change.getType() != GraphChangeType.BLOCK)
+                .forEach(change -> timelineChanges.putIfAbsent(change.getPairKey(), change));
+
+        for (final GraphChange change : timelineChanges.values()) {
+            final User user = users.get(change.getUserId());
+            if (user == null) {
+                continue;
+            }
+            if (user.getFollowing().contains(change.getTargetId())
+                    && !user.getMuted().contains(change.getTargetId())) {
+                this.timelineService.backfill(change.getUserId(), change.getTargetId());
+            } else {
+                this.timelineService.prune(change.getUserId(), change.getTargetId());
+            }
+        }
+    }
+
+    private void receiveMessage(final KafkaMessage message, final long timestamp) {
         final String key = message.getKey();
 
         switch (key) {
             case "USER":
-                this.onReceiveUser(message);
+                this.onReceiveUser(message, timestamp);
                 break;
             case "FOLLOW":
                 this.onReceiveFollow(message);
@@ -52,17 +120,17 @@ public class ConsumerService {
         }
     }
 
-    private void onReceiveUser(final KafkaMessage message) {
+    private void onReceiveUser(final KafkaMessage message, final long timestamp) {
         final UserPayload userPayload =
                 this.objectMapper.convertValue(message.getValue(), UserPayload.class);
         try {
-            this.updateExistingUser(userPayload);
+            this.updateExistingUser(userPayload, timestamp);
         } catch (final EntityNotFoundException ex) {
-            this.createNewUser(userPayload);
+            this.createNewUser(userPayload, timestamp);
         }
     }
 
-    private void createNewUser(final UserPayload userPayload) {
+    private void createNewUser(final UserPayload userPayload, final long timestamp) {
         final User user =
                 new User(
                         userPayload.getId(),
@@ -72,23 +140,25 @@ public class ConsumerService {
                         new HashSet<>(),
                         new HashSet<>(),
                         new HashSet<>());
+        user.setProfileVersion(timestamp);
         this.userService.save(user);
     }
 
-    private void updateExistingUser(final UserPayload userPayload) {
+    private void updateExistingUser(final UserPayload userPayload, final long timestamp) {
         final User user = this.userService.findById(userPayload.getId());
+        if (timestamp < user.getProfileVersion()) {
+            return;
+        }
+
+        final boolean visibilityChanged =
+                user.isPublicAccount() != userPayload.isPublicAccount();
         user.setUserAvatar(userPayload.getUserAvatar());
         user.setUsername(userPayload.getUsername());
         user.setPublicAccount(userPayload.isPublicAccount());
-        this.userService.save(user);
+        user.setProfileVersion(timestamp);
+        this.userService.saveProfile(user);
 
-        this.updateUserInformationInPosts(user);
-    }
-
-    private void updateUserInformationInPosts(final User user) {
-        final UserInfo userInfo =
-                new UserInfo(user.getId(), user.getUsername(), user.getUserAvatar());
-        this.postService.updateUserInfoInRelevantDocuments(userInfo);
+        this.userInfoPropagationService.enqueue(user, visibilityChanged);
     }
 
     private void onReceiveFollow(final KafkaMessage message) {
@@ -98,9 +168,13 @@ public class ConsumerService {
         if (followPayload.isApply()) {
             this.userService.followUser(
                     followPayload.getFollowerId(), followPayload.getFollowTargetId());
+            this.timelineService.backfill(
+                    followPayload.getFollowerId(), followPayload.getFollowTargetId());
         } else {
             this.userService.unfollowUser(
                     followPayload.getFollowerId(), followPayload.getFollowTargetId());
+            this.timelineService.prune(
+                    followPayload.getFollowerId(), followPayload.getFollowTargetId());
         }
     }
 
@@ -110,8 +184,16 @@ public class ConsumerService {
 
         if (mutePayload.isApply()) {
             this.userService.muteUser(mutePayload.getMuterId(), mutePayload.getMuteTargetId());
+            this.timelineService.prune(mutePayload.getMuterId(), mutePayload.getMuteTargetId());
         } else {
             this.userService.unmuteUser(mutePayload.getMuterId(), mutePayload.getMuteTargetId());
+            if (this.userService
+                    .findById(mutePayload.getMuterId())
+                    .getFollowing()
+                    .contains(mutePayload.getMuteTargetId())) {
+                this.timelineService.backfill(
+                        mutePayload.getMuterId(), mutePayload.getMuteTargetId());
+            }
         }
     }
 
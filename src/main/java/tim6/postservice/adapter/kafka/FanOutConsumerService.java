@@ -0,0 +1,49 @@
+package tim6.postservice.adapter.kafka;
+
+import java.util.List;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Service;
+import tim6.postservice.adapter.kafka.configuration.ProducerService;
+import tim6.postservice.adapter.kafka.mapper.KafkaMessageMapper;
+import tim6.postservice.adapter.kafka.models.KafkaMessage;
+import tim6.postservice.adapter.kafka.models.payloads.PostCreatedPayload;
+import tim6.postservice.domain.models.TimelineEntry;
+import tim6.postservice.domain.services.TimelineService;
+import tim6.postservice.domain.services.UserService;
+
+@Service
+public class FanOutConsumerService {
+
+    private final UserService userService;
+    private final TimelineService timelineService;
+
+    @Autowired
+    public FanOutConsumerService(
+            final UserService userService, final TimelineService timelineService) {
+        this.userService = userService;
+        this.timelineService = timelineService;
+    }
+
+    @KafkaListener(
+            topics = ProducerService.FAN_OUT_TOPIC,
+            groupId = "postServiceFanOut",
+            containerFactory = "kafkaMessageListener")
+    public void receiveFanOutMessages(@Payload final List<KafkaMessage> messages) {
+        for (final KafkaMessage message : messages) {
+            if (!ProducerService.POST_CREATED_KEY.equals(message.getKey())) {
+                continue;
+            }
+
+            final PostCreatedPayload payload =
+                    KafkaMessageMapper.toPayload(message, PostCreatedPayload.class);
+            final TimelineEntry entry =
+                    new TimelineEntry(
+                            payload.getPostId(), payload.getPosterId(), payload.getPostedAt());
+            this.userService
+                    .findByIds(List.of(payload.getPosterId()))
+                    .forEach(poster -> this.timelineService.pushToFollowers(entry, poster));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package tim6.postservice.adapter.kafka;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Service;
+import tim6.postservice.adapter.kafka.mapper.KafkaMessageMapper;
+import tim6.postservice.adapter.kafka.models.KafkaMessage;
+import tim6.postservice.adapter.kafka.models.payloads.UserPayload;
+import tim6.postservice.domain.models.GraphChange;
+import tim6.postservice.domain.models.UserInfo;
+import tim6.postservice.domain.services.UserInfoResolver;
+import tim6.postservice.domain.services.UserService;
+
+@Service
+public class VisibilityConsumerService implements ConsumerSeekAware {
+
+    private static final String TOPIC = "post_service_topic";
+
+    private final UserService userService;
+    private final UserInfoResolver userInfoResolver;
+    private final ConsumerFactory<String, KafkaMessage> consumerFactory;
+    private final Map<TopicPartition, Long> snapshotOffsets = new ConcurrentHashMap<>();
+
+    @Value("${kafka.listener.visibility-snapshot-timeout-ms:10000}")
+    long snapshotTimeoutMillis;
+
+    @Autowired
+    public VisibilityConsumerService(
+            final UserService userService,
+            final UserInfoResolver userInfoResolver,
+            final ConsumerFactory<String, KafkaMessage> consumerFactory) {
+        this.userService = userService;
+        this.userInfoResolver = userInfoResolver;
+        this.consumerFactory = consumerFactory;
+    }
+
+    @PostConstruct
+    public void loadSnapshot() {
+        final Duration timeout = Duration.ofMillis(this.snapshotTimeoutMillis);
+        try (final Consumer<String, KafkaMessage> consumer =
+                this.consumerFactory.createConsumer()) {
+            final List<PartitionInfo> partitionInfos = consumer.partitionsFor(TOPIC, timeout);
+            final List<TopicPartition> partitions =
+                    partitionInfos == null
+                            ? new ArrayList<>()
+                            : partitionInfos.stream()
+                                    .map(info -> new TopicPartition(TOPIC, info.partition()))
+                                    .collect(Collectors.toList());
+            this.snapshotOffsets.putAll(consumer.endOffsets(partitions, timeout));
+        } catch (final KafkaException ex) {
+            this.snapshotOffsets.clear();
+        }
+
+        this.userService.loadVisibility();
+    }
+
+    @Override
+    public void onPartitionsAssigned(
+            final Map<TopicPartition, Long> assignments, final ConsumerSeekCallback callback) {
+        for (final TopicPartition partition : assignments.keySet()) {
+            final Long snapshotOffset = this.snapshotOffsets.remove(partition);
+            if (snapshotOffset != null) {
+                callback.seek(partition.topic(), partition.partition(), snapshotOffset);
+            }
+        }
+    }
+
+    @KafkaListener(
+            topics = TOPIC,
+            groupId = "${kafka.listener.visibility-group-id}",
+            containerFactory = "kafkaMessageListener")
+    public void receiveVisibilityMessages(
+            @Payload final List<KafkaMessage> messages,
+            @Header(KafkaHeaders.RECEIVED_TIMESTAMP) final List<Long> timestamps) {
+        final List<GraphChange> graphChanges = new ArrayList<>();
+        for (int i = 0; i < messages.size(); i++) {
+            final GraphChange graphChange = KafkaMessageMapper.toGraphChange(messages.get(i));
+            if (graphChange != null) {
+                graphChanges.add(graphChange);
+            } else if (messages.get(i).getKey().equals("USER")) {
+                final UserPayload userPayload = KafkaMessageMapper.toUserPayload(messages.get(i));
+                this.userService.refreshVisibility(
+                        userPayload.getId(), userPayload.isPublicAccount(), timestamps.get(i));
+                this.userInfoResolver.refresh(
+                        new UserInfo(
+                                userPayload.getId(),
+                                userPayload.getUsername(),
+                                userPayload.getUserAvatar()));
+            }
+        }
+        this.userService.refreshVisibility(graphChanges);
+    }
+}
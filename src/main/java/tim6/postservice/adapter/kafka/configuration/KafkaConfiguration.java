@@ -27,6 +27,9 @@ public class KafkaConfiguration {
     @Value("${KAFKA_SERVER}")
     String kafkaBootstrapServer;
 
+    @Value("${kafka.listener.max-poll-records:500}")
+    int maxPollRecords;
+
     @Bean
     public ConsumerFactory<String, KafkaMessage> kafkaMessageConsumer() {
         final Map<String, Object> configMap = new HashMap<>();
@@ -35,6 +38,8 @@ public class KafkaConfiguration {
         configMap.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         configMap.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
         configMap.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
+        configMap.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        configMap.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, this.maxPollRecords);
         configMap.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
 
         return new DefaultKafkaConsumerFactory<>(
@@ -48,6 +53,7 @@ public class KafkaConfiguration {
         final ConcurrentKafkaListenerContainerFactory<String, KafkaMessage> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(this.kafkaMessageConsumer());
+        factory.setBatchListener(true);
         return factory;
     }
 
@@ -6,11 +6,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import tim6.postservice.adapter.kafka.models.KafkaMessage;
+import tim6.postservice.adapter.kafka.models.payloads.PostCreatedPayload;
 import tim6.postservice.adapter.kafka.models.payloads.PostHistoryPayload;
+import tim6.postservice.domain.models.Post;
 
 @Service
 public class ProducerService {
 
+    public static final String FAN_OUT_TOPIC = "post_fanout_topic";
+
+    public static final String POST_CREATED_KEY = "POST_CREATED";
+
     private final KafkaTemplate<String, KafkaMessage> kafkaTemplate;
 
     @Autowired
@@ -24,4 +30,14 @@ public class ProducerService {
                 new KafkaMessage(
                         "POST_HISTORY", new PostHistoryPayload(userId, new ArrayList<>(postTags))));
     }
+
+    public void sendPostCreated(final Post post) {
+        this.kafkaTemplate.send(
+                FAN_OUT_TOPIC,
+                post.getPosterId(),
+                new KafkaMessage(
+                        POST_CREATED_KEY,
+                        new PostCreatedPayload(
+                                post.getId(), post.getPosterId(), post.getPostDate().getTime())));
+    }
 }
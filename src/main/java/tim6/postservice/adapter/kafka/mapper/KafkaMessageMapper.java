@@ -0,0 +1,51 @@
+package tim6.postservice.adapter.kafka.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import tim6.postservice.adapter.kafka.models.KafkaMessage;
+import tim6.postservice.adapter.kafka.models.payloads.BlockPayload;
+import tim6.postservice.adapter.kafka.models.payloads.FollowPayload;
+import tim6.postservice.adapter.kafka.models.payloads.MutePayload;
+import tim6.postservice.adapter.kafka.models.payloads.UserPayload;
+import tim6.postservice.domain.models.GraphChange;
+import tim6.postservice.domain.models.GraphChangeType;
+
+public class KafkaMessageMapper {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    public static <T> T toPayload(final KafkaMessage message, final Class<T> payloadClass) {
+        return objectMapper.convertValue(message.getValue(), payloadClass);
+    }
+
+    public static UserPayload toUserPayload(final KafkaMessage message) {
+        return toPayload(message, UserPayload.class);
+    }
+
+    public static GraphChange toGraphChange(final KafkaMessage message) {
+        switch (message.getKey()) {
+            case "FOLLOW":
+                final FollowPayload followPayload = toPayload(message, FollowPayload.class);
+                return new GraphChange(
+                        GraphChangeType.FOLLOW,
+                        followPayload.getFollowerId(),
+                        followPayload.getFollowTargetId(),
+                        followPayload.isApply());
+            case "MUTE":
+                final MutePayload mutePayload = toPayload(message, MutePayload.class);
+                return new GraphChange(
+                        GraphChangeType.MUTE,
+                        mutePayload.getMuterId(),
+                        mutePayload.getMuteTargetId(),
+                        mutePayload.isApply());
+            case "BLOCK":
+                final BlockPayload blockPayload = toPayload(message, BlockPayload.class);
+                return new GraphChange(
+                        GraphChangeType.BLOCK,
+                        blockPayload.getBlockerId(),
+                        blockPayload.getBlockTarget(),
+                        blockPayload.isApply());
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package tim6.postservice.adapter.kafka.models.payloads;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class PostCreatedPayload {
+
+    private String postId;
+
+    private String posterId;
+
+    private long postedAt;
+}
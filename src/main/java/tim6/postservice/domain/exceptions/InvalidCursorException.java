@@ -0,0 +1,10 @@
+package tim6.postservice.domain.exceptions;
+
+public class InvalidCursorException extends RuntimeException {
+
+    private static final long serialVersionUID = 4127380563712436085L;
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
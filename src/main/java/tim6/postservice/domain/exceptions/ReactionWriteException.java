@@ -0,0 +1,10 @@
+package tim6.postservice.domain.exceptions;
+
+public class ReactionWriteException extends RuntimeException {
+
+    private static final long serialVersionUID = 6614302591827336940L;
+
+    public ReactionWriteException(String message) {
+        super(message);
+    }
+}
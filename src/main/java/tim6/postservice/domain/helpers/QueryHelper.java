@@ -0,0 +1,36 @@
+package tim6.postservice.domain.helpers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import tim6.postservice.domain.models.PostCursor;
+
+public class QueryHelper {
+
+    public static final int MAX_TERMS_COUNT = 65536;
+
+    public static BoolQueryBuilder termsInChunks(
+            final String field, final Collection<String> values) {
+        final BoolQueryBuilder chunkedTermsQuery = QueryBuilders.boolQuery();
+        final List<String> remainingValues = new ArrayList<>(values);
+        for (int from = 0; from < remainingValues.size(); from += MAX_TERMS_COUNT) {
+            final int to = Math.min(from + MAX_TERMS_COUNT, remainingValues.size());
+            chunkedTermsQuery.should(
+                    QueryBuilders.termsQuery(field, remainingValues.subList(from, to)));
+        }
+        return chunkedTermsQuery.minimumShouldMatch(1);
+    }
+
+    public static BoolQueryBuilder postedAfter(final PostCursor since) {
+        final BoolQueryBuilder sameDateNewerIdQuery = QueryBuilders.boolQuery();
+        sameDateNewerIdQuery.filter(QueryBuilders.termQuery("postDate", since.getPostedAt()));
+        sameDateNewerIdQuery.filter(QueryBuilders.rangeQuery("id").lt(since.getPostId()));
+
+        final BoolQueryBuilder postedAfterQuery = QueryBuilders.boolQuery();
+        postedAfterQuery.should(QueryBuilders.rangeQuery("postDate").gt(since.getPostedAt()));
+        postedAfterQuery.should(sameDateNewerIdQuery);
+        return postedAfterQuery.minimumShouldMatch(1);
+    }
+}
@@ -19,9 +19,12 @@ import org.springframework.data.elasticsearch.annotations.FieldType;
 public class Comment {
 
     @Id
-    @Field(type = FieldType.Text)
+    @Field(type = FieldType.Keyword)
     private String id;
 
+    @Field(type = FieldType.Keyword)
+    private String postId;
+
     @Field(type = FieldType.Object)
     private UserInfo commenter;
 
@@ -31,22 +34,29 @@ public class Comment {
     @Field(type = FieldType.Text)
     private String comment;
 
-    public Comment(final String id, final UserInfo commenter, final String comment) {
+    public Comment(
+            final String id,
+            final String postId,
+            final UserInfo commenter,
+            final String comment) {
         this.id = id;
+        this.postId = postId;
         this.commenter = commenter;
         this.commentDate = new Date();
         this.comment = comment;
     }
 
-    public Comment(final User commenter, final String comment) {
+    public Comment(final String postId, final User commenter, final String comment) {
         this.id = UUID.randomUUID().toString();
+        this.postId = postId;
         this.commenter = new UserInfo(commenter);
         this.commentDate = new Date();
         this.comment = comment;
     }
 
-    public Comment(final UserInfo commenter, final String comment) {
+    public Comment(final String postId, final UserInfo commenter, final String comment) {
         this.id = UUID.randomUUID().toString();
+        this.postId = postId;
         this.commenter = commenter;
         this.commentDate = new Date();
         this.comment = comment;
@@ -0,0 +1,53 @@
+package tim6.postservice.domain.models;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import tim6.postservice.domain.exceptions.InvalidCursorException;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class CommentCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private long commentedAt;
+
+    private String commentId;
+
+    public static CommentCursor of(final Comment comment) {
+        return new CommentCursor(comment.getCommentDate().getTime(), comment.getId());
+    }
+
+    public static CommentCursor decode(final String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            final String decoded =
+                    new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            final int separatorIndex = decoded.indexOf(SEPARATOR);
+            return new CommentCursor(
+                    Long.parseLong(decoded.substring(0, separatorIndex)),
+                    decoded.substring(separatorIndex + 1));
+        } catch (final IllegalArgumentException | IndexOutOfBoundsException ex) {
+            throw new InvalidCursorException(String.format("Invalid cursor: %s", cursor));
+        }
+    }
+
+    public String encode() {
+        final String raw = this.commentedAt + SEPARATOR + this.commentId;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public List<Object> toSearchAfter() {
+        return List.of(this.commentedAt, this.commentId);
+    }
+}
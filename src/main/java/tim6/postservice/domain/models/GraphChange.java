@@ -0,0 +1,25 @@
+package tim6.postservice.domain.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class GraphChange {
+
+    private GraphChangeType type;
+
+    private String userId;
+
+    private String targetId;
+
+    private boolean apply;
+
+    public String getPairKey() {
+        return this.userId + ":" + this.targetId;
+    }
+}
@@ -13,6 +13,7 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.elasticsearch.annotations.Document;
 import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
 
 @Document(indexName = "posts")
 @NoArgsConstructor
@@ -21,7 +22,9 @@ import org.springframework.data.elasticsearch.annotations.FieldType;
 @Data
 public class Post {
 
-    @Id private String id;
+    @Id
+    @Field(type = FieldType.Keyword)
+    private String id;
 
     @Field(type = FieldType.Text)
     private String imageUrl;
@@ -35,6 +38,9 @@ public class Post {
     @Field(type = FieldType.Keyword)
     private String posterId;
 
+    @Field(type = FieldType.Boolean)
+    private boolean posterPublic;
+
     @Field(type = FieldType.Date)
     private Date postDate;
 
@@ -44,43 +50,25 @@ public class Post {
     @Field(type = FieldType.Auto)
     private Set<UserInfo> userTags = new HashSet<>();
 
-    @Field(type = FieldType.Keyword)
-    private Set<String> likes = new HashSet<>();
+    @Field(type = FieldType.Long)
+    private long likesCount;
 
-    @Field(type = FieldType.Keyword)
-    private Set<String> dislikes = new HashSet<>();
+    @Field(type = FieldType.Long)
+    private long dislikesCount;
 
-    @Field(type = FieldType.Keyword)
-    private Set<String> favorites = new HashSet<>();
+    @Field(type = FieldType.Long)
+    private long favoritesCount;
+
+    @Field(type = FieldType.Boolean)
+    private boolean shardedCounters;
+
+    @Field(type = FieldType.Integer)
+    private int commentsCount;
 
     @Field(type = FieldType.Object)
-    private List<Comment> comments = new ArrayList<>();
+    private List<Comment> latestComments = new ArrayList<>();
 
-    public Post(
-            final String id,
-            final String imageUrl,
-            final String description,
-            final UserInfo poster,
-            final Date postDate,
-            final Set<String> tags,
-            final Set<UserInfo> userTags,
-            final Set<String> likes,
-            final Set<String> dislikes,
-            final Set<String> favorites,
-            final List<Comment> comments) {
-        this.id = id;
-        this.imageUrl = imageUrl;
-        this.description = description;
-        this.poster = poster;
-        this.posterId = poster.getId();
-        this.postDate = postDate;
-        this.tags = tags;
-        this.userTags = userTags;
-        this.likes = likes;
-        this.dislikes = dislikes;
-        this.favorites = favorites;
-        this.comments = comments;
-    }
+    private SeqNoPrimaryTerm seqNoPrimaryTerm;
 
     public Post(
             final String id,
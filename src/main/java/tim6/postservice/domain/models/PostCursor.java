@@ -0,0 +1,89 @@
+package tim6.postservice.domain.models;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import tim6.postservice.domain.exceptions.InvalidCursorException;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class PostCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private static final String PIT_SEPARATOR = "@";
+
+    private long postedAt;
+
+    private String postId;
+
+    private String pitId;
+
+    public PostCursor(final long postedAt, final String postId) {
+        this(postedAt, postId, null);
+    }
+
+    public static PostCursor of(final Post post) {
+        return new PostCursor(post.getPostDate().getTime(), post.getId());
+    }
+
+    public static PostCursor of(final Reaction reaction) {
+        return new PostCursor(reaction.getReactedAt().getTime(), reaction.getPostId());
+    }
+
+    public static PostCursor of(final TimelineEntry entry) {
+        return new PostCursor(entry.getPostedAt(), entry.getPostId());
+    }
+
+    public static PostCursor decode(final String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            final String decoded =
+                    new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            final int separatorIndex = decoded.indexOf(SEPARATOR);
+            final int pitSeparatorIndex = decoded.indexOf(PIT_SEPARATOR, separatorIndex);
+            if (pitSeparatorIndex < 0) {
+                return new PostCursor(
+                        Long.parseLong(decoded.substring(0, separatorIndex)),
+                        decoded.substring(separatorIndex + 1));
+            }
+            return new PostCursor(
+                    Long.parseLong(decoded.substring(0, separatorIndex)),
+                    decoded.substring(separatorIndex + 1, pitSeparatorIndex),
+                    decoded.substring(pitSeparatorIndex + 1));
+        } catch (final IllegalArgumentException | IndexOutOfBoundsException ex) {
+            throw new InvalidCursorException(String.format("Invalid cursor: %s", cursor));
+        }
+    }
+
+    public String encode() {
+        final String raw =
+                this.pitId == null
+                        ? this.postedAt + SEPARATOR + this.postId
+                        : this.postedAt + SEPARATOR + this.postId + PIT_SEPARATOR + this.pitId;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public List<Object> toSearchAfter() {
+        return List.of(this.postedAt, this.postId);
+    }
+
+    public boolean follows(final long otherPostedAt, final String otherPostId) {
+        return otherPostedAt > this.postedAt
+                || (otherPostedAt == this.postedAt && otherPostId.compareTo(this.postId) < 0);
+    }
+
+    public boolean precedes(final long otherPostedAt, final String otherPostId) {
+        return otherPostedAt < this.postedAt
+                || (otherPostedAt == this.postedAt && otherPostId.compareTo(this.postId) > 0);
+    }
+}
@@ -0,0 +1,19 @@
+package tim6.postservice.domain.models;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class PostCursorPage {
+
+    private List<Post> posts = new ArrayList<>();
+
+    private PostCursor nextCursor;
+}
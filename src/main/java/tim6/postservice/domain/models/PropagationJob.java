@@ -0,0 +1,77 @@
+package tim6.postservice.domain.models;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+import org.springframework.data.elasticsearch.core.query.SeqNoPrimaryTerm;
+
+@Document(indexName = "propagation_jobs")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class PropagationJob {
+
+    @Id
+    @Field(type = FieldType.Keyword)
+    private String id;
+
+    @Field(type = FieldType.Long)
+    private long profileVersion;
+
+    @Field(type = FieldType.Object)
+    private UserInfo userInfo;
+
+    @Field(type = FieldType.Boolean)
+    private boolean posterPublic;
+
+    @Field(type = FieldType.Boolean)
+    private boolean visibilityOnly;
+
+    @Field(type = FieldType.Keyword)
+    private PropagationJobStatus status;
+
+    @Field(type = FieldType.Keyword)
+    private PropagationPhase phase;
+
+    @Field(type = FieldType.Keyword)
+    private List<String> checkpoint = new ArrayList<>();
+
+    @Field(type = FieldType.Keyword)
+    private List<String> failedIds = new ArrayList<>();
+
+    @Field(type = FieldType.Long)
+    private long documentsUpdated;
+
+    @Field(type = FieldType.Date)
+    private Date enqueuedAt;
+
+    @Field(type = FieldType.Date)
+    private Date startedAt;
+
+    @Field(type = FieldType.Date)
+    private Date heartbeatAt;
+
+    private SeqNoPrimaryTerm seqNoPrimaryTerm;
+
+    public PropagationJob(final User user, final boolean visibilityOnly) {
+        this.id = user.getId();
+        this.profileVersion = user.getProfileVersion();
+        this.userInfo = new UserInfo(user);
+        this.posterPublic = user.isPublicAccount();
+        this.visibilityOnly = visibilityOnly;
+        this.status = PropagationJobStatus.QUEUED;
+        this.phase = PropagationPhase.POSTER_POSTS;
+        this.checkpoint = new ArrayList<>();
+        this.failedIds = new ArrayList<>();
+        this.enqueuedAt = new Date();
+    }
+}
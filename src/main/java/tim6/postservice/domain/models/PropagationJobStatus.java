@@ -0,0 +1,8 @@
+package tim6.postservice.domain.models;
+
+public enum PropagationJobStatus {
+    QUEUED,
+    RUNNING,
+    DONE,
+    FAILED
+}
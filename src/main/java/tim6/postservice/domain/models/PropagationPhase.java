@@ -0,0 +1,7 @@
+package tim6.postservice.domain.models;
+
+public enum PropagationPhase {
+    POSTER_POSTS,
+    MENTIONING_POSTS,
+    COMMENTS
+}
@@ -0,0 +1,47 @@
+package tim6.postservice.domain.models;
+
+import java.util.Date;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+
+@Document(indexName = "reactions")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class Reaction {
+
+    @Id
+    @Field(type = FieldType.Keyword)
+    private String id;
+
+    @Field(type = FieldType.Keyword)
+    private String postId;
+
+    @Field(type = FieldType.Keyword)
+    private String userId;
+
+    @Field(type = FieldType.Keyword)
+    private ReactionType type;
+
+    @Field(type = FieldType.Date)
+    private Date reactedAt;
+
+    public Reaction(final String postId, final String userId, final ReactionType type) {
+        this.id = Reaction.idOf(postId, userId, type);
+        this.postId = postId;
+        this.userId = userId;
+        this.type = type;
+        this.reactedAt = new Date();
+    }
+
+    public static String idOf(final String postId, final String userId, final ReactionType type) {
+        return postId + ":" + userId + ":" + type;
+    }
+}
@@ -0,0 +1,23 @@
+package tim6.postservice.domain.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class ReactionChange {
+
+    private String postId;
+
+    private String userId;
+
+    private ReactionType type;
+
+    private boolean present;
+
+    public String getReactionId() {
+        return Reaction.idOf(this.postId, this.userId, this.type);
+    }
+}
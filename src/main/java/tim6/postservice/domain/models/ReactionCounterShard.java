@@ -0,0 +1,38 @@
+package tim6.postservice.domain.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+
+@Document(indexName = "reaction_counter_shards")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class ReactionCounterShard {
+
+    @Id
+    @Field(type = FieldType.Keyword)
+    private String id;
+
+    @Field(type = FieldType.Keyword)
+    private String postId;
+
+    @Field(type = FieldType.Long)
+    private long likesCount;
+
+    @Field(type = FieldType.Long)
+    private long dislikesCount;
+
+    @Field(type = FieldType.Long)
+    private long favoritesCount;
+
+    public static String idOf(final String postId, final int shard) {
+        return postId + ":" + shard;
+    }
+}
@@ -0,0 +1,17 @@
+package tim6.postservice.domain.models;
+
+public enum ReactionType {
+    LIKE("likesCount"),
+    DISLIKE("dislikesCount"),
+    FAVORITE("favoritesCount");
+
+    private final String counterField;
+
+    ReactionType(final String counterField) {
+        this.counterField = counterField;
+    }
+
+    public String getCounterField() {
+        return this.counterField;
+    }
+}
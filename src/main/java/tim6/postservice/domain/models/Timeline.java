@@ -0,0 +1,27 @@
+package tim6.postservice.domain.models;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+
+@Document(indexName = "timelines")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class Timeline {
+
+    @Id
+    @Field(type = FieldType.Keyword)
+    private String id;
+
+    @Field(type = FieldType.Object)
+    private List<TimelineEntry> entries = new ArrayList<>();
+}
@@ -0,0 +1,30 @@
+package tim6.postservice.domain.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.elasticsearch.annotations.Field;
+import org.springframework.data.elasticsearch.annotations.FieldType;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class TimelineEntry {
+
+    @Field(type = FieldType.Keyword)
+    private String postId;
+
+    @Field(type = FieldType.Keyword)
+    private String posterId;
+
+    @Field(type = FieldType.Long)
+    private long postedAt;
+
+    public TimelineEntry(final Post post) {
+        this.postId = post.getId();
+        this.posterId = post.getPosterId();
+        this.postedAt = post.getPostDate().getTime();
+    }
+}
@@ -40,6 +40,12 @@ public class User {
     @Field(type = FieldType.Text, store = true)
     private Set<String> muted;
 
+    @Field(type = FieldType.Long, store = true)
+    private long followersCount;
+
+    @Field(type = FieldType.Long, store = true)
+    private long profileVersion;
+
     public User(
             final String id,
             final String username,
@@ -53,4 +59,21 @@ public class User {
         this.blocked = new HashSet<>();
         this.muted = new HashSet<>();
     }
+
+    public User(
+            final String id,
+            final String username,
+            final String userAvatar,
+            final boolean publicAccount,
+            final Set<String> following,
+            final Set<String> blocked,
+            final Set<String> muted) {
+        this.id = id;
+        this.username = username;
+        this.userAvatar = userAvatar;
+        this.publicAccount = publicAccount;
+        this.following = following;
+        this.blocked = blocked;
+        this.muted = muted;
+    }
 }
@@ -0,0 +1,36 @@
+package tim6.postservice.domain.models;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class ViewerReactions {
+
+    private Map<String, Set<ReactionType>> reactionsByPostId = new HashMap<>();
+
+    public static ViewerReactions none() {
+        return new ViewerReactions();
+    }
+
+    public boolean has(final String postId, final ReactionType type) {
+        return this.reactionsByPostId.getOrDefault(postId, Set.of()).contains(type);
+    }
+
+    public void set(final String postId, final ReactionType type, final boolean present) {
+        final Set<ReactionType> reactions =
+                this.reactionsByPostId.computeIfAbsent(
+                        postId, id -> EnumSet.noneOf(ReactionType.class));
+        if (present) {
+            reactions.add(type);
+        } else {
+            reactions.remove(type);
+        }
+    }
+}
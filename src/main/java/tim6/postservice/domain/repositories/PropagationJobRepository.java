@@ -0,0 +1,8 @@
+package tim6.postservice.domain.repositories;
+
+import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
+import org.springframework.stereotype.Repository;
+import tim6.postservice.domain.models.PropagationJob;
+
+@Repository
+public interface PropagationJobRepository extends ElasticsearchRepository<PropagationJob, String> {}
@@ -0,0 +1,9 @@
+package tim6.postservice.domain.repositories;
+
+import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
+import org.springframework.stereotype.Repository;
+import tim6.postservice.domain.models.ReactionCounterShard;
+
+@Repository
+public interface ReactionCounterShardRepository
+        extends ElasticsearchRepository<ReactionCounterShard, String> {}
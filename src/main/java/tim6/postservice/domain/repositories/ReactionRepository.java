@@ -0,0 +1,8 @@
+package tim6.postservice.domain.repositories;
+
+import org.springframework.data.elasticsearch.repository.ElasticsearchRepository;
+import org.springframework.stereotype.Repository;
+import tim6.postservice.domain.models.Reaction;
+
+@Repository
+public interface ReactionRepository extends ElasticsearchRepository<Reaction, String> {}
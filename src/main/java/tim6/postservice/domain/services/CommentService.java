@@ -1,37 +1,121 @@
 package tim6.postservice.domain.services;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.elasticsearch.ElasticsearchStatusException;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.script.ScriptType;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.sort.SortOrder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
 import org.springframework.stereotype.Repository;
 import tim6.postservice.domain.exceptions.EntityAlreadyExistsException;
 import tim6.postservice.domain.models.Comment;
+import tim6.postservice.domain.models.CommentCursor;
 import tim6.postservice.domain.models.Post;
 import tim6.postservice.domain.models.User;
-import tim6.postservice.domain.models.UserInfo;
 import tim6.postservice.domain.repositories.CommentRepository;
 
 @Repository
 public class CommentService {
 
-    final CommentRepository postRepository;
+    public static final int MAX_COMMENTS_PER_PAGE = 20;
+
+    public static final int LATEST_COMMENTS_IN_DETAIL = 5;
+
+    public static final int LATEST_COMMENTS_IN_PREVIEW = 3;
+
+    private static final String APPEND_COMMENT_SCRIPT =
+            "if (ctx._source.latestComments == null) {"
+                    + "  ctx._source.latestComments = new ArrayList();"
+                    + "}"
+                    + "def latest = ctx._source.latestComments;"
+                    + "boolean previewed = false;"
+                    + "for (comment in latest) {"
+                    + "  if (comment.id == params.comment.id) {"
+                    + "    previewed = true;"
+                    + "  }"
+                    + "}"
+                    + "def current = ctx._source.commentsCount;"
+                    + "current = current == null ? 0 : current;"
+                    + "if (params.recountedComments != null) {"
+                    + "  long recounted = params.recountedComments;"
+                    + "  ctx._source.commentsCount = recounted > current ? recounted : current;"
+                    + "} else if (!previewed) {"
+                    + "  ctx._source.commentsCount = current + 1;"
+                    + "}"
+                    + "if (!previewed) {"
+                    + "  latest.add(params.comment);"
+                    + "  latest.sort((a, b) -> {"
+                    + "    int byDate = b.commentDate.compareTo(a.commentDate);"
+                    + "    return byDate != 0 ? byDate : a.id.compareTo(b.id);"
+                    + "  });"
+                    + "  if (latest.size() > params.previewSize) {"
+                    + "    ctx._source.latestComments ="
+                    + "      new ArrayList(latest.subList(0, params.previewSize));"
+                    + "  }"
+                    + "}";
+
+    private static final int MAX_WRITE_ATTEMPTS = 5;
+
+    private static final String WRITE_ENDPOINT = "comments";
+
+    final CommentRepository commentRepository;
 
     final ElasticsearchOperations elasticsearchOperations;
 
+    final RestHighLevelClient elasticsearchClient;
+
     final PostService postService;
 
     final UserService userService;
 
+    final UserInfoResolver userInfoResolver;
+
+    final LegacyPostBackfill legacyPostBackfill;
+
+    final PostWriteMetrics postWriteMetrics;
+
+    @Value("${posts.write.retry-on-conflict:3}")
+    int retryOnConflict;
+
     @Autowired
     public CommentService(
-            final CommentRepository postRepository,
+            final CommentRepository commentRepository,
             final ElasticsearchOperations elasticsearchOperations,
+            final RestHighLevelClient elasticsearchClient,
             final PostService postService,
-            final UserService userService) {
-        this.postRepository = postRepository;
+            final UserService userService,
+            final UserInfoResolver userInfoResolver,
+            final LegacyPostBackfill legacyPostBackfill,
+            final PostWriteMetrics postWriteMetrics) {
+        this.commentRepository = commentRepository;
         this.elasticsearchOperations = elasticsearchOperations;
+        this.elasticsearchClient = elasticsearchClient;
         this.postService = postService;
         this.userService = userService;
+        this.userInfoResolver = userInfoResolver;
+        this.legacyPostBackfill = legacyPostBackfill;
+        this.postWriteMetrics = postWriteMetrics;
     }
 
     public void commentOnAPost(
@@ -39,26 +123,148 @@ public class CommentService {
             final String commentId,
             final String commentContent,
             final String authedUserId) {
-        final Comment comment = this.createComment(commentId, commentContent, authedUserId);
+        final Comment comment =
+                this.createComment(commentId, postId, commentContent, authedUserId);
         this.addCommentToPost(postId, authedUserId, comment);
     }
 
     public Comment createComment(
-            final String id, final String commentContent, final String authedUserId) {
+            final String id,
+            final String postId,
+            final String commentContent,
+            final String authedUserId) {
         final User commenter = this.userService.findById(authedUserId);
-        return new Comment(id, new UserInfo(commenter), commentContent);
+        return new Comment(
+                id, postId, this.userInfoResolver.toStoredUserInfo(commenter), commentContent);
+    }
+
+    private void addCommentToPost(
+            final String postId, final String authedUserId, final Comment comment) {
+        this.postService.ensureVisible(postId, authedUserId);
+        this.legacyPostBackfill.migrate(postId);
+        final Map<String, Object> commentSource =
+                this.elasticsearchOperations.getElasticsearchConverter().mapObject(comment);
+        if (this.createCommentDocument(comment.getId(), commentSource)) {
+            this.appendToPost(postId, commentSource, null);
+            return;
+        }
+
+        final Comment storedComment =
+                this.commentRepository
+                        .findById(comment.getId())
+                        .orElseThrow(EntityAlreadyExistsException::new);
+        this.appendToPost(
+                storedComment.getPostId(),
+                this.elasticsearchOperations.getElasticsearchConverter().mapObject(storedComment),
+                this.countComments(storedComment.getPostId()));
+        throw new EntityAlreadyExistsException();
+    }
+
+    private void appendToPost(
+            final String postId,
+            final Map<String, Object> commentSource,
+            final Long recountedComments) {
+        final Map<String, Object> appendParams = new HashMap<>();
+        appendParams.put("comment", commentSource);
+        appendParams.put("previewSize", LATEST_COMMENTS_IN_PREVIEW);
+        appendParams.put("recountedComments", recountedComments);
+        final UpdateRequest appendRequest =
+                new UpdateRequest(
+                                this.elasticsearchOperations
+                                        .getIndexCoordinatesFor(Post.class)
+                                        .getIndexName(),
+                                postId)
+                        .script(
+                                new Script(
+                                        ScriptType.INLINE,
+                                        Script.DEFAULT_SCRIPT_LANG,
+                                        APPEND_COMMENT_SCRIPT,
+                                        appendParams))
+                        .retryOnConflict(this.retryOnConflict);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                this.elasticsearchClient.update(appendRequest, RequestOptions.DEFAULT);
+                return;
+            } catch (final ElasticsearchStatusException ex) {
+                if (ex.status() != RestStatus.CONFLICT) {
+                    throw ex;
+                }
+                this.postWriteMetrics.conflicts(WRITE_ENDPOINT, 1);
+                if (attempt == MAX_WRITE_ATTEMPTS) {
+                    throw new OptimisticLockingFailureException(
+                            String.format("Comment on post with id %s conflicted", postId), ex);
+                }
+                this.postWriteMetrics.retries(WRITE_ENDPOINT, 1);
+            } catch (final IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+
+    private long countComments(final String postId) {
+        final NativeSearchQuery commentsOfPostQuery =
+                new NativeSearchQueryBuilder()
+                        .withQuery(QueryBuilders.termQuery("postId", postId))
+                        .build();
+        return this.elasticsearchOperations.count(commentsOfPostQuery, Comment.class);
     }
 
-    private void addCommentToPost(final String postId, final String authedUserId, final Comment comment) {
-        final Post post = this.postService.getPostById(postId, authedUserId);
-        final List<Comment> comments = post.getComments();
+    private boolean createCommentDocument(
+            final String commentId, final Map<String, Object> commentSource) {
+        final IndexRequest createRequest =
+                new IndexRequest(
+                                this.elasticsearchOperations
+                                        .getIndexCoordinatesFor(Comment.class)
+                                        .getIndexName())
+                        .id(commentId)
+                        .source(commentSource)
+                        .opType(DocWriteRequest.OpType.CREATE);
+        try {
+            this.elasticsearchClient.index(createRequest, RequestOptions.DEFAULT);
+            return true;
+        } catch (final ElasticsearchStatusException ex) {
+            if (ex.status() == RestStatus.CONFLICT) {
+                return false;
+            }
+            throw ex;
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public List<Comment> getComments(
+            final String postId, final CommentCursor after, final String authedUserId) {
+        this.postService.ensureVisible(postId, authedUserId);
+        this.legacyPostBackfill.migrate(postId);
+        return this.getLatestComments(postId, after, MAX_COMMENTS_PER_PAGE);
+    }
 
-        if (comments.stream().anyMatch(c -> c.getId().equals(comment.getId()))) {
-            throw new EntityAlreadyExistsException();
-        } else {
-            comments.add(comment);
-            post.setComments(comments);
-            this.postService.save(post);
+    public List<Comment> getLatestComments(final String postId) {
+        return this.getLatestComments(postId, null, LATEST_COMMENTS_IN_DETAIL);
+    }
+
+    private List<Comment> getLatestComments(
+            final String postId, final CommentCursor after, final int size) {
+        final BoolQueryBuilder commentsOfPostQuery = QueryBuilders.boolQuery();
+        commentsOfPostQuery.filter(QueryBuilders.termQuery("postId", postId));
+
+        final NativeSearchQuery commentsQuery =
+                new NativeSearchQueryBuilder()
+                        .withQuery(commentsOfPostQuery)
+                        .withSort(SortBuilders.fieldSort("commentDate").order(SortOrder.DESC))
+                        .withSort(SortBuilders.fieldSort("id").order(SortOrder.ASC))
+                        .withPageable(PageRequest.of(0, size))
+                        .build();
+        if (after != null) {
+            commentsQuery.setSearchAfter(after.toSearchAfter());
         }
+        commentsQuery.setTrackTotalHits(false);
+
+        final List<Comment> comments =
+                this.elasticsearchOperations.search(commentsQuery, Comment.class).stream()
+                        .map(SearchHit::getContent)
+                        .collect(Collectors.toList());
+        this.userInfoResolver.resolveComments(comments);
+        return comments;
     }
 }
@@ -0,0 +1,6 @@
+package tim6.postservice.domain.services;
+
+public enum FeedMode {
+    HYBRID,
+    QUERY
+}
@@ -0,0 +1,157 @@
+package tim6.postservice.domain.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.elasticsearch.action.DocWriteResponse;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.search.MultiSearchRequest;
+import org.elasticsearch.action.search.MultiSearchResponse;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.script.ScriptType;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.stereotype.Service;
+import tim6.postservice.domain.models.User;
+
+@Service
+public class FollowersCountBackfill {
+
+    private static final String SET_FOLLOWERS_COUNT_SCRIPT =
+            "def followersCount = ctx._source.followersCount == null"
+                    + "  ? 0 : ctx._source.followersCount;"
+                    + "if (followersCount == params.expected) {"
+                    + "  ctx._source.followersCount = params.followersCount;"
+                    + "} else {"
+                    + "  ctx.op = 'noop';"
+                    + "}";
+
+    final ElasticsearchOperations elasticsearchOperations;
+
+    final RestHighLevelClient elasticsearchClient;
+
+    @Value("${users.followers-count.backfill-batch-size:500}")
+    int batchSize;
+
+    @Autowired
+    public FollowersCountBackfill(
+            final ElasticsearchOperations elasticsearchOperations,
+            final RestHighLevelClient elasticsearchClient) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.elasticsearchClient = elasticsearchClient;
+    }
+
+    public long backfill() {
+        if (!this.elasticsearchOperations.indexOps(User.class).exists()) {
+            return 0;
+        }
+
+        final NativeSearchQuery allUsersQuery =
+                new NativeSearchQueryBuilder()
+                        .withFields("id", "followersCount")
+                        .withQuery(QueryBuilders.matchAllQuery())
+                        .withPageable(PageRequest.of(0, this.batchSize))
+                        .build();
+        long corrected = 0;
+        final List<User> batch = new ArrayList<>();
+        try (final SearchHitsIterator<User> users =
+                this.elasticsearchOperations.searchForStream(allUsersQuery, User.class)) {
+            while (users.hasNext()) {
+                batch.add(users.next().getContent());
+                if (batch.size() == this.batchSize) {
+                    corrected += this.recount(batch);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            corrected += this.recount(batch);
+        }
+        return corrected;
+    }
+
+    private long recount(final List<User> users) {
+        final String usersIndex =
+                this.elasticsearchOperations.getIndexCoordinatesFor(User.class).getIndexName();
+        final MultiSearchRequest followersCountsRequest = new MultiSearchRequest();
+        users.forEach(
+                user ->
+                        followersCountsRequest.add(
+                                new SearchRequest(usersIndex)
+                                        .source(
+                                                new SearchSourceBuilder()
+                                                        .query(
+                                                                QueryBuilders.matchPhraseQuery(
+                                                                        "following", user.getId()))
+                                                        .size(0)
+                                                        .trackTotalHits(true))));
+        final MultiSearchResponse.Item[] followersCounts;
+        try {
+            followersCounts =
+                    this.elasticsearchClient
+                            .msearch(followersCountsRequest, RequestOptions.DEFAULT)
+                            .getResponses();
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        final BulkRequest correctionsBulk = new BulkRequest();
+        for (int i = 0; i < followersCounts.length; i++) {
+            if (followersCounts[i].isFailure()) {
+                continue;
+            }
+            final User user = users.get(i);
+            final long followersCount =
+                    followersCounts[i].getResponse().getHits().getTotalHits().value;
+            if (followersCount != user.getFollowersCount()) {
+                correctionsBulk.add(
+                        new UpdateRequest(usersIndex, user.getId())
+                                .script(
+                                        new Script(
+                                                ScriptType.INLINE,
+                                                Script.DEFAULT_SCRIPT_LANG,
+                                                SET_FOLLOWERS_COUNT_SCRIPT,
+                                                Map.of(
+                                                        "expected",
+                                                        user.getFollowersCount(),
+                                                        "followersCount",
+                                                        followersCount))));
+            }
+        }
+        if (correctionsBulk.numberOfActions() == 0) {
+            return 0;
+        }
+
+        final BulkItemResponse[] items;
+        try {
+            items =
+                    this.elasticsearchClient
+                            .bulk(correctionsBulk, RequestOptions.DEFAULT)
+                            .getItems();
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        long corrected = 0;
+        for (final BulkItemResponse item : items) {
+            if (!item.isFailed()
+                    && item.getResponse().getResult() == DocWriteResponse.Result.UPDATED) {
+                corrected++;
+            }
+        }
+        return corrected;
+    }
+}
@@ -0,0 +1,443 @@
+package tim6.postservice.domain.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.script.ScriptType;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
+import org.elasticsearch.search.aggregations.metrics.TopHits;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.sort.SortOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tim6.postservice.domain.helpers.QueryHelper;
+import tim6.postservice.domain.models.Comment;
+import tim6.postservice.domain.models.Post;
+import tim6.postservice.domain.models.Reaction;
+import tim6.postservice.domain.models.ReactionType;
+
+@Service
+public class LegacyPostBackfill {
+
+    private static final Map<ReactionType, String> LEGACY_REACTION_FIELDS =
+            Map.of(
+                    ReactionType.LIKE, "likes",
+                    ReactionType.DISLIKE, "dislikes",
+                    ReactionType.FAVORITE, "favorites");
+
+    private static final String LEGACY_COMMENTS_FIELD = "comments";
+
+    private static final String MIGRATE_POST_SCRIPT =
+            "boolean legacy = false;"
+                    + "for (field in params.legacyFields) {"
+                    + "  if (ctx._source.containsKey(field)) {"
+                    + "    legacy = true;"
+                    + "  }"
+                    + "}"
+                    + "if (!legacy) {"
+                    + "  ctx.op = 'noop';"
+                    + "} else {"
+                    + "  for (entry in params.migrated.entrySet()) {"
+                    + "    ctx._source[entry.getKey()] = entry.getValue();"
+                    + "  }"
+                    + "  for (field in params.legacyFields) {"
+                    + "    ctx._source.remove(field);"
+                    + "  }"
+                    + "}";
+
+    private static final String POSTS_AGGREGATION = "posts";
+
+    private static final String TYPES_AGGREGATION = "types";
+
+    private static final String LATEST_AGGREGATION = "latest";
+
+    private static final String COMMENTS_COUNT_FIELD = "commentsCount";
+
+    private static final String LATEST_COMMENTS_FIELD = "latestComments";
+
+    private static final int RETRY_ON_CONFLICT = 3;
+
+    final ElasticsearchOperations elasticsearchOperations;
+
+    final RestHighLevelClient elasticsearchClient;
+
+    @Value("${posts.legacy.backfill-batch-size:200}")
+    int batchSize;
+
+    private volatile boolean complete;
+
+    @Autowired
+    public LegacyPostBackfill(
+            final ElasticsearchOperations elasticsearchOperations,
+            final RestHighLevelClient elasticsearchClient) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.elasticsearchClient = elasticsearchClient;
+    }
+
+    private static List<String> legacyFields() {
+        final List<String> legacyFields = new ArrayList<>(LEGACY_REACTION_FIELDS.values());
+        legacyFields.add(LEGACY_COMMENTS_FIELD);
+        return legacyFields;
+    }
+
+    private static QueryBuilder legacyPostsQuery() {
+        final BoolQueryBuilder legacyPostsQuery = QueryBuilders.boolQuery();
+        legacyFields()
+                .forEach(field -> legacyPostsQuery.should(QueryBuilders.existsQuery(field)));
+        return legacyPostsQuery.minimumShouldMatch(1);
+    }
+
+    public boolean isComplete() {
+        return this.complete;
+    }
+
+    @Scheduled(fixedDelayString = "${posts.legacy.backfill-interval-ms:60000}")
+    public void backfill() {
+        if (this.complete || !this.elasticsearchOperations.indexOps(Post.class).exists()) {
+            return;
+        }
+
+        boolean found = false;
+        Object[] searchAfter = null;
+        while (true) {
+            final SearchHit[] legacyPosts =
+                    this.searchLegacyPosts(QueryBuilders.matchAllQuery(), searchAfter);
+            if (legacyPosts.length == 0) {
+                break;
+            }
+
+            found = true;
+            this.migrate(legacyPosts);
+            searchAfter = legacyPosts[legacyPosts.length - 1].getSortValues();
+        }
+
+        this.complete = !found;
+    }
+
+    public void migrate(final String postId) {
+        if (this.complete) {
+            return;
+        }
+
+        this.migrateAll(QueryBuilders.idsQuery().addIds(postId));
+    }
+
+    public void migrate(final List<Post> posts) {
+        if (this.complete || posts.isEmpty()) {
+            return;
+        }
+
+        final ElasticsearchConverter converter =
+                this.elasticsearchOperations.getElasticsearchConverter();
+        final Set<String> postIds = new HashSet<>();
+        posts.forEach(post -> postIds.add(post.getId()));
+        final Map<String, Map<String, Object>> migrated =
+                this.migrateAll(QueryBuilders.idsQuery().addIds(postIds.toArray(String[]::new)));
+        for (final Post post : posts) {
+            final Map<String, Object> migratedFields = migrated.get(post.getId());
+            if (migratedFields != null) {
+                post.setLikesCount((long) migratedFields.get("likesCount"));
+                post.setDislikesCount((long) migratedFields.get("dislikesCount"));
+                post.setFavoritesCount((long) migratedFields.get("favoritesCount"));
+                post.setCommentsCount(
+                        ((Long) migratedFields.get(COMMENTS_COUNT_FIELD)).intValue());
+                post.setLatestComments(
+                        commentSources(migratedFields.get(LATEST_COMMENTS_FIELD)).stream()
+                                .map(
+                                        comment ->
+                                                converter.read(
+                                                        Comment.class, Document.from(comment)))
+                                .collect(Collectors.toList()));
+            }
+        }
+    }
+
+    public void migratePostsReactedBy(final String userId) {
+        if (this.complete) {
+            return;
+        }
+
+        final BoolQueryBuilder reactedByQuery = QueryBuilders.boolQuery();
+        LEGACY_REACTION_FIELDS
+                .values()
+                .forEach(
+                        field ->
+                                reactedByQuery.should(
+                                        QueryBuilders.matchPhraseQuery(field, userId)));
+        this.migrateAll(reactedByQuery.minimumShouldMatch(1));
+    }
+
+    private Map<String, Map<String, Object>> migrateAll(final QueryBuilder scope) {
+        final Map<String, Map<String, Object>> migrated = new HashMap<>();
+        Object[] searchAfter = null;
+        while (true) {
+            final SearchHit[] legacyPosts = this.searchLegacyPosts(scope, searchAfter);
+            if (legacyPosts.length == 0) {
+                return migrated;
+            }
+
+            migrated.putAll(this.migrate(legacyPosts));
+            searchAfter = legacyPosts[legacyPosts.length - 1].getSortValues();
+        }
+    }
+
+    private SearchHit[] searchLegacyPosts(final QueryBuilder scope, final Object[] searchAfter) {
+        final List<String> includes = legacyFields();
+        includes.add("id");
+        includes.add("postDate");
+        final SearchSourceBuilder legacyPostsSource =
+                new SearchSourceBuilder()
+                        .query(QueryBuilders.boolQuery().filter(scope).filter(legacyPostsQuery()))
+                        .size(this.batchSize)
+                        .sort("id", SortOrder.ASC)
+                        .fetchSource(includes.toArray(String[]::new), null)
+                        .trackTotalHits(false);
+        if (searchAfter != null) {
+            legacyPostsSource.searchAfter(searchAfter);
+        }
+
+        final SearchRequest searchRequest =
+                new SearchRequest(this.indexNameOf(Post.class)).source(legacyPostsSource);
+        try {
+            return this.elasticsearchClient
+                    .search(searchRequest, RequestOptions.DEFAULT)
+                    .getHits()
+                    .getHits();
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private Map<String, Map<String, Object>> migrate(final SearchHit[] legacyPosts) {
+        if (legacyPosts.length == 0) {
+            return Map.of();
+        }
+
+        final ElasticsearchConverter converter =
+                this.elasticsearchOperations.getElasticsearchConverter();
+        final String reactionsIndex = this.indexNameOf(Reaction.class);
+        final String commentsIndex = this.indexNameOf(Comment.class);
+        final BulkRequest documentsBulk = new BulkRequest();
+        final List<String> documentPostIds = new ArrayList<>();
+        final Set<String> postIds = new HashSet<>();
+        for (final SearchHit legacyPost : legacyPosts) {
+            final Map<String, Object> source = legacyPost.getSourceAsMap();
+            final Document postDocument = Document.from(source);
+            postDocument.setId(legacyPost.getId());
+            final Post post = converter.read(Post.class, postDocument);
+            postIds.add(post.getId());
+
+            for (final Map.Entry<ReactionType, String> legacyField :
+                    LEGACY_REACTION_FIELDS.entrySet()) {
+                for (final String userId : legacyUserIds(source.get(legacyField.getValue()))) {
+                    final Reaction reaction =
+                            new Reaction(post.getId(), userId, legacyField.getKey());
+                    reaction.setReactedAt(post.getPostDate());
+                    documentsBulk.add(
+                            new IndexRequest(reactionsIndex)
+                                    .id(reaction.getId())
+                                    .source(converter.mapObject(reaction))
+                                    .opType(DocWriteRequest.OpType.CREATE));
+                    documentPostIds.add(post.getId());
+                }
+            }
+
+            for (final Map<String, Object> legacyComment :
+                    commentSources(source.get(LEGACY_COMMENTS_FIELD))) {
+                final Document commentDocument = Document.from(legacyComment);
+                final Comment comment = converter.read(Comment.class, commentDocument);
+                comment.setPostId(post.getId());
+                documentsBulk.add(
+                        new IndexRequest(commentsIndex)
+                                .id(comment.getId())
+                                .source(converter.mapObject(comment))
+                                .opType(DocWriteRequest.OpType.CREATE));
+                documentPostIds.add(post.getId());
+            }
+        }
+
+        if (documentsBulk.numberOfActions() > 0) {
+            final BulkItemResponse[] items = this.bulk(documentsBulk).getItems();
+            for (int i = 0; i < items.length; i++) {
+                if (items[i].isFailed() && items[i].status() != RestStatus.CONFLICT) {
+                    postIds.remove(documentPostIds.get(i));
+                }
+            }
+            this.elasticsearchOperations.indexOps(Reaction.class).refresh();
+            this.elasticsearchOperations.indexOps(Comment.class).refresh();
+        }
+        if (postIds.isEmpty()) {
+            return Map.of();
+        }
+
+        final Map<String, Map<String, Object>> migrated = this.countReactions(postIds);
+        this.summarizeComments(postIds)
+                .forEach((postId, summary) -> migrated.get(postId).putAll(summary));
+        final String postsIndex = this.indexNameOf(Post.class);
+        final List<String> finalizedPostIds = new ArrayList<>(migrated.keySet());
+        final BulkRequest finalizeBulk = new BulkRequest();
+        for (final String postId : finalizedPostIds) {
+            finalizeBulk.add(
+                    new UpdateRequest(postsIndex, postId)
+                            .script(
+                                    new Script(
+                                            ScriptType.INLINE,
+                                            Script.DEFAULT_SCRIPT_LANG,
+                                            MIGRATE_POST_SCRIPT,
+                                            Map.of(
+                                                    "migrated",
+                                                    migrated.get(postId),
+                                                    "legacyFields",
+                                                    legacyFields())))
+                            .retryOnConflict(RETRY_ON_CONFLICT));
+        }
+        final BulkItemResponse[] items = this.bulk(finalizeBulk).getItems();
+        for (int i = 0; i < items.length; i++) {
+            if (items[i].isFailed()) {
+                migrated.remove(finalizedPostIds.get(i));
+            }
+        }
+        return migrated;
+    }
+
+    private Map<String, Map<String, Object>> countReactions(final Set<String> postIds) {
+        final Map<String, Map<String, Object>> counts = new HashMap<>();
+        for (final String postId : postIds) {
+            final Map<String, Object> postCounts = new HashMap<>();
+            for (final ReactionType type : ReactionType.values()) {
+                postCounts.put(type.getCounterField(), 0L);
+            }
+            counts.put(postId, postCounts);
+        }
+
+        final NativeSearchQuery reactionCountsQuery =
+                new NativeSearchQueryBuilder()
+                        .withQuery(QueryHelper.termsInChunks("postId", postIds))
+                        .addAggregation(
+                                AggregationBuilders.terms(POSTS_AGGREGATION)
+                                        .field("postId")
+                                        .size(postIds.size())
+                                        .subAggregation(
+                                                AggregationBuilders.terms(TYPES_AGGREGATION)
+                                                        .field("type")
+                                                        .size(ReactionType.values().length)))
+                        .withMaxResults(0)
+                        .build();
+        final Terms posts =
+                this.elasticsearchOperations
+                        .search(reactionCountsQuery, Reaction.class)
+                        .getAggregations()
+                        .get(POSTS_AGGREGATION);
+        for (final Terms.Bucket post : posts.getBuckets()) {
+            final Terms types = post.getAggregations().get(TYPES_AGGREGATION);
+            for (final Terms.Bucket type : types.getBuckets()) {
+                counts.get(post.getKeyAsString())
+                        .put(
+                                ReactionType.valueOf(type.getKeyAsString()).getCounterField(),
+                                type.getDocCount());
+            }
+        }
+        return counts;
+    }
+
+    private Map<String, Map<String, Object>> summarizeComments(final Set<String> postIds) {
+        final Map<String, Map<String, Object>> summaries = new HashMap<>();
+        for (final String postId : postIds) {
+            final Map<String, Object> summary = new HashMap<>();
+            summary.put(COMMENTS_COUNT_FIELD, 0L);
+            summary.put(LATEST_COMMENTS_FIELD, List.of());
+            summaries.put(postId, summary);
+        }
+
+        final NativeSearchQuery commentSummariesQuery =
+                new NativeSearchQueryBuilder()
+                        .withQuery(QueryHelper.termsInChunks("postId", postIds))
+                        .addAggregation(
+                                AggregationBuilders.terms(POSTS_AGGREGATION)
+                                        .field("postId")
+                                        .size(postIds.size())
+                                        .subAggregation(
+                                                AggregationBuilders.topHits(LATEST_AGGREGATION)
+                                                        .size(
+                                                                CommentService
+                                                                        .LATEST_COMMENTS_IN_PREVIEW)
+                                                        .sort("commentDate", SortOrder.DESC)
+                                                        .sort("id", SortOrder.ASC)))
+                        .withMaxResults(0)
+                        .build();
+        final Terms posts =
+                this.elasticsearchOperations
+                        .search(commentSummariesQuery, Comment.class)
+                        .getAggregations()
+                        .get(POSTS_AGGREGATION);
+        for (final Terms.Bucket post : posts.getBuckets()) {
+            final TopHits latest = post.getAggregations().get(LATEST_AGGREGATION);
+            final List<Map<String, Object>> latestComments = new ArrayList<>();
+            for (final SearchHit comment : latest.getHits().getHits()) {
+                latestComments.add(comment.getSourceAsMap());
+            }
+            final Map<String, Object> summary = summaries.get(post.getKeyAsString());
+            summary.put(COMMENTS_COUNT_FIELD, post.getDocCount());
+            summary.put(LATEST_COMMENTS_FIELD, latestComments);
+        }
+        return summaries;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> commentSources(final Object commentsField) {
+        if (commentsField instanceof List) {
+            return (List<Map<String, Object>>) commentsField;
+        }
+        return commentsField == null ? List.of() : List.of((Map<String, Object>) commentsField);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Collection<String> legacyUserIds(final Object legacyField) {
+        if (legacyField instanceof Collection) {
+            return (Collection<String>) legacyField;
+        }
+        return legacyField == null ? List.of() : List.of((String) legacyField);
+    }
+
+    private String indexNameOf(final Class<?> entityClass) {
+        return this.elasticsearchOperations.getIndexCoordinatesFor(entityClass).getIndexName();
+    }
+
+    private BulkResponse bulk(final BulkRequest bulkRequest) {
+        try {
+            return this.elasticsearchClient.bulk(bulkRequest, RequestOptions.DEFAULT);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
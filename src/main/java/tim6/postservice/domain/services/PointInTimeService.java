@@ -0,0 +1,81 @@
+package tim6.postservice.domain.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentHelper;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.elasticsearch.search.builder.PointInTimeBuilder;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.stereotype.Service;
+
+@Service
+public class PointInTimeService {
+
+    final ElasticsearchOperations elasticsearchOperations;
+
+    final RestHighLevelClient elasticsearchClient;
+
+    @Autowired
+    public PointInTimeService(
+            final ElasticsearchOperations elasticsearchOperations,
+            final RestHighLevelClient elasticsearchClient) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.elasticsearchClient = elasticsearchClient;
+    }
+
+    public String open(final Class<?> entityClass, final TimeValue keepAlive) {
+        final String index =
+                this.elasticsearchOperations.getIndexCoordinatesFor(entityClass).getIndexName();
+        final Request openRequest = new Request("POST", "/" + index + "/_pit");
+        openRequest.addParameter("keep_alive", keepAlive.getStringRep());
+        try {
+            final Response response =
+                    this.elasticsearchClient.getLowLevelClient().performRequest(openRequest);
+            try (final InputStream body = response.getEntity().getContent()) {
+                return (String)
+                        XContentHelper.convertToMap(XContentType.JSON.xContent(), body, false)
+                                .get("id");
+            }
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public void close(final String pitId) {
+        final Request closeRequest = new Request("DELETE", "/_pit");
+        try {
+            closeRequest.setJsonEntity(
+                    Strings.toString(
+                            XContentFactory.jsonBuilder()
+                                    .startObject()
+                                    .field("id", pitId)
+                                    .endObject()));
+            this.elasticsearchClient.getLowLevelClient().performRequest(closeRequest);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public SearchResponse search(
+            final SearchSourceBuilder source, final String pitId, final TimeValue keepAlive) {
+        source.pointInTimeBuilder(new PointInTimeBuilder(pitId).setKeepAlive(keepAlive));
+        try {
+            return this.elasticsearchClient.search(
+                    new SearchRequest().source(source), RequestOptions.DEFAULT);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -2,34 +2,54 @@ package tim6.postservice.domain.services;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Comparator;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+import org.elasticsearch.ElasticsearchStatusException;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.search.sort.SortBuilders;
 import org.elasticsearch.search.sort.SortOrder;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
 import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.SearchHitSupport;
 import org.springframework.data.elasticsearch.core.SearchHits;
 import org.springframework.data.elasticsearch.core.SearchPage;
+import org.springframework.data.elasticsearch.core.document.Document;
 import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
 import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
-import org.springframework.data.elasticsearch.core.query.Query;
 import org.springframework.stereotype.Service;
 import tim6.postservice.adapter.kafka.configuration.ProducerService;
 import tim6.postservice.domain.exceptions.AuthorizationException;
 import tim6.postservice.domain.exceptions.EntityAlreadyExistsException;
 import tim6.postservice.domain.exceptions.EntityNotFoundException;
-import tim6.postservice.domain.models.Comment;
+import tim6.postservice.domain.helpers.QueryHelper;
+import tim6.postservice.domain.models.FeedDelta;
 import tim6.postservice.domain.models.Post;
+import tim6.postservice.domain.models.PostCursor;
+import tim6.postservice.domain.models.PostCursorPage;
+import tim6.postservice.domain.models.Reaction;
+import tim6.postservice.domain.models.ReactionType;
+import tim6.postservice.domain.models.TimelineEntry;
 import tim6.postservice.domain.models.User;
 import tim6.postservice.domain.models.UserInfo;
+import tim6.postservice.domain.models.ViewerReactions;
 import tim6.postservice.domain.repositories.PostRepository;
 
 @Service
@@ -43,18 +63,67 @@ public class PostService {
 
     final ProducerService producerService;
 
-    private final int MAX_POSTS_FOR_FEED = 20;
+    final TimelineService timelineService;
+
+    final ReactionService reactionService;
+
+    final ReactionCounterService reactionCounterService;
+
+    final UserInfoResolver userInfoResolver;
+
+    final PointInTimeService pointInTimeService;
+
+    final PosterVisibilityBackfill posterVisibilityBackfill;
+
+    final LegacyPostBackfill legacyPostBackfill;
+
+    public static final int MAX_POSTS_FOR_FEED = 20;
+
+    private static final String[] OVERVIEW_FIELDS = {
+        "id",
+        "imageUrl",
+        "description",
+        "poster",
+        "postDate",
+        "tags",
+        "userTags",
+        "likesCount",
+        "dislikesCount",
+        "favoritesCount",
+        "commentsCount",
+        "latestComments"
+    };
+
+    @Value("${search.cursor.pit-keep-alive:5m}")
+    String cursorPitKeepAlive;
+
+    @Value("${feed.mode:HYBRID}")
+    FeedMode feedMode;
 
     @Autowired
     public PostService(
             final PostRepository postRepository,
             final ElasticsearchOperations elasticsearchOperations,
             final UserService userService,
-            final ProducerService producerService) {
+            final ProducerService producerService,
+            final TimelineService timelineService,
+            final ReactionService reactionService,
+            final ReactionCounterService reactionCounterService,
+            final UserInfoResolver userInfoResolver,
+            final PointInTimeService pointInTimeService,
+            final PosterVisibilityBackfill posterVisibilityBackfill,
+            final LegacyPostBackfill legacyPostBackfill) {
         this.postRepository = postRepository;
         this.elasticsearchOperations = elasticsearchOperations;
         this.userService = userService;
         this.producerService = producerService;
+        this.timelineService = timelineService;
+        this.reactionService = reactionService;
+        this.reactionCounterService = reactionCounterService;
+        this.userInfoResolver = userInfoResolver;
+        this.pointInTimeService = pointInTimeService;
+        this.posterVisibilityBackfill = posterVisibilityBackfill;
+        this.legacyPostBackfill = legacyPostBackfill;
     }
 
     private static BoolQueryBuilder postsByTagsFieldQuery(final List<String> tags) {
@@ -75,115 +144,177 @@ public class PostService {
     private static NativeSearchQuery overviewQuery(
             final Pageable pageable, final BoolQueryBuilder finalizedQuery) {
         return new NativeSearchQueryBuilder()
-                .withFields(
-                        "id",
-                        "imageUrl",
-                        "description",
-                        "poster",
-                        "postDate",
-                        "tags",
-                        "userTags",
-                        "likes",
-                        "dislikes",
-                        "favorites",
-                        "comments")
+                .withFields(OVERVIEW_FIELDS)
                 .withQuery(finalizedQuery)
                 .withSort(SortBuilders.fieldSort("postDate").order(SortOrder.DESC))
+                .withSort(SortBuilders.fieldSort("id").order(SortOrder.ASC))
                 .withPageable(pageable)
                 .build();
     }
 
-    @NotNull
-    private static NativeSearchQuery overviewQuery(final BoolQueryBuilder finalizedQuery) {
-        return new NativeSearchQueryBuilder()
-                .withFields(
-                        "id",
-                        "imageUrl",
-                        "description",
-                        "poster",
-                        "postDate",
-                        "tags",
-                        "userTags",
-                        "likes",
-                        "dislikes",
-                        "favorites",
-                        "comments")
-                .withQuery(finalizedQuery)
-                .withSort(SortBuilders.fieldSort("postDate"))
-                .build();
+    public PostCursorPage getFeed(final String authedUserId, final PostCursor after) {
+        if (this.feedMode == FeedMode.QUERY) {
+            return this.getFeedPageByQuery(authedUserId, after);
+        }
+
+        final Optional<List<TimelineEntry>> entries =
+                this.timelineService.getEntries(authedUserId, MAX_POSTS_FOR_FEED, after);
+        if (entries.isEmpty()) {
+            return this.getFeedPageByQuery(authedUserId, after);
+        }
+
+        final List<TimelineEntry> consumedEntries = entries.get();
+        final List<Post> posts =
+                this.findAllInOrder(
+                        consumedEntries.stream()
+                                .map(TimelineEntry::getPostId)
+                                .collect(Collectors.toList()));
+        final PostCursor nextCursor =
+                consumedEntries.size() < MAX_POSTS_FOR_FEED
+                        ? null
+                        : PostCursor.of(consumedEntries.get(consumedEntries.size() - 1));
+        return new PostCursorPage(this.forDisplay(posts), nextCursor);
     }
 
-    private static void addToLikes(final String authedUserId, final Post post) {
-        post.getLikes().add(authedUserId);
+    private PostCursorPage getFeedPageByQuery(
+            final String authedUserId, final PostCursor after) {
+        final List<Post> posts = this.getFeedByQuery(authedUserId, after);
+        final PostCursor nextCursor =
+                posts.size() < MAX_POSTS_FOR_FEED
+                        ? null
+                        : PostCursor.of(posts.get(posts.size() - 1));
+        return new PostCursorPage(this.forDisplay(posts), nextCursor);
     }
 
-    private static void removeFromLikes(final String authedUserId, final Post post) {
-        post.getLikes().remove(authedUserId);
+    public FeedDelta getFeedSince(final String authedUserId, final PostCursor since) {
+        final FeedDelta feedDelta =
+                this.feedMode == FeedMode.QUERY
+                        ? this.getFeedSinceByQuery(authedUserId, since)
+                        : this.timelineService
+                                .getPostIdsSince(authedUserId, since)
+                                .map(this::toFeedDelta)
+                                .orElseGet(() -> this.getFeedSinceByQuery(authedUserId, since));
+        this.forDisplay(feedDelta.getPosts());
+        return feedDelta;
     }
 
-    private static void addToDislikes(final String authedUserId, final Post post) {
-        post.getDislikes().add(authedUserId);
+    private List<Post> forDisplay(final List<Post> posts) {
+        this.legacyPostBackfill.migrate(posts);
+        this.reactionCounterService.addShardedCounts(posts);
+        this.userInfoResolver.resolvePosts(posts);
+        return posts;
     }
 
-    private static void removeFromDislikes(final String authedUserId, final Post post) {
-        post.getDislikes().remove(authedUserId);
+    private SearchHits<Post> forDisplay(final SearchHits<Post> searchHits) {
+        this.forDisplay(
+                searchHits.stream().map(SearchHit::getContent).collect(Collectors.toList()));
+        return searchHits;
     }
 
-    private static void addToFavorites(final String authedUserId, final Post post) {
-        post.getFavorites().add(authedUserId);
+    private FeedDelta toFeedDelta(final List<String> newerPostIds) {
+        final List<String> oldestPostIds =
+                newerPostIds.subList(
+                        Math.max(0, newerPostIds.size() - MAX_POSTS_FOR_FEED),
+                        newerPostIds.size());
+        return new FeedDelta(this.findAllInOrder(oldestPostIds), newerPostIds.size());
+    }
+
+    private FeedDelta getFeedSinceByQuery(final String authedUserId, final PostCursor since) {
+        final User authedUser = this.userService.findById(authedUserId);
+        final List<String> unmutedFollowedIds = this.userService.getUnmutedFollowedIds(authedUser);
+        if (unmutedFollowedIds.isEmpty()) {
+            return new FeedDelta(new ArrayList<>(), 0);
+        }
+
+        final BoolQueryBuilder finalizedQuery = QueryBuilders.boolQuery();
+        finalizedQuery.filter(QueryHelper.termsInChunks("posterId", unmutedFollowedIds));
+        finalizedQuery.filter(QueryHelper.postedAfter(since));
+        final NativeSearchQuery oldestNewerPostsQuery =
+                new NativeSearchQueryBuilder()
+                        .withFields(OVERVIEW_FIELDS)
+                        .withQuery(finalizedQuery)
+                        .withSort(SortBuilders.fieldSort("postDate").order(SortOrder.ASC))
+                        .withSort(SortBuilders.fieldSort("id").order(SortOrder.DESC))
+                        .withPageable(PageRequest.of(0, MAX_POSTS_FOR_FEED))
+                        .build();
+
+        final SearchHits<Post> newerPostHits =
+                this.elasticsearchOperations.search(oldestNewerPostsQuery, Post.class);
+        final List<Post> oldestNewerPosts =
+                newerPostHits.stream().map(SearchHit::getContent).collect(Collectors.toList());
+        Collections.reverse(oldestNewerPosts);
+        return new FeedDelta(oldestNewerPosts, newerPostHits.getTotalHits());
     }
 
-    private static void removeFromFavorites(final String authedUserId, final Post post) {
-        post.getFavorites().remove(authedUserId);
+    private List<Post> findAllInOrder(final List<String> postIds) {
+        if (postIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        final Map<String, Post> postsById =
+                StreamSupport.stream(this.postRepository.findAllById(postIds).spliterator(), false)
+                        .collect(Collectors.toMap(Post::getId, Function.identity()));
+        return postIds.stream()
+                .map(postsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
-    public List<Post> getFeed(final String authedUserId) {
+    private List<Post> getFeedByQuery(final String authedUserId, final PostCursor after) {
         final User authedUser = this.userService.findById(authedUserId);
-        final Set<String> followerIds = authedUser.getFollowing();
-        final Set<String> mutedUserIds = authedUser.getMuted();
-        final List<String> notMutedFollowers =
-                followerIds.stream()
-                        .filter(id -> !mutedUserIds.contains(id))
-                        .collect(Collectors.toList());
-        if (notMutedFollowers.isEmpty()) {
+        final List<String> unmutedFollowedIds = this.userService.getUnmutedFollowedIds(authedUser);
+        if (unmutedFollowedIds.isEmpty()) {
             return new ArrayList<>();
         }
 
-        final List<Query> getFollowerPostsQueries =
-                notMutedFollowers.stream()
-                        .map(id -> PostService.overviewQuery(postsByPosterIdQuery(id)))
-                        .collect(Collectors.toList());
-        final List<SearchHits<Post>> searchHits =
-                this.elasticsearchOperations.multiSearch(getFollowerPostsQueries, Post.class);
-
-        final List<Post> sortedPosts =
-                searchHits.stream()
-                        .flatMap(SearchHits::stream)
-                        .map(SearchHit::getContent)
-                        .sorted(Comparator.comparing(Post::getPostDate).reversed())
-                        .collect(Collectors.toList());
+        final BoolQueryBuilder finalizedQuery = QueryBuilders.boolQuery();
+        finalizedQuery.filter(QueryHelper.termsInChunks("posterId", unmutedFollowedIds));
+        final NativeSearchQuery feedQuery =
+                PostService.overviewQuery(PageRequest.of(0, MAX_POSTS_FOR_FEED), finalizedQuery);
+        if (after != null) {
+            feedQuery.setSearchAfter(after.toSearchAfter());
+        }
 
-        return sortedPosts.size() < this.MAX_POSTS_FOR_FEED
-                ? sortedPosts
-                : sortedPosts.subList(0, this.MAX_POSTS_FOR_FEED + 1);
+        return this.elasticsearchOperations.search(feedQuery, Post.class).stream()
+                .map(SearchHit::getContent)
+                .collect(Collectors.toList());
     }
 
     private BoolQueryBuilder postsMustBeVisibleAndPosterNotMutedByAuthedUserQuery(
             final String authedUserId) {
-        final List<String> allowedPosterIds =
-                this.userService.getViewableUnmutedPosterIdsForUser(authedUserId);
+        if (!this.posterVisibilityBackfill.isComplete()) {
+            return this.postsOfViewableUnmutedPostersQuery(authedUserId);
+        }
 
         final BoolQueryBuilder visiblePostsBoolQuery = QueryBuilders.boolQuery();
-        for (final String allowedPosterId : allowedPosterIds) {
-            visiblePostsBoolQuery.should(QueryBuilders.termQuery("posterId", allowedPosterId));
+        final BoolQueryBuilder reachablePostsQuery = QueryBuilders.boolQuery();
+        reachablePostsQuery.should(QueryBuilders.termQuery("posterPublic", true));
+        reachablePostsQuery.minimumShouldMatch(1);
+        visiblePostsBoolQuery.filter(reachablePostsQuery);
+        if (authedUserId.equals("anonymousUser")) {
+            return visiblePostsBoolQuery;
+        }
+
+        final User user = this.userService.findById(authedUserId);
+        if (!user.getFollowing().isEmpty()) {
+            reachablePostsQuery.should(QueryHelper.termsInChunks("posterId", user.getFollowing()));
+        }
+
+        final Set<String> hiddenPosterIds = new HashSet<>(user.getBlocked());
+        hiddenPosterIds.addAll(user.getMuted());
+        if (!hiddenPosterIds.isEmpty()) {
+            visiblePostsBoolQuery.mustNot(QueryHelper.termsInChunks("posterId", hiddenPosterIds));
         }
         return visiblePostsBoolQuery;
     }
 
-    private boolean isPosterContentVisibleToUser(
-            final String posterIdToCheck, final String userId) {
-        final List<String> allowedPosterIds = this.userService.getViewablePosterIdsForUser(userId);
-        return allowedPosterIds.stream().anyMatch(posterIdToCheck::equals);
+    private BoolQueryBuilder postsOfViewableUnmutedPostersQuery(final String authedUserId) {
+        final List<String> allowedPosterIds =
+                this.userService.getViewableUnmutedPosterIdsForUser(authedUserId);
+
+        final BoolQueryBuilder visiblePostsBoolQuery = QueryBuilders.boolQuery();
+        visiblePostsBoolQuery.filter(QueryHelper.termsInChunks("posterId", allowedPosterIds));
+        return visiblePostsBoolQuery;
     }
 
     public Post createNew(final Post post) {
@@ -191,7 +322,8 @@ public class PostService {
             throw new EntityAlreadyExistsException();
         } else {
             final User poster = this.userService.findById(post.getPoster().getId());
-            post.setPoster(new UserInfo(poster));
+            post.setPoster(this.userInfoResolver.toStoredUserInfo(poster));
+            post.setPosterPublic(poster.isPublicAccount());
 
             final Collection<User> usersByIds =
                     this.userService.findAllByUsernames(
@@ -200,44 +332,70 @@ public class PostService {
                                     .collect(Collectors.toList()));
 
             final Set<UserInfo> taggedUsers =
-                    usersByIds.stream().map(UserInfo::new).collect(Collectors.toSet());
+                    usersByIds.stream()
+                            .map(this.userInfoResolver::toStoredUserInfo)
+                            .collect(Collectors.toSet());
             post.setUserTags(taggedUsers);
 
             final Post createdPost = this.postRepository.save(post);
+            this.producerService.sendPostCreated(createdPost);
 
             if (post.getTags().size() > 0) {
                 this.producerService.sendMessage(poster.getId(), createdPost.getTags());
             }
+            this.userInfoResolver.resolvePosts(List.of(createdPost));
             return createdPost;
         }
     }
 
-    public Post save(final Post post) {
-        return this.postRepository.save(post);
-    }
-
     public Post getPostById(final String id, final String authedUserId) {
         final Post post =
                 this.postRepository.findById(id).orElseThrow(EntityNotFoundException::new);
 
-        if (this.isPosterContentVisibleToUser(post.getPoster().getId(), authedUserId)) {
+        if (this.userService.canView(authedUserId, post.getPoster().getId())) {
             return post;
         } else {
             throw new AuthorizationException();
         }
     }
 
+    public Post getPostDetails(final String id, final String authedUserId) {
+        final Post post = this.getPostById(id, authedUserId);
+        this.forDisplay(List.of(post));
+        return post;
+    }
+
     public SearchPage<Post> postsByPosterIdQuery(
             final String posterId, final Pageable pageable, final String authedUserId) {
-        if (this.isPosterContentVisibleToUser(posterId, authedUserId)) {
+        final NativeSearchQuery searchQuery =
+                this.visiblePostsByPosterIdQuery(posterId, pageable, authedUserId);
+        final SearchHits<Post> tagsHits =
+                this.forDisplay(
+                        this.elasticsearchOperations.search(searchQuery, Post.class));
+        return SearchHitSupport.searchPageFor(tagsHits, searchQuery.getPageable());
+    }
+
+    public PostCursorPage postsByPosterIdQuery(
+            final String posterId,
+            final PostCursor after,
+            final int size,
+            final String authedUserId) {
+        return this.searchAfter(
+                this.visiblePostsByPosterIdBoolQuery(posterId, authedUserId), after, size);
+    }
+
+    private NativeSearchQuery visiblePostsByPosterIdQuery(
+            final String posterId, final Pageable pageable, final String authedUserId) {
+        return PostService.overviewQuery(
+                pageable, this.visiblePostsByPosterIdBoolQuery(posterId, authedUserId));
+    }
+
+    private BoolQueryBuilder visiblePostsByPosterIdBoolQuery(
+            final String posterId, final String authedUserId) {
+        if (this.userService.canView(authedUserId, posterId)) {
             final BoolQueryBuilder finalizedQuery = QueryBuilders.boolQuery();
             finalizedQuery.must(PostService.postsByPosterIdQuery(posterId));
-
-            final NativeSearchQuery searchQuery =
-                    PostService.overviewQuery(pageable, finalizedQuery);
-            final SearchHits<Post> tagsHits =
-                    this.elasticsearchOperations.search(searchQuery, Post.class);
-            return SearchHitSupport.searchPageFor(tagsHits, searchQuery.getPageable());
+            return finalizedQuery;
         } else {
             throw new AuthorizationException();
         }
@@ -245,130 +403,186 @@ public class PostService {
 
     public SearchPage<Post> getPostsByTags(
             final List<String> tags, final Pageable pageable, final String authedUserId) {
-        final BoolQueryBuilder finalizedQuery = QueryBuilders.boolQuery();
-        finalizedQuery.must(
-                this.postsMustBeVisibleAndPosterNotMutedByAuthedUserQuery(authedUserId));
-        finalizedQuery.must(PostService.postsByTagsFieldQuery(tags));
         final NativeSearchQuery postsByTagsQuery =
-                PostService.overviewQuery(pageable, finalizedQuery);
+                this.visiblePostsByTagsQuery(tags, pageable, authedUserId);
 
         final SearchHits<Post> tagsHits =
-                this.elasticsearchOperations.search(postsByTagsQuery, Post.class);
+                this.forDisplay(
+                        this.elasticsearchOperations.search(postsByTagsQuery, Post.class));
         return SearchHitSupport.searchPageFor(tagsHits, postsByTagsQuery.getPageable());
     }
 
-    public void likePost(final String postId, final String authedUserId) {
-        if (authedUserId.equals("anonymousUser")) {
-            throw new AuthorizationException();
-        }
+    public PostCursorPage getPostsByTags(
+            final List<String> tags,
+            final PostCursor after,
+            final int size,
+            final String authedUserId) {
+        return this.searchAfter(this.visiblePostsByTagsBoolQuery(tags, authedUserId), after, size);
+    }
 
-        final Post post = this.getPostById(postId, authedUserId);
-        PostService.removeFromDislikes(authedUserId, post);
-        PostService.addToLikes(authedUserId, post);
+    private NativeSearchQuery visiblePostsByTagsQuery(
+            final List<String> tags, final Pageable pageable, final String authedUserId) {
+        return PostService.overviewQuery(
+                pageable, this.visiblePostsByTagsBoolQuery(tags, authedUserId));
+    }
 
-        this.postRepository.save(post);
+    private BoolQueryBuilder visiblePostsByTagsBoolQuery(
+            final List<String> tags, final String authedUserId) {
+        final BoolQueryBuilder finalizedQuery = QueryBuilders.boolQuery();
+        finalizedQuery.must(
+                this.postsMustBeVisibleAndPosterNotMutedByAuthedUserQuery(authedUserId));
+        finalizedQuery.must(PostService.postsByTagsFieldQuery(tags));
+        return finalizedQuery;
     }
 
-    public void removeLikeFromPost(final String postId, final String authedUserId) {
-        if (authedUserId.equals("anonymousUser")) {
-            throw new AuthorizationException();
+    private PostCursorPage searchAfter(
+            final BoolQueryBuilder finalizedQuery, final PostCursor after, final int size) {
+        final TimeValue keepAlive =
+                TimeValue.parseTimeValue(this.cursorPitKeepAlive, "search.cursor.pit-keep-alive");
+        final SearchSourceBuilder pageSource =
+                new SearchSourceBuilder()
+                        .query(finalizedQuery)
+                        .size(size)
+                        .sort(SortBuilders.fieldSort("postDate").order(SortOrder.DESC))
+                        .sort(SortBuilders.fieldSort("id").order(SortOrder.ASC))
+                        .fetchSource(OVERVIEW_FIELDS, null)
+                        .trackTotalHits(false);
+        if (after != null) {
+            pageSource.searchAfter(after.toSearchAfter().toArray());
         }
 
-        final Post post = this.getPostById(postId, authedUserId);
-        PostService.removeFromLikes(authedUserId, post);
+        String pitId = after == null ? null : after.getPitId();
+        SearchResponse response;
+        try {
+            if (pitId == null) {
+                pitId = this.pointInTimeService.open(Post.class, keepAlive);
+            }
+            response = this.pointInTimeService.search(pageSource, pitId, keepAlive);
+        } catch (final ElasticsearchStatusException ex) {
+            if (ex.status() != RestStatus.NOT_FOUND) {
+                throw ex;
+            }
+            pitId = this.pointInTimeService.open(Post.class, keepAlive);
+            response = this.pointInTimeService.search(pageSource, pitId, keepAlive);
+        }
+        if (response.pointInTimeId() != null) {
+            pitId = response.pointInTimeId();
+        }
 
-        this.postRepository.save(post);
+        final List<Post> posts = new ArrayList<>();
+        response.getHits()
+                .forEach(
+                        hit -> {
+                            final Document source = Document.from(hit.getSourceAsMap());
+                            source.setId(hit.getId());
+                            posts.add(
+                                    this.elasticsearchOperations
+                                            .getElasticsearchConverter()
+                                            .read(Post.class, source));
+                        });
+
+        if (posts.size() < size) {
+            this.pointInTimeService.close(pitId);
+            return new PostCursorPage(this.forDisplay(posts), null);
+        }
+        final Post last = posts.get(posts.size() - 1);
+        return new PostCursorPage(
+                this.forDisplay(posts),
+                new PostCursor(last.getPostDate().getTime(), last.getId(), pitId));
     }
 
-    public void dislikePost(final String postId, final String authedUserId) {
-        if (authedUserId.equals("anonymousUser")) {
-            throw new AuthorizationException();
-        }
+    public void likePost(final String postId, final String authedUserId) {
+        this.react(
+                postId, authedUserId, List.of(ReactionType.LIKE), List.of(ReactionType.DISLIKE));
+    }
 
-        final Post post = this.getPostById(postId, authedUserId);
-        PostService.removeFromLikes(authedUserId, post);
-        PostService.addToDislikes(authedUserId, post);
+    public void removeLikeFromPost(final String postId, final String authedUserId) {
+        this.react(postId, authedUserId, List.of(), List.of(ReactionType.LIKE));
+    }
 
-        this.postRepository.save(post);
+    public void dislikePost(final String postId, final String authedUserId) {
+        this.react(
+                postId, authedUserId, List.of(ReactionType.DISLIKE), List.of(ReactionType.LIKE));
     }
 
     public void removeDislikeFromPost(final String postId, final String authedUserId) {
-        if (authedUserId.equals("anonymousUser")) {
-            throw new AuthorizationException();
-        }
+        this.react(postId, authedUserId, List.of(), List.of(ReactionType.DISLIKE));
+    }
 
-        final Post post = this.getPostById(postId, authedUserId);
-        PostService.removeFromDislikes(authedUserId, post);
+    public void favoritePost(final String postId, final String authedUserId) {
+        this.react(postId, authedUserId, List.of(ReactionType.FAVORITE), List.of());
+    }
 
-        this.postRepository.save(post);
+    public void unfavoritePost(final String postId, final String authedUserId) {
+        this.react(postId, authedUserId, List.of(), List.of(ReactionType.FAVORITE));
     }
 
-    public void favoritePost(final String postId, final String authedUserId) {
+    public ViewerReactions getViewerReactions(
+            final String authedUserId, final Collection<Post> posts) {
         if (authedUserId.equals("anonymousUser")) {
-            throw new AuthorizationException();
+            return ViewerReactions.none();
         }
 
-        final Post post = this.getPostById(postId, authedUserId);
-        PostService.addToFavorites(authedUserId, post);
-
-        this.postRepository.save(post);
+        return this.reactionService.getViewerReactions(
+                authedUserId, posts.stream().map(Post::getId).collect(Collectors.toList()));
     }
 
-    public void unfavoritePost(final String postId, final String authedUserId) {
+    public PostCursorPage getFavorites(final String authedUserId, final PostCursor after) {
         if (authedUserId.equals("anonymousUser")) {
             throw new AuthorizationException();
         }
+        this.legacyPostBackfill.migratePostsReactedBy(authedUserId);
+
+        final List<Reaction> favorites =
+                this.reactionService.getReactionsOfUser(
+                        authedUserId, ReactionType.FAVORITE, after, MAX_POSTS_FOR_FEED);
+        final List<Post> favoritePosts =
+                this.findAllInOrder(
+                                favorites.stream()
+                                        .map(Reaction::getPostId)
+                                        .collect(Collectors.toList()))
+                        .stream()
+                        .filter(post -> this.userService.canView(authedUserId, post.getPosterId()))
+                        .collect(Collectors.toList());
 
-        final Post post = this.getPostById(postId, authedUserId);
-        PostService.removeFromFavorites(authedUserId, post);
-
-        this.postRepository.save(post);
+        final PostCursor nextCursor =
+                favorites.size() < MAX_POSTS_FOR_FEED
+                        ? null
+                        : PostCursor.of(favorites.get(favorites.size() - 1));
+        return new PostCursorPage(this.forDisplay(favoritePosts), nextCursor);
     }
 
-    public void updateUserInfoInRelevantDocuments(final UserInfo userInfo) {
-        Collection<Post> postsByUser = this.postRepository.findAllByPosterId(userInfo.getId());
-        postsByUser.forEach(post -> post.setPoster(userInfo));
-        this.postRepository.saveAll(postsByUser);
-
-        final Collection<Post> postsThatMentionUser =
-                this.getPostsMentioningUserInTagsOrComments(userInfo);
-        postsThatMentionUser.forEach(
-                post -> {
-                    this.updateUserInfoInUserTags(userInfo, post);
-                    this.updateUserInfoInComments(userInfo, post);
-                });
-        this.postRepository.saveAll(postsThatMentionUser);
-    }
+    private void react(
+            final String postId,
+            final String authedUserId,
+            final List<ReactionType> addTo,
+            final List<ReactionType> removeFrom) {
+        if (authedUserId.equals("anonymousUser")) {
+            throw new AuthorizationException();
+        }
+        this.ensureVisible(postId, authedUserId);
+        this.legacyPostBackfill.migrate(postId);
 
-    @NotNull
-    private Collection<Post> getPostsMentioningUserInTagsOrComments(UserInfo userInfo) {
-        final BoolQueryBuilder userMentioned = QueryBuilders.boolQuery();
-        userMentioned.should(QueryBuilders.termQuery("userTags.id", userInfo.getId()));
-        userMentioned.should(QueryBuilders.termQuery("comments.commenter.id", userInfo.getId()));
-        final NativeSearchQuery userMentionedQuery = new NativeSearchQuery(userMentioned);
-        final SearchHits<Post> searchHits =
-                this.elasticsearchOperations.search(userMentionedQuery, Post.class);
-
-        final Collection<Post> postsThatMentionUser =
-                searchHits.getSearchHits().stream()
-                        .map(SearchHit::getContent)
-                        .collect(Collectors.toList());
-        return postsThatMentionUser;
+        this.reactionService.react(postId, authedUserId, addTo, removeFrom);
     }
 
-    private void updateUserInfoInComments(UserInfo userInfo, Post post) {
-        for (int i = 0; i < post.getComments().size(); i++) {
-            final Comment comment = post.getComments().get(i);
-            if (comment.getCommenter().equals(userInfo)) {
-                comment.setCommenter(userInfo);
-            }
+    public void ensureVisible(final String postId, final String authedUserId) {
+        if (!this.userService.canView(authedUserId, this.getPosterIdOfPost(postId))) {
+            throw new AuthorizationException();
         }
     }
 
-    private void updateUserInfoInUserTags(UserInfo userInfo, Post post) {
-        if (post.getUserTags().contains(userInfo)) {
-            post.getUserTags().remove(userInfo);
-            post.getUserTags().add(userInfo);
+    private String getPosterIdOfPost(final String postId) {
+        final NativeSearchQuery posterIdQuery =
+                new NativeSearchQueryBuilder()
+                        .withFields("posterId")
+                        .withQuery(QueryBuilders.idsQuery().addIds(postId))
+                        .build();
+        final SearchHit<Post> postHit =
+                this.elasticsearchOperations.searchOne(posterIdQuery, Post.class);
+        if (postHit == null) {
+            throw new EntityNotFoundException();
         }
+        return postHit.getContent().getPosterId();
     }
 }
@@ -0,0 +1,42 @@
+package tim6.postservice.domain.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.rest.RestStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PostWriteMetrics {
+
+    public static final String CONFLICTS_METRIC = "posts.write.conflicts";
+
+    public static final String RETRIES_METRIC = "posts.write.retries";
+
+    public static final String ENDPOINT_TAG = "endpoint";
+
+    final MeterRegistry meterRegistry;
+
+    @Autowired
+    public PostWriteMetrics(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public static boolean isConflict(final BulkItemResponse item) {
+        return item.isFailed() && item.status() == RestStatus.CONFLICT;
+    }
+
+    public void conflicts(final String endpoint, final long conflicts) {
+        if (conflicts > 0) {
+            this.meterRegistry
+                    .counter(CONFLICTS_METRIC, ENDPOINT_TAG, endpoint)
+                    .increment(conflicts);
+        }
+    }
+
+    public void retries(final String endpoint, final long retries) {
+        if (retries > 0) {
+            this.meterRegistry.counter(RETRIES_METRIC, ENDPOINT_TAG, endpoint).increment(retries);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package tim6.postservice.domain.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregation;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.composite.TermsValuesSourceBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tim6.postservice.domain.models.Post;
+
+@Service
+public class PosterVisibilityBackfill {
+
+    private static final String POSTERS_AGGREGATION = "posters";
+
+    final ElasticsearchOperations elasticsearchOperations;
+
+    final UserService userService;
+
+    final UserInfoPropagationService userInfoPropagationService;
+
+    @Value("${posts.poster-visibility.backfill-batch-size:500}")
+    int batchSize;
+
+    private volatile boolean complete;
+
+    @Autowired
+    public PosterVisibilityBackfill(
+            final ElasticsearchOperations elasticsearchOperations,
+            final UserService userService,
+            final UserInfoPropagationService userInfoPropagationService) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.userService = userService;
+        this.userInfoPropagationService = userInfoPropagationService;
+    }
+
+    public boolean isComplete() {
+        return this.complete;
+    }
+
+    @Scheduled(fixedDelayString = "${posts.poster-visibility.backfill-interval-ms:60000}")
+    public void backfill() {
+        if (this.complete || !this.elasticsearchOperations.indexOps(Post.class).exists()) {
+            return;
+        }
+
+        boolean found = false;
+        Map<String, Object> afterKey = null;
+        do {
+            final CompositeAggregation posters = this.searchUnstampedPosters(afterKey);
+            final List<String> posterIds = new ArrayList<>();
+            posters.getBuckets()
+                    .forEach(bucket -> posterIds.add((String) bucket.getKey().get("posterId")));
+            if (posterIds.isEmpty()) {
+                break;
+            }
+
+            found = true;
+            this.userService
+                    .findByIds(posterIds)
+                    .forEach(this.userInfoPropagationService::enqueueVisibility);
+            afterKey = posters.afterKey();
+        } while (afterKey != null);
+
+        this.complete = !found;
+    }
+
+    private CompositeAggregation searchUnstampedPosters(final Map<String, Object> afterKey) {
+        final CompositeAggregationBuilder postersAggregation =
+                AggregationBuilders.composite(
+                                POSTERS_AGGREGATION,
+                                List.of(new TermsValuesSourceBuilder("posterId").field("posterId")))
+                        .size(this.batchSize);
+        if (afterKey != null) {
+            postersAggregation.aggregateAfter(afterKey);
+        }
+
+        final NativeSearchQuery unstampedPostsQuery =
+                new NativeSearchQueryBuilder()
+                        .withQuery(
+                                QueryBuilders.boolQuery()
+                                        .mustNot(QueryBuilders.existsQuery("posterPublic")))
+                        .addAggregation(postersAggregation)
+                        .withPageable(PageRequest.of(0, 1))
+                        .build();
+        final SearchHits<Post> searchHits =
+                this.elasticsearchOperations.search(unstampedPostsQuery, Post.class);
+        return searchHits.getAggregations().get(POSTERS_AGGREGATION);
+    }
+}
@@ -0,0 +1,92 @@
+package tim6.postservice.domain.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+import tim6.postservice.domain.models.Reaction;
+import tim6.postservice.domain.models.ReactionChange;
+import tim6.postservice.domain.models.ReactionType;
+
+@Component
+public class ReactionBuffer {
+
+    private static final int STRIPE_COUNT = 64;
+
+    private final List<Map<String, ReactionChange>> stripes = new ArrayList<>(STRIPE_COUNT);
+
+    private final Map<String, Map<String, Integer>> pendingCounterDeltas = new HashMap<>();
+
+    public ReactionBuffer() {
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            this.stripes.add(new LinkedHashMap<>());
+        }
+    }
+
+    public void record(final Collection<ReactionChange> changes) {
+        for (final ReactionChange change : changes) {
+            final Map<String, ReactionChange> stripe = this.stripeOf(change.getPostId());
+            synchronized (stripe) {
+                stripe.remove(change.getReactionId());
+                stripe.put(change.getReactionId(), change);
+            }
+        }
+    }
+
+    public void requeue(final Collection<ReactionChange> changes) {
+        for (final ReactionChange change : changes) {
+            final Map<String, ReactionChange> stripe = this.stripeOf(change.getPostId());
+            synchronized (stripe) {
+                stripe.putIfAbsent(change.getReactionId(), change);
+            }
+        }
+    }
+
+    public ReactionChange findPending(
+            final String postId, final String userId, final ReactionType type) {
+        final Map<String, ReactionChange> stripe = this.stripeOf(postId);
+        synchronized (stripe) {
+            return stripe.get(Reaction.idOf(postId, userId, type));
+        }
+    }
+
+    public List<ReactionChange> drain() {
+        final List<ReactionChange> drained = new ArrayList<>();
+        for (final Map<String, ReactionChange> stripe : this.stripes) {
+            synchronized (stripe) {
+                drained.addAll(stripe.values());
+                stripe.clear();
+            }
+        }
+        return drained;
+    }
+
+    public void addCounterDeltas(final Map<String, Map<String, Integer>> counterDeltas) {
+        synchronized (this.pendingCounterDeltas) {
+            counterDeltas.forEach(
+                    (postId, deltas) -> {
+                        final Map<String, Integer> pendingDeltas =
+                                this.pendingCounterDeltas.computeIfAbsent(
+                                        postId, id -> new HashMap<>());
+                        deltas.forEach(
+                                (field, delta) -> pendingDeltas.merge(field, delta, Integer::sum));
+                    });
+        }
+    }
+
+    public Map<String, Map<String, Integer>> drainCounterDeltas() {
+        synchronized (this.pendingCounterDeltas) {
+            final Map<String, Map<String, Integer>> drained =
+                    new HashMap<>(this.pendingCounterDeltas);
+            this.pendingCounterDeltas.clear();
+            return drained;
+        }
+    }
+
+    private Map<String, ReactionChange> stripeOf(final String postId) {
+        return this.stripes.get(Math.floorMod(postId.hashCode(), STRIPE_COUNT));
+    }
+}
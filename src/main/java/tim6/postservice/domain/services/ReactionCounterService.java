@@ -0,0 +1,189 @@
+package tim6.postservice.domain.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.annotation.PostConstruct;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.script.ScriptType;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
+import org.elasticsearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
+import org.elasticsearch.search.aggregations.metrics.Sum;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tim6.postservice.domain.helpers.QueryHelper;
+import tim6.postservice.domain.models.Post;
+import tim6.postservice.domain.models.ReactionCounterShard;
+import tim6.postservice.domain.models.ReactionType;
+
+@Service
+public class ReactionCounterService {
+
+    private static final String APPLY_SHARD_DELTAS_SCRIPT =
+            "ctx._source.postId = params.postId;"
+                    + "for (entry in params.deltas.entrySet()) {"
+                    + "  def current = ctx._source[entry.getKey()];"
+                    + "  ctx._source[entry.getKey()] ="
+                    + "    (current == null ? 0 : current) + entry.getValue();"
+                    + "}";
+
+    private static final String SHARDED_POSTS_AGGREGATION = "shardedPosts";
+
+    private static final int RETRY_ON_CONFLICT = 3;
+
+    final ElasticsearchOperations elasticsearchOperations;
+
+    private volatile Set<String> shardedPostIds = ConcurrentHashMap.newKeySet();
+
+    private volatile Map<String, Map<ReactionType, Long>> shardedCounts = Map.of();
+
+    @Value("${reactions.counters.shard-threshold:100000}")
+    long shardThreshold;
+
+    @Value("${reactions.counters.shard-count:16}")
+    int shardCount;
+
+    @Autowired
+    public ReactionCounterService(final ElasticsearchOperations elasticsearchOperations) {
+        this.elasticsearchOperations = elasticsearchOperations;
+    }
+
+    @PostConstruct
+    public void loadShardedPostIds() {
+        this.refreshShardedCounts();
+    }
+
+    private Set<String> findShardedPostIds() {
+        final Set<String> postIds = ConcurrentHashMap.newKeySet();
+        final NativeSearchQuery shardedPostsQuery =
+                new NativeSearchQueryBuilder()
+                        .withFields("id")
+                        .withQuery(QueryBuilders.termQuery("shardedCounters", true))
+                        .build();
+        try (final SearchHitsIterator<Post> shardedPosts =
+                this.elasticsearchOperations.searchForStream(shardedPostsQuery, Post.class)) {
+            shardedPosts.forEachRemaining(hit -> postIds.add(hit.getId()));
+        }
+        return postIds;
+    }
+
+    public long getShardThreshold() {
+        return this.shardThreshold;
+    }
+
+    public boolean isSharded(final String postId) {
+        return this.shardedPostIds.contains(postId);
+    }
+
+    public void markSharded(final String postId) {
+        this.shardedPostIds.add(postId);
+    }
+
+    public UpdateRequest shardUpdateRequest(
+            final String shardsIndex, final String postId, final Map<String, Integer> deltas) {
+        final int shard = ThreadLocalRandom.current().nextInt(this.shardCount);
+        return new UpdateRequest(shardsIndex, ReactionCounterShard.idOf(postId, shard))
+                .script(
+                        new Script(
+                                ScriptType.INLINE,
+                                Script.DEFAULT_SCRIPT_LANG,
+                                APPLY_SHARD_DELTAS_SCRIPT,
+                                Map.of("postId", postId, "deltas", deltas)))
+                .scriptedUpsert(true)
+                .upsert(Map.of())
+                .retryOnConflict(RETRY_ON_CONFLICT);
+    }
+
+    @Scheduled(fixedDelayString = "${reactions.counters.refresh-interval-ms:5000}")
+    public void refreshShardedCounts() {
+        if (!this.elasticsearchOperations.indexOps(Post.class).exists()) {
+            return;
+        }
+
+        this.shardedPostIds = this.findShardedPostIds();
+        this.shardedCounts = this.sumShards(this.shardedPostIds);
+    }
+
+    private Map<String, Map<ReactionType, Long>> sumShards(final Collection<String> postIds) {
+        final Map<String, Map<ReactionType, Long>> summedCounts = new HashMap<>();
+        if (postIds.isEmpty()) {
+            return summedCounts;
+        }
+        for (final String postId : postIds) {
+            final Map<ReactionType, Long> noCounts = new HashMap<>();
+            for (final ReactionType type : ReactionType.values()) {
+                noCounts.put(type, 0L);
+            }
+            summedCounts.put(postId, noCounts);
+        }
+
+        final TermsAggregationBuilder shardedPostsAggregation =
+                AggregationBuilders.terms(SHARDED_POSTS_AGGREGATION)
+                        .field("postId")
+                        .size(postIds.size());
+        for (final ReactionType type : ReactionType.values()) {
+            shardedPostsAggregation.subAggregation(
+                    AggregationBuilders.sum(type.getCounterField())
+                            .field(type.getCounterField()));
+        }
+        final NativeSearchQuery shardSumsQuery =
+                new NativeSearchQueryBuilder()
+                        .withQuery(QueryHelper.termsInChunks("postId", postIds))
+                        .addAggregation(shardedPostsAggregation)
+                        .withMaxResults(0)
+                        .build();
+
+        final Terms shardedPosts =
+                this.elasticsearchOperations
+                        .search(shardSumsQuery, ReactionCounterShard.class)
+                        .getAggregations()
+                        .get(SHARDED_POSTS_AGGREGATION);
+        for (final Terms.Bucket bucket : shardedPosts.getBuckets()) {
+            final Map<ReactionType, Long> counts = new HashMap<>();
+            for (final ReactionType type : ReactionType.values()) {
+                final Sum sum = bucket.getAggregations().get(type.getCounterField());
+                counts.put(type, Math.round(sum.getValue()));
+            }
+            summedCounts.put(bucket.getKeyAsString(), counts);
+        }
+        return summedCounts;
+    }
+
+    public void addShardedCounts(final Collection<Post> posts) {
+        final Map<String, Map<ReactionType, Long>> currentCounts =
+                new HashMap<>(this.shardedCounts);
+        final List<String> unsummedPostIds = new ArrayList<>();
+        for (final Post post : posts) {
+            if (post.isShardedCounters() && !currentCounts.containsKey(post.getId())) {
+                this.markSharded(post.getId());
+                unsummedPostIds.add(post.getId());
+            }
+        }
+        currentCounts.putAll(this.sumShards(unsummedPostIds));
+
+        for (final Post post : posts) {
+            final Map<ReactionType, Long> counts = currentCounts.get(post.getId());
+            if (counts == null) {
+                continue;
+            }
+            post.setLikesCount(post.getLikesCount() + counts.get(ReactionType.LIKE));
+            post.setDislikesCount(post.getDislikesCount() + counts.get(ReactionType.DISLIKE));
+            post.setFavoritesCount(
+                    post.getFavoritesCount() + counts.get(ReactionType.FAVORITE));
+        }
+    }
+}
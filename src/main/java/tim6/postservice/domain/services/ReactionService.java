@@ -0,0 +1,385 @@
+package tim6.postservice.domain.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.action.DocWriteResponse;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.action.update.UpdateResponse;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.index.get.GetResult;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.script.ScriptType;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.sort.SortOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.MultiGetItem;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tim6.postservice.domain.exceptions.ReactionWriteException;
+import tim6.postservice.domain.models.Post;
+import tim6.postservice.domain.models.PostCursor;
+import tim6.postservice.domain.models.Reaction;
+import tim6.postservice.domain.models.ReactionChange;
+import tim6.postservice.domain.models.ReactionCounterShard;
+import tim6.postservice.domain.models.ReactionType;
+import tim6.postservice.domain.models.ViewerReactions;
+
+@Service
+public class ReactionService {
+
+    private static final String REMOVE_REACTION_SCRIPT =
+            "ctx.op = ctx.op == 'create' ? 'none' : 'delete';";
+
+    private static final String APPLY_COUNTER_DELTAS_SCRIPT =
+            "for (entry in params.deltas.entrySet()) {"
+                    + "  def current = ctx._source[entry.getKey()];"
+                    + "  ctx._source[entry.getKey()] ="
+                    + "    Math.max(0, (current == null ? 0 : current) + entry.getValue());"
+                    + "  if (ctx._source[entry.getKey()] >= params.shardThreshold) {"
+                    + "    ctx._source.shardedCounters = true;"
+                    + "  }"
+                    + "}";
+
+    private static final int RETRY_ON_CONFLICT = 3;
+
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
+    private static final String WRITE_ENDPOINT = "reactions";
+
+    final ElasticsearchOperations elasticsearchOperations;
+
+    final RestHighLevelClient elasticsearchClient;
+
+    final ReactionBuffer reactionBuffer;
+
+    final ReactionCounterService reactionCounterService;
+
+    final PostWriteMetrics postWriteMetrics;
+
+    private final Lock flushLock = new ReentrantLock();
+
+    private volatile boolean stopped;
+
+    @Value("${reactions.write-behind.enabled:false}")
+    boolean writeBehindEnabled;
+
+    @Autowired
+    public ReactionService(
+            final ElasticsearchOperations elasticsearchOperations,
+            final RestHighLevelClient elasticsearchClient,
+            final ReactionBuffer reactionBuffer,
+            final ReactionCounterService reactionCounterService,
+            final PostWriteMetrics postWriteMetrics) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.elasticsearchClient = elasticsearchClient;
+        this.reactionBuffer = reactionBuffer;
+        this.reactionCounterService = reactionCounterService;
+        this.postWriteMetrics = postWriteMetrics;
+    }
+
+    public void react(
+            final String postId,
+            final String userId,
+            final List<ReactionType> addTo,
+            final List<ReactionType> removeFrom) {
+        final List<ReactionChange> changes = new ArrayList<>();
+        removeFrom.forEach(type -> changes.add(new ReactionChange(postId, userId, type, false)));
+        addTo.forEach(type -> changes.add(new ReactionChange(postId, userId, type, true)));
+
+        if (this.writeBehindEnabled) {
+            this.reactionBuffer.record(changes);
+            return;
+        }
+
+        final List<ReactionChange> failedChanges = new ArrayList<>();
+        final Map<String, Map<String, Integer>> failedDeltas =
+                this.applyCounterDeltas(this.applyReactionChanges(changes, failedChanges));
+        if (!failedChanges.isEmpty() || !failedDeltas.isEmpty()) {
+            throw new ReactionWriteException(
+                    String.format("Reaction to post with id %s could not be saved", postId));
+        }
+    }
+
+    public List<Reaction> getReactionsOfUser(
+            final String userId, final ReactionType type, final PostCursor after, final int size) {
+        final BoolQueryBuilder reactionsOfUserQuery = QueryBuilders.boolQuery();
+        reactionsOfUserQuery.filter(QueryBuilders.termQuery("userId", userId));
+        reactionsOfUserQuery.filter(QueryBuilders.termQuery("type", type.name()));
+
+        final NativeSearchQuery reactionsQuery =
+                new NativeSearchQueryBuilder()
+                        .withQuery(reactionsOfUserQuery)
+                        .withSort(SortBuilders.fieldSort("reactedAt").order(SortOrder.DESC))
+                        .withSort(SortBuilders.fieldSort("postId").order(SortOrder.ASC))
+                        .withPageable(PageRequest.of(0, size))
+                        .build();
+        if (after != null) {
+            reactionsQuery.setSearchAfter(after.toSearchAfter());
+        }
+        reactionsQuery.setTrackTotalHits(false);
+
+        return this.elasticsearchOperations.search(reactionsQuery, Reaction.class).stream()
+                .map(SearchHit::getContent)
+                .collect(Collectors.toList());
+    }
+
+    public ViewerReactions getViewerReactions(
+            final String userId, final Collection<String> postIds) {
+        final ViewerReactions viewerReactions = ViewerReactions.none();
+        if (postIds.isEmpty()) {
+            return viewerReactions;
+        }
+
+        final List<String> reactionIds =
+                postIds.stream()
+                        .flatMap(
+                                postId ->
+                                        Arrays.stream(ReactionType.values())
+                                                .map(type -> Reaction.idOf(postId, userId, type)))
+                        .collect(Collectors.toList());
+        this.elasticsearchOperations
+                .multiGet(
+                        new NativeSearchQueryBuilder().withIds(reactionIds).build(),
+                        Reaction.class)
+                .stream()
+                .filter(MultiGetItem::hasItem)
+                .map(MultiGetItem::getItem)
+                .forEach(
+                        reaction ->
+                                viewerReactions.set(
+                                        reaction.getPostId(), reaction.getType(), true));
+
+        for (final String postId : postIds) {
+            for (final ReactionType type : ReactionType.values()) {
+                final ReactionChange pending =
+                        this.reactionBuffer.findPending(postId, userId, type);
+                if (pending != null) {
+                    viewerReactions.set(postId, type, pending.isPresent());
+                }
+            }
+        }
+        return viewerReactions;
+    }
+
+    @Scheduled(fixedDelayString = "${reactions.write-behind.flush-interval-ms:500}")
+    public void flush() {
+        if (!this.stopped) {
+            this.flushPending();
+        }
+    }
+
+    @PreDestroy
+    public void drainOnShutdown() {
+        this.stopped = true;
+        this.flushPending();
+    }
+
+    private void flushPending() {
+        this.flushLock.lock();
+        try {
+            final List<ReactionChange> changes = this.reactionBuffer.drain();
+            if (!changes.isEmpty()) {
+                final List<ReactionChange> failedChanges = new ArrayList<>();
+                this.reactionBuffer.addCounterDeltas(
+                        this.applyReactionChanges(changes, failedChanges));
+                this.reactionBuffer.requeue(failedChanges);
+            }
+
+            final Map<String, Map<String, Integer>> counterDeltas =
+                    this.reactionBuffer.drainCounterDeltas();
+            if (!counterDeltas.isEmpty()) {
+                this.reactionBuffer.addCounterDeltas(this.applyCounterDeltas(counterDeltas));
+            }
+        } finally {
+            this.flushLock.unlock();
+        }
+    }
+
+    private Map<String, Map<String, Integer>> applyReactionChanges(
+            final List<ReactionChange> changes, final List<ReactionChange> failedChanges) {
+        final String reactionsIndex =
+                this.elasticsearchOperations
+                        .getIndexCoordinatesFor(Reaction.class)
+                        .getIndexName();
+        final BulkRequest reactionsBulk = new BulkRequest();
+        changes.forEach(
+                change ->
+                        reactionsBulk.add(
+                                change.isPresent()
+                                        ? this.addReactionRequest(reactionsIndex, change)
+                                        : removeReactionRequest(reactionsIndex, change)));
+
+        final Map<String, Map<String, Integer>> counterDeltas = new HashMap<>();
+        final BulkResponse bulkResponse;
+        try {
+            bulkResponse = this.bulk(reactionsBulk);
+        } catch (final UncheckedIOException | ElasticsearchException ex) {
+            failedChanges.addAll(changes);
+            return counterDeltas;
+        }
+
+        final BulkItemResponse[] items = bulkResponse.getItems();
+        for (int i = 0; i < items.length; i++) {
+            final ReactionChange change = changes.get(i);
+            if (items[i].isFailed()) {
+                failedChanges.add(change);
+                continue;
+            }
+
+            final DocWriteResponse.Result result = items[i].getResponse().getResult();
+            if (result == DocWriteResponse.Result.CREATED
+                    || result == DocWriteResponse.Result.DELETED) {
+                counterDeltas
+                        .computeIfAbsent(change.getPostId(), postId -> new HashMap<>())
+                        .merge(
+                                change.getType().getCounterField(),
+                                change.isPresent() ? 1 : -1,
+                                Integer::sum);
+            }
+        }
+        return counterDeltas;
+    }
+
+    private UpdateRequest addReactionRequest(
+            final String reactionsIndex, final ReactionChange change) {
+        final Reaction reaction =
+                new Reaction(change.getPostId(), change.getUserId(), change.getType());
+        final Map<String, Object> reactionSource =
+                this.elasticsearchOperations.getElasticsearchConverter().mapObject(reaction);
+        return new UpdateRequest(reactionsIndex, reaction.getId())
+                .doc(Map.of())
+                .upsert(reactionSource);
+    }
+
+    private static UpdateRequest removeReactionRequest(
+            final String reactionsIndex, final ReactionChange change) {
+        return new UpdateRequest(reactionsIndex, change.getReactionId())
+                .script(
+                        new Script(
+                                ScriptType.INLINE,
+                                Script.DEFAULT_SCRIPT_LANG,
+                                REMOVE_REACTION_SCRIPT,
+                                Map.of()))
+                .scriptedUpsert(true)
+                .upsert(Map.of());
+    }
+
+    private Map<String, Map<String, Integer>> applyCounterDeltas(
+            final Map<String, Map<String, Integer>> counterDeltas) {
+        final Map<String, Map<String, Integer>> failedDeltas = new HashMap<>();
+        if (counterDeltas.isEmpty()) {
+            return failedDeltas;
+        }
+
+        final String postsIndex =
+                this.elasticsearchOperations.getIndexCoordinatesFor(Post.class).getIndexName();
+        final String shardsIndex =
+                this.elasticsearchOperations
+                        .getIndexCoordinatesFor(ReactionCounterShard.class)
+                        .getIndexName();
+        List<String> pendingPostIds = new ArrayList<>(counterDeltas.keySet());
+        for (int attempt = 1;
+                attempt <= MAX_WRITE_ATTEMPTS && !pendingPostIds.isEmpty();
+                attempt++) {
+            if (attempt > 1) {
+                this.postWriteMetrics.retries(WRITE_ENDPOINT, pendingPostIds.size());
+            }
+
+            final List<String> postIds = pendingPostIds;
+            final BulkRequest countersBulk = new BulkRequest();
+            postIds.forEach(
+                    postId ->
+                            countersBulk.add(
+                                    this.reactionCounterService.isSharded(postId)
+                                            ? this.reactionCounterService.shardUpdateRequest(
+                                                    shardsIndex,
+                                                    postId,
+                                                    counterDeltas.get(postId))
+                                            : this.postCounterUpdateRequest(
+                                                    postsIndex,
+                                                    postId,
+                                                    counterDeltas.get(postId))));
+
+            final List<String> conflictedPostIds = new ArrayList<>();
+            final BulkItemResponse[] items;
+            try {
+                items = this.bulk(countersBulk).getItems();
+            } catch (final UncheckedIOException | ElasticsearchException ex) {
+                break;
+            }
+            for (int i = 0; i < items.length; i++) {
+                final String postId = postIds.get(i);
+                if (PostWriteMetrics.isConflict(items[i])) {
+                    conflictedPostIds.add(postId);
+                    continue;
+                }
+                if (items[i].isFailed()) {
+                    if (items[i].status() != RestStatus.NOT_FOUND) {
+                        failedDeltas.put(postId, counterDeltas.get(postId));
+                    }
+                    continue;
+                }
+
+                final GetResult postSource =
+                        items[i].<UpdateResponse>getResponse().getGetResult();
+                if (postSource != null
+                        && Boolean.TRUE.equals(postSource.sourceAsMap().get("shardedCounters"))) {
+                    this.reactionCounterService.markSharded(postId);
+                }
+            }
+            this.postWriteMetrics.conflicts(WRITE_ENDPOINT, conflictedPostIds.size());
+            pendingPostIds = conflictedPostIds;
+        }
+        pendingPostIds.forEach(postId -> failedDeltas.put(postId, counterDeltas.get(postId)));
+        return failedDeltas;
+    }
+
+    private UpdateRequest postCounterUpdateRequest(
+            final String postsIndex, final String postId, final Map<String, Integer> deltas) {
+        return new UpdateRequest(postsIndex, postId)
+                .script(
+                        new Script(
+                                ScriptType.INLINE,
+                                Script.DEFAULT_SCRIPT_LANG,
+                                APPLY_COUNTER_DELTAS_SCRIPT,
+                                Map.of(
+                                        "deltas",
+                                        deltas,
+                                        "shardThreshold",
+                                        this.reactionCounterService.getShardThreshold())))
+                .retryOnConflict(RETRY_ON_CONFLICT)
+                .fetchSource(new String[] {"shardedCounters"}, null);
+    }
+
+    private BulkResponse bulk(final BulkRequest bulkRequest) {
+        try {
+            return this.elasticsearchClient.bulk(bulkRequest, RequestOptions.DEFAULT);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
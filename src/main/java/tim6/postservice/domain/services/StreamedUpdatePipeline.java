@@ -0,0 +1,282 @@
+package tim6.postservice.domain.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
+import org.elasticsearch.action.DocWriteResponse;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.reindex.BulkByScrollResponse;
+import org.elasticsearch.index.reindex.UpdateByQueryRequest;
+import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.sort.SortOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.stereotype.Service;
+
+@Service
+public class StreamedUpdatePipeline {
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private static final int RETRY_ON_CONFLICT = 3;
+
+    private static final String UPDATED_DOCUMENTS_METRIC = "propagation.documents.updated";
+
+    private static final String FAILED_DOCUMENTS_METRIC = "propagation.documents.failed";
+
+    private static final String WRITE_ENDPOINT = "propagation";
+
+    @FunctionalInterface
+    public interface PageListener {
+
+        boolean onPageWritten(List<String> checkpoint, long updated, List<String> failedIds);
+    }
+
+    final ElasticsearchOperations elasticsearchOperations;
+
+    final RestHighLevelClient elasticsearchClient;
+
+    final PointInTimeService pointInTimeService;
+
+    final MeterRegistry meterRegistry;
+
+    final PostWriteMetrics postWriteMetrics;
+
+    @Value("${propagation.page-size:500}")
+    int pageSize;
+
+    @Value("${propagation.pit-keep-alive:1m}")
+    String pitKeepAlive;
+
+    @Value("${propagation.requests-per-second:500}")
+    float requestsPerSecond;
+
+    @Value("${propagation.slices:0}")
+    int slices;
+
+    @Value("${propagation.update-by-query.max-documents:1000}")
+    long updateByQueryMaxDocuments;
+
+    @Autowired
+    public StreamedUpdatePipeline(
+            final ElasticsearchOperations elasticsearchOperations,
+            final RestHighLevelClient elasticsearchClient,
+            final PointInTimeService pointInTimeService,
+            final MeterRegistry meterRegistry,
+            final PostWriteMetrics postWriteMetrics) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.elasticsearchClient = elasticsearchClient;
+        this.pointInTimeService = pointInTimeService;
+        this.meterRegistry = meterRegistry;
+        this.postWriteMetrics = postWriteMetrics;
+    }
+
+    public boolean updateAll(
+            final Class<?> entityClass,
+            final QueryBuilder query,
+            final Script script,
+            final List<String> startAfter,
+            final PageListener listener) {
+        final String index =
+                this.elasticsearchOperations.getIndexCoordinatesFor(entityClass).getIndexName();
+        if (startAfter.isEmpty()
+                && this.count(entityClass, query) <= this.updateByQueryMaxDocuments) {
+            final OptionalLong updated = this.updateByQuery(index, query, script);
+            if (updated.isPresent()) {
+                return listener.onPageWritten(List.of(), updated.getAsLong(), List.of());
+            }
+        }
+
+        final TimeValue keepAlive =
+                TimeValue.parseTimeValue(this.pitKeepAlive, "propagation.pit-keep-alive");
+
+        String pitId = this.pointInTimeService.open(entityClass, keepAlive);
+        try {
+            Object[] searchAfter = startAfter.isEmpty() ? null : startAfter.toArray();
+            while (true) {
+                final SearchSourceBuilder pageSource =
+                        new SearchSourceBuilder()
+                                .query(query)
+                                .size(this.pageSize)
+                                .sort("id", SortOrder.ASC)
+                                .fetchSource(false)
+                                .trackTotalHits(false);
+                if (searchAfter != null) {
+                    pageSource.searchAfter(searchAfter);
+                }
+
+                final SearchResponse page =
+                        this.pointInTimeService.search(pageSource, pitId, keepAlive);
+                if (page.pointInTimeId() != null) {
+                    pitId = page.pointInTimeId();
+                }
+                final SearchHit[] hits = page.getHits().getHits();
+                if (hits.length == 0) {
+                    return true;
+                }
+
+                final long startedAt = System.currentTimeMillis();
+                final List<String> failedIds = new ArrayList<>();
+                final long updated =
+                        this.writePage(
+                                index,
+                                Arrays.stream(hits)
+                                        .map(SearchHit::getId)
+                                        .collect(Collectors.toList()),
+                                script,
+                                failedIds);
+                this.throttle(hits.length, startedAt);
+
+                searchAfter = hits[hits.length - 1].getSortValues();
+                final List<String> checkpoint =
+                        Arrays.stream(searchAfter)
+                                .map(String::valueOf)
+                                .collect(Collectors.toList());
+                if (!listener.onPageWritten(checkpoint, updated, failedIds)) {
+                    return false;
+                }
+                if (hits.length < this.pageSize) {
+                    return true;
+                }
+            }
+        } finally {
+            this.pointInTimeService.close(pitId);
+        }
+    }
+
+    public long updateIds(
+            final Class<?> entityClass,
+            final List<String> ids,
+            final Script script,
+            final List<String> failedIds) {
+        final String index =
+                this.elasticsearchOperations.getIndexCoordinatesFor(entityClass).getIndexName();
+        return this.writePage(index, ids, script, failedIds);
+    }
+
+    private long count(final Class<?> entityClass, final QueryBuilder query) {
+        return this.elasticsearchOperations.count(
+                new NativeSearchQueryBuilder().withQuery(query).build(), entityClass);
+    }
+
+    private OptionalLong updateByQuery(
+            final String index, final QueryBuilder query, final Script script) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            final UpdateByQueryRequest updateByQueryRequest =
+                    new UpdateByQueryRequest(index)
+                            .setQuery(query)
+                            .setScript(script)
+                            .setSlices(this.slices)
+                            .setRequestsPerSecond(this.requestsPerSecond)
+                            .setAbortOnVersionConflict(false);
+            final BulkByScrollResponse response;
+            try {
+                response =
+                        this.elasticsearchClient.updateByQuery(
+                                updateByQueryRequest, RequestOptions.DEFAULT);
+            } catch (final IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+
+            this.postWriteMetrics.conflicts(WRITE_ENDPOINT, response.getVersionConflicts());
+            if (response.getBulkFailures().isEmpty()
+                    && response.getSearchFailures().isEmpty()
+                    && response.getVersionConflicts() == 0
+                    && !response.isTimedOut()) {
+                this.meterRegistry
+                        .counter(UPDATED_DOCUMENTS_METRIC, "index", index)
+                        .increment(response.getUpdated());
+                return OptionalLong.of(response.getUpdated());
+            }
+            if (attempt < MAX_ATTEMPTS) {
+                this.postWriteMetrics.retries(WRITE_ENDPOINT, response.getVersionConflicts());
+            }
+        }
+        return OptionalLong.empty();
+    }
+
+    private long writePage(
+            final String index,
+            final List<String> ids,
+            final Script script,
+            final List<String> failedIds) {
+        List<UpdateRequest> pending = new ArrayList<>();
+        for (final String id : ids) {
+            pending.add(
+                    new UpdateRequest(index, id).script(script).retryOnConflict(RETRY_ON_CONFLICT));
+        }
+
+        long updated = 0;
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS && !pending.isEmpty(); attempt++) {
+            if (attempt > 1) {
+                this.postWriteMetrics.retries(WRITE_ENDPOINT, pending.size());
+            }
+            final BulkRequest pageBulk = new BulkRequest();
+            pending.forEach(pageBulk::add);
+
+            final List<UpdateRequest> failed = new ArrayList<>();
+            long conflicts = 0;
+            final BulkItemResponse[] items = this.bulk(pageBulk).getItems();
+            for (int i = 0; i < items.length; i++) {
+                if (PostWriteMetrics.isConflict(items[i])) {
+                    conflicts++;
+                }
+                if (items[i].isFailed()) {
+                    if (items[i].status() != RestStatus.NOT_FOUND) {
+                        failed.add(pending.get(i));
+                    }
+                } else if (items[i].getResponse().getResult() == DocWriteResponse.Result.UPDATED) {
+                    updated++;
+                }
+            }
+            this.postWriteMetrics.conflicts(WRITE_ENDPOINT, conflicts);
+            pending = failed;
+        }
+
+        this.meterRegistry.counter(UPDATED_DOCUMENTS_METRIC, "index", index).increment(updated);
+        this.meterRegistry
+                .counter(FAILED_DOCUMENTS_METRIC, "index", index)
+                .increment(pending.size());
+        pending.forEach(request -> failedIds.add(request.id()));
+        return updated;
+    }
+
+    private void throttle(final int documents, final long startedAt) {
+        final long pageMillis = (long) (documents * 1000L / this.requestsPerSecond);
+        final long remainingMillis = pageMillis - (System.currentTimeMillis() - startedAt);
+        if (remainingMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(remainingMillis);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private BulkResponse bulk(final BulkRequest bulkRequest) {
+        try {
+            return this.elasticsearchClient.bulk(bulkRequest, RequestOptions.DEFAULT);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
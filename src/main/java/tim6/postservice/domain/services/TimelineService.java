@@ -0,0 +1,364 @@
+package tim6.postservice.domain.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.script.ScriptType;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.sort.SortOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.stereotype.Service;
+import tim6.postservice.domain.helpers.QueryHelper;
+import tim6.postservice.domain.models.Post;
+import tim6.postservice.domain.models.PostCursor;
+import tim6.postservice.domain.models.Timeline;
+import tim6.postservice.domain.models.TimelineEntry;
+import tim6.postservice.domain.models.User;
+import tim6.postservice.domain.repositories.TimelineRepository;
+
+@Service
+public class TimelineService {
+
+    private static final String PUSH_ENTRY_SCRIPT =
+            "boolean present = false;"
+                    + "for (entry in ctx._source.entries) {"
+                    + "  if (entry.postId == params.entry.postId) {"
+                    + "    present = true;"
+                    + "  }"
+                    + "}"
+                    + "if (present) {"
+                    + "  ctx.op = 'noop';"
+                    + "} else {"
+                    + "  ctx._source.entries.add(0, params.entry);"
+                    + "  if (ctx._source.entries.size() > params.maxSize) {"
+                    + "    ctx._source.entries ="
+                    + "      new ArrayList(ctx._source.entries.subList(0, params.maxSize));"
+                    + "  }"
+                    + "}";
+
+    private static final String MERGE_ENTRIES_SCRIPT =
+            "Set present = new HashSet();"
+                    + "for (entry in ctx._source.entries) {"
+                    + "  present.add(entry.postId);"
+                    + "}"
+                    + "boolean changed = false;"
+                    + "for (entry in params.entries) {"
+                    + "  if (present.add(entry.postId)) {"
+                    + "    ctx._source.entries.add(entry);"
+                    + "    changed = true;"
+                    + "  }"
+                    + "}"
+                    + "if (!changed) {"
+                    + "  ctx.op = 'noop';"
+                    + "} else {"
+                    + "  ctx._source.entries.sort((a, b) -> {"
+                    + "    int byDate = Long.compare("
+                    + "        ((Number) b.postedAt).longValue(),"
+                    + "        ((Number) a.postedAt).longValue());"
+                    + "    return byDate != 0 ? byDate : a.postId.compareTo(b.postId);"
+                    + "  });"
+                    + "  if (ctx._source.entries.size() > params.maxSize) {"
+                    + "    ctx._source.entries ="
+                    + "      new ArrayList(ctx._source.entries.subList(0, params.maxSize));"
+                    + "  }"
+                    + "}";
+
+    private static final String PRUNE_ENTRIES_SCRIPT =
+            "if (!ctx._source.entries.removeIf(entry -> entry.posterId == params.posterId)) {"
+                    + "  ctx.op = 'noop';"
+                    + "}";
+
+    private static final int FAN_OUT_BATCH_SIZE = 500;
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private static final int RETRY_ON_CONFLICT = 3;
+
+    private static final Comparator<TimelineEntry> FEED_ORDER =
+            Comparator.comparingLong(TimelineEntry::getPostedAt)
+                    .reversed()
+                    .thenComparing(TimelineEntry::getPostId);
+
+    final TimelineRepository timelineRepository;
+
+    final ElasticsearchOperations elasticsearchOperations;
+
+    final RestHighLevelClient elasticsearchClient;
+
+    final UserService userService;
+
+    @Value("${feed.timeline.max-size:500}")
+    int maxTimelineSize;
+
+    @Value("${feed.pull.follower-threshold:10000}")
+    long pullFollowerThreshold;
+
+    @Autowired
+    public TimelineService(
+            final TimelineRepository timelineRepository,
+            final ElasticsearchOperations elasticsearchOperations,
+            final RestHighLevelClient elasticsearchClient,
+            final UserService userService) {
+        this.timelineRepository = timelineRepository;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.elasticsearchClient = elasticsearchClient;
+        this.userService = userService;
+    }
+
+    private static Map<String, Object> toEntryParams(final TimelineEntry entry) {
+        return Map.of(
+                "postId", entry.getPostId(),
+                "posterId", entry.getPosterId(),
+                "postedAt", entry.getPostedAt());
+    }
+
+    private static Script script(final String source, final Map<String, Object> params) {
+        return new Script(ScriptType.INLINE, Script.DEFAULT_SCRIPT_LANG, source, params);
+    }
+
+    public long getPullFollowerThreshold() {
+        return this.pullFollowerThreshold;
+    }
+
+    public boolean isPulledPoster(final User poster) {
+        return poster.getFollowersCount() >= this.pullFollowerThreshold;
+    }
+
+    public void pushToFollowers(final Post post, final User poster) {
+        this.pushToFollowers(new TimelineEntry(post), poster);
+    }
+
+    public void pushToFollowers(final TimelineEntry entry, final User poster) {
+        if (this.isPulledPoster(poster)) {
+            return;
+        }
+
+        this.userService.forEachUnmutedFollowerBatch(
+                entry.getPosterId(),
+                FAN_OUT_BATCH_SIZE,
+                followerIds -> this.pushToTimelines(followerIds, entry));
+    }
+
+    private void pushToTimelines(final List<String> timelineIds, final TimelineEntry entry) {
+        final String index =
+                this.elasticsearchOperations.getIndexCoordinatesFor(Timeline.class).getIndexName();
+        final Map<String, Object> entryParams = toEntryParams(entry);
+        final Script pushScript =
+                script(
+                        PUSH_ENTRY_SCRIPT,
+                        Map.of("entry", entryParams, "maxSize", this.maxTimelineSize));
+
+        List<UpdateRequest> pending = new ArrayList<>();
+        for (final String timelineId : timelineIds) {
+            pending.add(
+                    new UpdateRequest(index, timelineId)
+                            .script(pushScript)
+                            .upsert(Map.of("id", timelineId, "entries", List.of(entryParams)))
+                            .retryOnConflict(RETRY_ON_CONFLICT));
+        }
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS && !pending.isEmpty(); attempt++) {
+            final BulkRequest pushBulk = new BulkRequest();
+            pending.forEach(pushBulk::add);
+
+            final List<UpdateRequest> failed = new ArrayList<>();
+            final BulkItemResponse[] items = this.bulk(pushBulk).getItems();
+            for (int i = 0; i < items.length; i++) {
+                if (items[i].isFailed()) {
+                    failed.add(pending.get(i));
+                }
+            }
+            pending = failed;
+        }
+
+        if (!pending.isEmpty()) {
+            this.timelineRepository.deleteAllById(
+                    pending.stream().map(UpdateRequest::id).collect(Collectors.toList()));
+        }
+    }
+
+    public Optional<List<TimelineEntry>> getEntries(
+            final String userId, final int limit, final PostCursor after) {
+        final User user = this.userService.findById(userId);
+        final Timeline timeline =
+                this.timelineRepository.findById(userId).orElseGet(() -> this.rebuild(user));
+
+        final List<TimelineEntry> timelineEntries =
+                timeline.getEntries().stream()
+                        .filter(
+                                entry ->
+                                        after == null
+                                                || after.precedes(
+                                                        entry.getPostedAt(), entry.getPostId()))
+                        .limit(limit)
+                        .collect(Collectors.toList());
+        if (timelineEntries.size() < limit
+                && timeline.getEntries().size() >= this.maxTimelineSize) {
+            return Optional.empty();
+        }
+
+        final List<String> pulledPosterIds =
+                this.userService.findIdsWithFollowersCountAtLeast(
+                        this.userService.getUnmutedFollowedIds(user), this.pullFollowerThreshold);
+        final List<TimelineEntry> pulledEntries =
+                pulledPosterIds.isEmpty()
+                        ? List.of()
+                        : this.latestEntriesOf(pulledPosterIds, limit, after);
+
+        final Set<String> seenPostIds = new HashSet<>();
+        return Optional.of(
+                Stream.concat(timelineEntries.stream(), pulledEntries.stream())
+                        .sorted(FEED_ORDER)
+                        .filter(entry -> seenPostIds.add(entry.getPostId()))
+                        .limit(limit)
+                        .collect(Collectors.toList()));
+    }
+
+    public Optional<List<String>> getPostIdsSince(final String userId, final PostCursor since) {
+        final User user = this.userService.findById(userId);
+        final Timeline timeline =
+                this.timelineRepository.findById(userId).orElseGet(() -> this.rebuild(user));
+
+        final List<TimelineEntry> newerTimelineEntries =
+                timeline.getEntries().stream()
+                        .filter(entry -> since.follows(entry.getPostedAt(), entry.getPostId()))
+                        .collect(Collectors.toList());
+        if (newerTimelineEntries.size() >= this.maxTimelineSize) {
+            return Optional.empty();
+        }
+
+        final List<String> pulledPosterIds =
+                this.userService.findIdsWithFollowersCountAtLeast(
+                        this.userService.getUnmutedFollowedIds(user), this.pullFollowerThreshold);
+        final List<TimelineEntry> newerPulledEntries;
+        if (pulledPosterIds.isEmpty()) {
+            newerPulledEntries = List.of();
+        } else {
+            final BoolQueryBuilder newerPulledPostsQuery = QueryBuilders.boolQuery();
+            newerPulledPostsQuery.filter(QueryHelper.termsInChunks("posterId", pulledPosterIds));
+            newerPulledPostsQuery.filter(QueryHelper.postedAfter(since));
+            newerPulledEntries =
+                    this.entriesOf(newerPulledPostsQuery, this.maxTimelineSize, null);
+        }
+
+        return Optional.of(
+                Stream.concat(newerTimelineEntries.stream(), newerPulledEntries.stream())
+                        .sorted(FEED_ORDER)
+                        .map(TimelineEntry::getPostId)
+                        .distinct()
+                        .collect(Collectors.toList()));
+    }
+
+    public void backfill(final String userId, final String posterId) {
+        if (!this.timelineRepository.existsById(userId)) {
+            this.rebuild(this.userService.findById(userId));
+            return;
+        }
+
+        this.mergeEntries(
+                userId, this.latestEntriesOf(List.of(posterId), this.maxTimelineSize, null));
+    }
+
+    public void prune(final String userId, final String posterId) {
+        if (!this.timelineRepository.existsById(userId)) {
+            return;
+        }
+
+        this.elasticsearchOperations.update(
+                UpdateQuery.builder(userId)
+                        .withScript(PRUNE_ENTRIES_SCRIPT)
+                        .withParams(Map.of("posterId", posterId))
+                        .withRetryOnConflict(RETRY_ON_CONFLICT)
+                        .build(),
+                this.elasticsearchOperations.getIndexCoordinatesFor(Timeline.class));
+    }
+
+    private Timeline rebuild(final User user) {
+        final List<String> unmutedFollowedIds = this.userService.getUnmutedFollowedIds(user);
+        final List<TimelineEntry> entries =
+                unmutedFollowedIds.isEmpty()
+                        ? new ArrayList<>()
+                        : this.latestEntriesOf(unmutedFollowedIds, this.maxTimelineSize, null);
+        this.mergeEntries(user.getId(), entries);
+        return new Timeline(user.getId(), entries);
+    }
+
+    private void mergeEntries(final String timelineId, final List<TimelineEntry> entries) {
+        final List<Map<String, Object>> entriesParams =
+                entries.stream()
+                        .sorted(FEED_ORDER)
+                        .limit(this.maxTimelineSize)
+                        .map(TimelineService::toEntryParams)
+                        .collect(Collectors.toList());
+        this.elasticsearchOperations.update(
+                UpdateQuery.builder(timelineId)
+                        .withScript(MERGE_ENTRIES_SCRIPT)
+                        .withParams(
+                                Map.of("entries", entriesParams, "maxSize", this.maxTimelineSize))
+                        .withUpsert(
+                                Document.from(Map.of("id", timelineId, "entries", entriesParams)))
+                        .withRetryOnConflict(RETRY_ON_CONFLICT)
+                        .build(),
+                this.elasticsearchOperations.getIndexCoordinatesFor(Timeline.class));
+    }
+
+    private List<TimelineEntry> latestEntriesOf(
+            final List<String> posterIds, final int limit, final PostCursor after) {
+        final BoolQueryBuilder postsByPostersQuery = QueryBuilders.boolQuery();
+        postsByPostersQuery.filter(QueryHelper.termsInChunks("posterId", posterIds));
+        return this.entriesOf(postsByPostersQuery, limit, after);
+    }
+
+    private List<TimelineEntry> entriesOf(
+            final BoolQueryBuilder postsQuery, final int limit, final PostCursor after) {
+        final NativeSearchQuery latestPostsQuery =
+                new NativeSearchQueryBuilder()
+                        .withFields("id", "posterId", "postDate")
+                        .withQuery(postsQuery)
+                        .withSort(SortBuilders.fieldSort("postDate").order(SortOrder.DESC))
+                        .withSort(SortBuilders.fieldSort("id").order(SortOrder.ASC))
+                        .withPageable(PageRequest.of(0, limit))
+                        .build();
+        if (after != null) {
+            latestPostsQuery.setSearchAfter(after.toSearchAfter());
+        }
+
+        return this.elasticsearchOperations.search(latestPostsQuery, Post.class).stream()
+                .map(SearchHit::getContent)
+                .map(TimelineEntry::new)
+                .collect(Collectors.toList());
+    }
+
+    private BulkResponse bulk(final BulkRequest bulkRequest) {
+        try {
+            return this.elasticsearchClient.bulk(bulkRequest, RequestOptions.DEFAULT);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package tim6.postservice.domain.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.script.ScriptType;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.sort.SortOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.UpdateQuery;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tim6.postservice.domain.models.Comment;
+import tim6.postservice.domain.models.Post;
+import tim6.postservice.domain.models.PropagationJob;
+import tim6.postservice.domain.models.PropagationJobStatus;
+import tim6.postservice.domain.models.PropagationPhase;
+import tim6.postservice.domain.models.User;
+import tim6.postservice.domain.models.UserInfo;
+import tim6.postservice.domain.repositories.PropagationJobRepository;
+
+@Service
+public class UserInfoPropagationService {
+
+    private static final String ENQUEUE_JOB_SCRIPT =
+            "if (ctx._source.profileVersion != null"
+                    + "    && (ctx._source.profileVersion > params.job.profileVersion"
+                    + "        || ctx._source.profileVersion == params.job.profileVersion"
+                    + "            && ctx._source.userInfo == params.job.userInfo"
+                    + "            && ctx._source.posterPublic == params.job.posterPublic"
+                    + "            && ctx._source.status != 'FAILED')) {"
+                    + "  ctx.op = 'noop';"
+                    + "} else {"
+                    + "  ctx._source.clear();"
+                    + "  ctx._source.putAll(params.job);"
+                    + "}";
+
+    private static final String UPDATE_POSTS_SCRIPT =
+            "if (ctx._source.posterId == params.userId) {"
+                    + "  ctx._source.poster = params.userInfo;"
+                    + "  ctx._source.posterPublic = params.posterPublic;"
+                    + "}"
+                    + "if (ctx._source.userTags != null) {"
+                    + "  for (tag in ctx._source.userTags) {"
+                    + "    if (tag.id == params.userId) {"
+                    + "      tag.username = params.userInfo.username;"
+                    + "      tag.userAvatar = params.userInfo.userAvatar;"
+                    + "    }"
+                    + "  }"
+                    + "}"
+                    + "if (ctx._source.latestComments != null) {"
+                    + "  for (comment in ctx._source.latestComments) {"
+                    + "    if (comment.commenter != null"
+                    + "        && comment.commenter.id == params.userId) {"
+                    + "      comment.commenter = params.userInfo;"
+                    + "    }"
+                    + "  }"
+                    + "}";
+
+    private static final String UPDATE_COMMENTS_SCRIPT =
+            "ctx._source.commenter = params.userInfo;";
+
+    private static final String UPDATE_POSTER_VISIBILITY_SCRIPT =
+            "ctx._source.posterPublic = params.posterPublic;";
+
+    private static final int CLAIM_BATCH_SIZE = 10;
+
+    private static final String COMPLETED_JOBS_METRIC = "propagation.jobs.completed";
+
+    private static final String SUPERSEDED_JOBS_METRIC = "propagation.jobs.superseded";
+
+    private static final String FAILED_JOBS_METRIC = "propagation.jobs.failed";
+
+    final PropagationJobRepository propagationJobRepository;
+
+    final ElasticsearchOperations elasticsearchOperations;
+
+    final UserInfoResolver userInfoResolver;
+
+    final StreamedUpdatePipeline streamedUpdatePipeline;
+
+    final MeterRegistry meterRegistry;
+
+    @Value("${propagation.jobs.lease-ms:60000}")
+    long leaseMillis;
+
+    @Autowired
+    public UserInfoPropagationService(
+            final PropagationJobRepository propagationJobRepository,
+            final ElasticsearchOperations elasticsearchOperations,
+            final UserInfoResolver userInfoResolver,
+            final StreamedUpdatePipeline streamedUpdatePipeline,
+            final MeterRegistry meterRegistry) {
+        this.propagationJobRepository = propagationJobRepository;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.userInfoResolver = userInfoResolver;
+        this.streamedUpdatePipeline = streamedUpdatePipeline;
+        this.meterRegistry = meterRegistry;
+    }
+
+    private static Map<String, Object> toUserInfoParams(final UserInfo userInfo) {
+        final Map<String, Object> userInfoParams = new HashMap<>();
+        userInfoParams.put("id", userInfo.getId());
+        userInfoParams.put("username", userInfo.getUsername());
+        userInfoParams.put("userAvatar", userInfo.getUserAvatar());
+        return userInfoParams;
+    }
+
+    private static Script script(final String source, final Map<String, Object> params) {
+        return new Script(ScriptType.INLINE, Script.DEFAULT_SCRIPT_LANG, source, params);
+    }
+
+    public void enqueue(final User user, final boolean visibilityChanged) {
+        final boolean visibilityOnly = this.userInfoResolver.isReadTime();
+        if (visibilityOnly && !visibilityChanged) {
+            return;
+        }
+
+        this.enqueue(new PropagationJob(user, visibilityOnly));
+    }
+
+    public void enqueueVisibility(final User user) {
+        this.enqueue(new PropagationJob(user, true));
+    }
+
+    private void enqueue(final PropagationJob propagationJob) {
+        final Document job =
+                this.elasticsearchOperations.getElasticsearchConverter().mapObject(propagationJob);
+        this.elasticsearchOperations.update(
+                UpdateQuery.builder(propagationJob.getId())
+                        .withScript(ENQUEUE_JOB_SCRIPT)
+                        .withParams(Map.of("job", job))
+                        .withUpsert(job)
+                        .build(),
+                this.elasticsearchOperations.getIndexCoordinatesFor(PropagationJob.class));
+    }
+
+    public List<PropagationJob> getJobs(final PropagationJobStatus status, final int limit) {
+        final NativeSearchQuery jobsQuery =
+                new NativeSearchQueryBuilder()
+                        .withQuery(QueryBuilders.termQuery("status", status.name()))
+                        .withSort(SortBuilders.fieldSort("enqueuedAt").order(SortOrder.ASC))
+                        .withPageable(PageRequest.of(0, limit))
+                        .build();
+        return this.elasticsearchOperations.search(jobsQuery, PropagationJob.class).stream()
+                .map(SearchHit::getContent)
+                .collect(Collectors.toList());
+    }
+
+    @Scheduled(fixedDelayString = "${propagation.poll-interval-ms:1000}")
+    public void runQueuedJobs() {
+        for (Optional<PropagationJob> job = this.claimNext();
+                job.isPresent();
+                job = this.claimNext()) {
+            this.run(job.get());
+        }
+    }
+
+    private Optional<PropagationJob> claimNext() {
+        final long now = System.currentTimeMillis();
+        final BoolQueryBuilder expiredLeaseQuery = QueryBuilders.boolQuery();
+        expiredLeaseQuery.filter(
+                QueryBuilders.termQuery("status", PropagationJobStatus.RUNNING.name()));
+        expiredLeaseQuery.filter(
+                QueryBuilders.rangeQuery("heartbeatAt").lt(now - this.leaseMillis));
+
+        final BoolQueryBuilder claimableJobsQuery = QueryBuilders.boolQuery();
+        claimableJobsQuery.should(
+                QueryBuilders.termQuery("status", PropagationJobStatus.QUEUED.name()));
+        claimableJobsQuery.should(expiredLeaseQuery);
+        claimableJobsQuery.minimumShouldMatch(1);
+
+        final NativeSearchQuery candidatesQuery =
+                new NativeSearchQueryBuilder()
+                        .withFields("id")
+                        .withQuery(claimableJobsQuery)
+                        .withSort(SortBuilders.fieldSort("enqueuedAt").order(SortOrder.ASC))
+                        .withPageable(PageRequest.of(0, CLAIM_BATCH_SIZE))
+                        .build();
+
+        for (final SearchHit<PropagationJob> candidate :
+                this.elasticsearchOperations.search(candidatesQuery, PropagationJob.class)) {
+            final Optional<PropagationJob> job =
+                    this.propagationJobRepository
+                            .findById(candidate.getId())
+                            .filter(found -> this.isClaimable(found, now));
+            if (job.isEmpty()) {
+                continue;
+            }
+
+            job.get().setStatus(PropagationJobStatus.RUNNING);
+            job.get().setHeartbeatAt(new Date(now));
+            if (job.get().getStartedAt() == null) {
+                job.get().setStartedAt(new Date(now));
+            }
+            if (this.saveIfUnchanged(job.get())) {
+                return job;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private boolean isClaimable(final PropagationJob job, final long now) {
+        return job.getStatus() == PropagationJobStatus.QUEUED
+                || job.getStatus() == PropagationJobStatus.RUNNING
+                        && job.getHeartbeatAt().getTime() < now - this.leaseMillis;
+    }
+
+    private void run(final PropagationJob job) {
+        PropagationPhase phase = job.getPhase();
+        while (phase != null) {
+            if (!this.runPhase(job, phase)) {
+                this.meterRegistry.counter(SUPERSEDED_JOBS_METRIC).increment();
+                return;
+            }
+            if (!job.getFailedIds().isEmpty()) {
+                job.setStatus(PropagationJobStatus.FAILED);
+                job.setHeartbeatAt(new Date());
+                if (this.saveIfUnchanged(job)) {
+                    this.meterRegistry.counter(FAILED_JOBS_METRIC).increment();
+                } else {
+                    this.meterRegistry.counter(SUPERSEDED_JOBS_METRIC).increment();
+                }
+                return;
+            }
+
+            phase = this.nextPhase(job, phase);
+            if (phase == null) {
+                job.setStatus(PropagationJobStatus.DONE);
+            } else {
+                job.setPhase(phase);
+                job.setCheckpoint(new ArrayList<>());
+            }
+            job.setHeartbeatAt(new Date());
+            if (!this.saveIfUnchanged(job)) {
+                this.meterRegistry.counter(SUPERSEDED_JOBS_METRIC).increment();
+                return;
+            }
+        }
+        this.meterRegistry.counter(COMPLETED_JOBS_METRIC).increment();
+    }
+
+    private PropagationPhase nextPhase(final PropagationJob job, final PropagationPhase phase) {
+        final PropagationPhase[] phases = PropagationPhase.values();
+        if (job.isVisibilityOnly() || phase.ordinal() + 1 >= phases.length) {
+            return null;
+        }
+        return phases[phase.ordinal() + 1];
+    }
+
+    private boolean runPhase(final PropagationJob job, final PropagationPhase phase) {
+        final String userId = job.getId();
+        final Map<String, Object> userInfo = toUserInfoParams(job.getUserInfo());
+        final Map<String, Object> postParams = new HashMap<>();
+        postParams.put("userId", userId);
+        postParams.put("userInfo", userInfo);
+        postParams.put("posterPublic", job.isPosterPublic());
+
+        final Class<?> entityClass;
+        final QueryBuilder query;
+        final Script script;
+        switch (phase) {
+            case POSTER_POSTS:
+                entityClass = Post.class;
+                query = QueryBuilders.termQuery("posterId", userId);
+                script =
+                        job.isVisibilityOnly()
+                                ? script(UPDATE_POSTER_VISIBILITY_SCRIPT, postParams)
+                                : script(UPDATE_POSTS_SCRIPT, postParams);
+                break;
+            case MENTIONING_POSTS:
+                final BoolQueryBuilder mentioningPostsQuery = QueryBuilders.boolQuery();
+                mentioningPostsQuery.should(QueryBuilders.termQuery("userTags.id", userId));
+                mentioningPostsQuery.should(
+                        QueryBuilders.termQuery("latestComments.commenter.id", userId));
+                mentioningPostsQuery.minimumShouldMatch(1);
+                mentioningPostsQuery.mustNot(QueryBuilders.termQuery("posterId", userId));
+                entityClass = Post.class;
+                query = mentioningPostsQuery;
+                script = script(UPDATE_POSTS_SCRIPT, postParams);
+                break;
+            default:
+                entityClass = Comment.class;
+                query = QueryBuilders.termQuery("commenter.id", userId);
+                script = script(UPDATE_COMMENTS_SCRIPT, Map.of("userInfo", userInfo));
+                break;
+        }
+
+        final boolean written =
+                this.streamedUpdatePipeline.updateAll(
+                        entityClass,
+                        query,
+                        script,
+                        job.getCheckpoint(),
+                        (checkpoint, updated, failedIds) -> {
+                            job.setCheckpoint(checkpoint);
+                            job.getFailedIds().addAll(failedIds);
+                            job.setDocumentsUpdated(job.getDocumentsUpdated() + updated);
+                            job.setHeartbeatAt(new Date());
+                            return this.saveIfUnchanged(job);
+                        });
+        if (!written || job.getFailedIds().isEmpty()) {
+            return written;
+        }
+
+        final List<String> stillFailedIds = new ArrayList<>();
+        final long retried =
+                this.streamedUpdatePipeline.updateIds(
+                        entityClass, job.getFailedIds(), script, stillFailedIds);
+        job.setFailedIds(stillFailedIds);
+        job.setDocumentsUpdated(job.getDocumentsUpdated() + retried);
+        return true;
+    }
+
+    private boolean saveIfUnchanged(final PropagationJob job) {
+        try {
+            final PropagationJob saved = this.propagationJobRepository.save(job);
+            job.setSeqNoPrimaryTerm(saved.getSeqNoPrimaryTerm());
+            return true;
+        } catch (final OptimisticLockingFailureException ex) {
+            return false;
+        }
+    }
+}
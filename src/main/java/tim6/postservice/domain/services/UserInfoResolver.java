@@ -0,0 +1,154 @@
+package tim6.postservice.domain.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.event.AfterSaveCallback;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.stereotype.Service;
+import tim6.postservice.domain.models.Comment;
+import tim6.postservice.domain.models.Post;
+import tim6.postservice.domain.models.User;
+import tim6.postservice.domain.models.UserInfo;
+
+@Service
+public class UserInfoResolver implements AfterSaveCallback<User> {
+
+    final ElasticsearchOperations elasticsearchOperations;
+
+    private Cache<String, UserInfo> userInfos;
+
+    @Value("${users.info.mode:DENORMALIZED}")
+    UserInfoMode userInfoMode;
+
+    @Value("${users.info.cache.max-size:100000}")
+    long cacheMaxSize;
+
+    @Value("${users.info.cache.expire-after-write-ms:600000}")
+    long cacheExpireAfterWriteMillis;
+
+    @Autowired
+    public UserInfoResolver(final ElasticsearchOperations elasticsearchOperations) {
+        this.elasticsearchOperations = elasticsearchOperations;
+    }
+
+    @PostConstruct
+    public void initializeCache() {
+        this.userInfos =
+                Caffeine.newBuilder()
+                        .maximumSize(this.cacheMaxSize)
+                        .expireAfterWrite(this.cacheExpireAfterWriteMillis, TimeUnit.MILLISECONDS)
+                        .build();
+    }
+
+    public boolean isReadTime() {
+        return this.userInfoMode == UserInfoMode.READ_TIME;
+    }
+
+    public UserInfo toStoredUserInfo(final User user) {
+        return this.isReadTime() ? new UserInfo(user.getId()) : new UserInfo(user);
+    }
+
+    public void resolvePosts(final Collection<Post> posts) {
+        if (!this.isReadTime() || posts.isEmpty()) {
+            return;
+        }
+
+        final Set<String> userIds = new HashSet<>();
+        for (final Post post : posts) {
+            userIds.add(post.getPoster().getId());
+            post.getUserTags().forEach(userTag -> userIds.add(userTag.getId()));
+            if (post.getLatestComments() != null) {
+                post.getLatestComments()
+                        .forEach(comment -> userIds.add(comment.getCommenter().getId()));
+            }
+        }
+
+        final Map<String, UserInfo> resolved = this.lookup(userIds);
+        for (final Post post : posts) {
+            post.setPoster(resolved.getOrDefault(post.getPoster().getId(), post.getPoster()));
+            post.setUserTags(
+                    post.getUserTags().stream()
+                            .map(userTag -> resolved.getOrDefault(userTag.getId(), userTag))
+                            .collect(Collectors.toSet()));
+            if (post.getLatestComments() != null) {
+                post.getLatestComments().forEach(comment -> resolve(comment, resolved));
+            }
+        }
+    }
+
+    public void resolveComments(final List<Comment> comments) {
+        if (!this.isReadTime() || comments.isEmpty()) {
+            return;
+        }
+
+        final Map<String, UserInfo> resolved =
+                this.lookup(
+                        comments.stream()
+                                .map(comment -> comment.getCommenter().getId())
+                                .collect(Collectors.toSet()));
+        comments.forEach(comment -> resolve(comment, resolved));
+    }
+
+    private static void resolve(final Comment comment, final Map<String, UserInfo> resolved) {
+        comment.setCommenter(
+                resolved.getOrDefault(comment.getCommenter().getId(), comment.getCommenter()));
+    }
+
+    private Map<String, UserInfo> lookup(final Set<String> userIds) {
+        final List<String> missingIds =
+                userIds.stream()
+                        .filter(userId -> this.userInfos.getIfPresent(userId) == null)
+                        .collect(Collectors.toList());
+        if (!missingIds.isEmpty()) {
+            final NativeSearchQuery missingUsersQuery =
+                    new NativeSearchQueryBuilder()
+                            .withFields("id", "username", "userAvatar")
+                            .withQuery(
+                                    QueryBuilders.idsQuery()
+                                            .addIds(missingIds.toArray(String[]::new)))
+                            .withPageable(PageRequest.of(0, missingIds.size()))
+                            .build();
+            this.elasticsearchOperations.search(missingUsersQuery, User.class).stream()
+                    .map(SearchHit::getContent)
+                    .forEach(user -> this.userInfos.put(user.getId(), new UserInfo(user)));
+        }
+
+        final Map<String, UserInfo> resolved = new HashMap<>();
+        for (final String userId : userIds) {
+            final UserInfo userInfo = this.userInfos.getIfPresent(userId);
+            if (userInfo != null) {
+                resolved.put(userId, userInfo);
+            }
+        }
+        return resolved;
+    }
+
+    public void refresh(final UserInfo userInfo) {
+        if (this.isReadTime()) {
+            this.userInfos.put(userInfo.getId(), userInfo);
+        }
+    }
+
+    @Override
+    public User onAfterSave(final User user, final IndexCoordinates index) {
+        this.refresh(new UserInfo(user));
+        return user;
+    }
+}
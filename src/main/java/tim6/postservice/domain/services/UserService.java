@@ -1,47 +1,114 @@
 package tim6.postservice.domain.services;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.ElasticsearchStatusException;
+import org.elasticsearch.action.bulk.BulkItemResponse;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
 import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.script.Script;
+import org.elasticsearch.script.ScriptType;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.sort.SortOrder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
-import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.MultiGetItem;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
 import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
 import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
 import org.springframework.stereotype.Service;
 import tim6.postservice.domain.exceptions.EntityNotFoundException;
+import tim6.postservice.domain.models.GraphChange;
+import tim6.postservice.domain.models.GraphChangeType;
 import tim6.postservice.domain.models.User;
+import tim6.postservice.domain.models.UserInfo;
 import tim6.postservice.domain.repositories.UserRepository;
 
 @Service
 public class UserService {
 
+    private static final int MAX_RESULT_WINDOW = 10000;
+
+    private static final String CHANGE_FOLLOWERS_COUNT_SCRIPT =
+            "def followersCount = ctx._source.followersCount == null"
+                    + "  ? 0 : ctx._source.followersCount;"
+                    + "ctx._source.followersCount = Math.max(0, followersCount + params.delta);";
+
     final UserRepository userRepository;
 
     final ElasticsearchOperations elasticsearchOperations;
 
+    final RestHighLevelClient elasticsearchClient;
+
+    final VisibilityEngine visibilityEngine;
+
+    final UserInfoResolver userInfoResolver;
+
+    @Value("${users.write.retry-on-conflict:3}")
+    int retryOnConflict;
+
     @Autowired
     public UserService(
             final UserRepository userRepository,
-            final ElasticsearchOperations elasticsearchOperations) {
+            final ElasticsearchOperations elasticsearchOperations,
+            final RestHighLevelClient elasticsearchClient,
+            final VisibilityEngine visibilityEngine,
+            final UserInfoResolver userInfoResolver) {
         this.userRepository = userRepository;
         this.elasticsearchOperations = elasticsearchOperations;
+        this.elasticsearchClient = elasticsearchClient;
+        this.visibilityEngine = visibilityEngine;
+        this.userInfoResolver = userInfoResolver;
+    }
+
+    private static BoolQueryBuilder unmutedFollowersQuery(final String posterId) {
+        final BoolQueryBuilder followersQuery = QueryBuilders.boolQuery();
+        followersQuery.filter(QueryBuilders.matchPhraseQuery("following", posterId));
+        followersQuery.mustNot(QueryBuilders.matchPhraseQuery("muted", posterId));
+        return followersQuery;
     }
 
-    private static BoolQueryBuilder publicAccountQuery() {
-        final BoolQueryBuilder publicAccountQuery = QueryBuilders.boolQuery();
-        publicAccountQuery.must(QueryBuilders.termQuery("publicAccount", true));
-        return publicAccountQuery;
+    private static boolean applyGraphChange(final User user, final GraphChange change) {
+        final Set<String> relation;
+        switch (change.getType()) {
+            case FOLLOW:
+                relation = user.getFollowing();
+                break;
+            case MUTE:
+                relation = user.getMuted();
+                break;
+            default:
+                relation = user.getBlocked();
+                break;
+        }
+        return change.isApply()
+                ? relation.add(change.getTargetId())
+                : relation.remove(change.getTargetId());
     }
 
-    private static List<String> removeNecessaryUserIdsFrom(
-            final List<String> userIds, final Collection<String> blockedUserIds) {
-        return userIds.stream()
-                .filter(id -> !blockedUserIds.contains(id))
+    public List<String> getUnmutedFollowedIds(final User user) {
+        return user.getFollowing().stream()
+                .filter(id -> !user.getMuted().contains(id))
                 .collect(Collectors.toList());
     }
 
@@ -59,86 +126,272 @@ public class UserService {
 
     public void followUser(final String userId, final String userToFollowId) {
         final User user = this.findById(userId);
-        user.getFollowing().add(userToFollowId);
-        this.save(user);
+        if (user.getFollowing().add(userToFollowId)) {
+            this.saveRelations(user);
+            this.changeFollowersCount(userToFollowId, 1);
+        }
     }
 
     public void unfollowUser(final String userId, final String userToFollowId) {
         final User user = this.findById(userId);
-        user.getFollowing().remove(userToFollowId);
-        this.save(user);
+        if (user.getFollowing().remove(userToFollowId)) {
+            this.saveRelations(user);
+            this.changeFollowersCount(userToFollowId, -1);
+        }
+    }
+
+    private void changeFollowersCount(final String userId, final long delta) {
+        try {
+            this.elasticsearchClient.update(
+                    this.followersCountUpdateRequest(userId, delta), RequestOptions.DEFAULT);
+        } catch (final ElasticsearchStatusException ex) {
+            if (ex.status() != RestStatus.NOT_FOUND) {
+                throw ex;
+            }
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private UpdateRequest followersCountUpdateRequest(final String userId, final long delta) {
+        return new UpdateRequest(this.usersIndex(), userId)
+                .script(
+                        new Script(
+                                ScriptType.INLINE,
+                                Script.DEFAULT_SCRIPT_LANG,
+                                CHANGE_FOLLOWERS_COUNT_SCRIPT,
+                                Map.of("delta", delta)))
+                .retryOnConflict(this.retryOnConflict);
+    }
+
+    private UpdateRequest relationsUpdateRequest(final User user) {
+        final Map<String, Object> relations = new HashMap<>();
+        relations.put("following", new ArrayList<>(user.getFollowing()));
+        relations.put("muted", new ArrayList<>(user.getMuted()));
+        relations.put("blocked", new ArrayList<>(user.getBlocked()));
+        return new UpdateRequest(this.usersIndex(), user.getId())
+                .doc(relations)
+                .retryOnConflict(this.retryOnConflict);
+    }
+
+    private void saveRelations(final User user) {
+        try {
+            this.elasticsearchClient.update(
+                    this.relationsUpdateRequest(user), RequestOptions.DEFAULT);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        this.visibilityEngine.index(user);
+    }
+
+    public void saveProfile(final User user) {
+        final Map<String, Object> profile = new HashMap<>();
+        profile.put("username", user.getUsername());
+        profile.put("userAvatar", user.getUserAvatar());
+        profile.put("publicAccount", user.isPublicAccount());
+        profile.put("profileVersion", user.getProfileVersion());
+        final UpdateRequest profileRequest =
+                new UpdateRequest(this.usersIndex(), user.getId())
+                        .doc(profile)
+                        .retryOnConflict(this.retryOnConflict);
+        try {
+            this.elasticsearchClient.update(profileRequest, RequestOptions.DEFAULT);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        this.visibilityEngine.index(user);
+        this.userInfoResolver.refresh(new UserInfo(user));
+    }
+
+    private String usersIndex() {
+        return this.elasticsearchOperations.getIndexCoordinatesFor(User.class).getIndexName();
+    }
+
+    public List<String> findIdsWithFollowersCountAtLeast(
+            final Collection<String> userIds, final long followersCount) {
+        if (userIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        final BoolQueryBuilder highFollowerQuery = QueryBuilders.boolQuery();
+        highFollowerQuery.filter(QueryBuilders.idsQuery().addIds(userIds.toArray(String[]::new)));
+        highFollowerQuery.filter(QueryBuilders.rangeQuery("followersCount").gte(followersCount));
+
+        final NativeSearchQuery highFollowerIdsQuery =
+                new NativeSearchQueryBuilder()
+                        .withFields("id")
+                        .withQuery(highFollowerQuery)
+                        .withPageable(
+                                PageRequest.of(0, Math.min(userIds.size(), MAX_RESULT_WINDOW)))
+                        .build();
+        return this.elasticsearchOperations.search(highFollowerIdsQuery, User.class).stream()
+                .map(hit -> hit.getContent().getId())
+                .collect(Collectors.toList());
+    }
+
+    public List<User> findTopByFollowersCount(final long followersCount, final int limit) {
+        final NativeSearchQuery topFollowedQuery =
+                new NativeSearchQueryBuilder()
+                        .withFields("id", "username", "followersCount")
+                        .withQuery(QueryBuilders.rangeQuery("followersCount").gte(followersCount))
+                        .withSort(SortBuilders.fieldSort("followersCount").order(SortOrder.DESC))
+                        .withPageable(PageRequest.of(0, limit))
+                        .build();
+        return this.elasticsearchOperations.search(topFollowedQuery, User.class).stream()
+                .map(SearchHit::getContent)
+                .collect(Collectors.toList());
     }
 
     public void muteUser(final String userId, final String userToFollowId) {
         final User user = this.findById(userId);
         user.getMuted().add(userToFollowId);
-        this.save(user);
+        this.saveRelations(user);
     }
 
     public void unmuteUser(final String userId, final String userToFollowId) {
         final User user = this.findById(userId);
         user.getMuted().remove(userToFollowId);
-        this.save(user);
+        this.saveRelations(user);
     }
 
     public void blockUser(final String userId, final String userToFollowId) {
         final User user = this.findById(userId);
         user.getBlocked().add(userToFollowId);
-        this.save(user);
+        this.saveRelations(user);
     }
 
     public void unblockUser(final String userId, final String userToFollowId) {
         final User user = this.findById(userId);
         user.getBlocked().remove(userToFollowId);
-        this.save(user);
+        this.saveRelations(user);
     }
 
-    public User save(final User user) {
-        return this.userRepository.save(user);
+    public Map<String, User> applyGraphChanges(final List<GraphChange> changes) {
+        final Set<String> userIds = new HashSet<>();
+        changes.forEach(
+                change -> {
+                    userIds.add(change.getUserId());
+                    userIds.add(change.getTargetId());
+                });
+        final Map<String, User> users = new HashMap<>();
+        this.elasticsearchOperations
+                .multiGet(
+                        new NativeSearchQueryBuilder().withIds(new ArrayList<>(userIds)).build(),
+                        User.class)
+                .stream()
+                .filter(MultiGetItem::hasItem)
+                .map(MultiGetItem::getItem)
+                .forEach(user -> users.put(user.getId(), user));
+
+        final Map<String, User> changedUsers = new LinkedHashMap<>();
+        final Map<String, Long> followerDeltas = new LinkedHashMap<>();
+        for (final GraphChange change : changes) {
+            final User user = users.get(change.getUserId());
+            if (user == null || !applyGraphChange(user, change)) {
+                continue;
+            }
+            changedUsers.put(user.getId(), user);
+
+            if (change.getType() == GraphChangeType.FOLLOW
+                    && users.containsKey(change.getTargetId())) {
+                followerDeltas.merge(change.getTargetId(), change.isApply() ? 1L : -1L, Long::sum);
+            }
+        }
+
+        final BulkRequest graphBulk = new BulkRequest();
+        changedUsers.values().forEach(user -> graphBulk.add(this.relationsUpdateRequest(user)));
+        followerDeltas.forEach(
+                (targetId, delta) -> {
+                    if (delta != 0) {
+                        graphBulk.add(this.followersCountUpdateRequest(targetId, delta));
+                    }
+                });
+        if (graphBulk.numberOfActions() > 0) {
+            final BulkResponse graphResponse = this.bulk(graphBulk);
+            for (final BulkItemResponse item : graphResponse.getItems()) {
+                if (item.isFailed() && item.status() != RestStatus.NOT_FOUND) {
+                    throw new ElasticsearchException(graphResponse.buildFailureMessage());
+                }
+            }
+        }
+        changedUsers.values().forEach(this.visibilityEngine::index);
+        return users;
     }
 
-    public List<String> getViewablePosterIdsForUser(final String userId) {
-        final List<String> publicPosterIds = this.getPublicPosters();
-        if (userId.equals("anonymousUser")) {
-            return publicPosterIds;
+    private BulkResponse bulk(final BulkRequest bulkRequest) {
+        try {
+            return this.elasticsearchClient.bulk(bulkRequest, RequestOptions.DEFAULT);
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
         }
+    }
 
-        final User user = this.findById(userId);
-        final Set<String> followedUserIds = user.getFollowing();
+    public User save(final User user) {
+        return this.userRepository.save(user);
+    }
+
+    public void loadVisibility() {
+        this.visibilityEngine.loadUsers();
+    }
 
-        final List<String> combinedViewablePosterIds =
-                Stream.concat(publicPosterIds.stream(), followedUserIds.stream())
-                        .distinct()
-                        .collect(Collectors.toList());
+    public void refreshVisibility(final List<GraphChange> changes) {
+        changes.forEach(this.visibilityEngine::applyGraphChange);
+    }
 
-        final Set<String> blockedUserIds = user.getBlocked();
-        return removeNecessaryUserIdsFrom(combinedViewablePosterIds, blockedUserIds);
+    public void refreshVisibility(
+            final String userId, final boolean publicAccount, final long profileVersion) {
+        this.visibilityEngine.setPublicAccount(userId, publicAccount, profileVersion);
     }
 
     public List<String> getViewableUnmutedPosterIdsForUser(final String userId) {
-        final List<String> viewablePosterIds = this.getViewablePosterIdsForUser(userId);
         if (userId.equals("anonymousUser")) {
-            return viewablePosterIds;
+            return this.visibilityEngine.getPublicPosterIds();
         }
 
-        final User user = this.findById(userId);
-        final Set<String> mutedUserIds = user.getMuted();
+        this.ensureIndexed(userId);
+        return this.visibilityEngine.getViewablePosterIds(userId, true);
+    }
+
+    public boolean canView(final String viewerId, final String posterId) {
+        if (!viewerId.equals("anonymousUser")) {
+            this.ensureIndexed(viewerId);
+        }
+        if (!this.visibilityEngine.isIndexed(posterId)) {
+            this.userRepository.findById(posterId).ifPresent(this.visibilityEngine::index);
+        }
 
-        return removeNecessaryUserIdsFrom(viewablePosterIds, mutedUserIds);
+        return this.visibilityEngine.canView(viewerId, posterId);
     }
 
-    private List<String> getPublicPosters() {
-        final BoolQueryBuilder viewablePosterIdsQuery = QueryBuilders.boolQuery();
-        viewablePosterIdsQuery.should(publicAccountQuery());
+    private void ensureIndexed(final String userId) {
+        if (!this.visibilityEngine.isIndexed(userId)) {
+            this.visibilityEngine.index(this.findById(userId));
+        }
+    }
 
-        final NativeSearchQuery getViewablePosterIdsQuery =
+    public void forEachUnmutedFollowerBatch(
+            final String posterId, final int batchSize, final Consumer<List<String>> consumer) {
+        final NativeSearchQuery followersQuery =
                 new NativeSearchQueryBuilder()
                         .withFields("id")
-                        .withFilter(viewablePosterIdsQuery)
+                        .withFilter(unmutedFollowersQuery(posterId))
+                        .withPageable(PageRequest.of(0, batchSize))
                         .build();
-        final SearchHits<User> queryHits =
-                this.elasticsearchOperations.search(getViewablePosterIdsQuery, User.class);
 
-        return queryHits.stream().map(hit -> hit.getContent().getId()).collect(Collectors.toList());
+        try (final SearchHitsIterator<User> followers =
+                this.elasticsearchOperations.searchForStream(followersQuery, User.class)) {
+            List<String> batch = new ArrayList<>(batchSize);
+            while (followers.hasNext()) {
+                final SearchHit<User> follower = followers.next();
+                batch.add(follower.getContent().getId());
+                if (batch.size() == batchSize) {
+                    consumer.accept(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                consumer.accept(batch);
+            }
+        }
     }
 }
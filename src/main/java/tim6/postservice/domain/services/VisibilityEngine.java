@@ -0,0 +1,255 @@
+package tim6.postservice.domain.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.event.AfterSaveCallback;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tim6.postservice.domain.models.GraphChange;
+import tim6.postservice.domain.models.User;
+
+@Service
+public class VisibilityEngine implements AfterSaveCallback<User> {
+
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    final ElasticsearchOperations elasticsearchOperations;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> ordinals = new HashMap<>();
+
+    private final List<String> userIds = new ArrayList<>();
+
+    private final List<RoaringBitmap> following = new ArrayList<>();
+
+    private final List<RoaringBitmap> blocked = new ArrayList<>();
+
+    private final List<RoaringBitmap> muted = new ArrayList<>();
+
+    private final List<Long> profileVersions = new ArrayList<>();
+
+    private final RoaringBitmap publicPosters = new RoaringBitmap();
+
+    private final RoaringBitmap indexedUsers = new RoaringBitmap();
+
+    @Autowired
+    public VisibilityEngine(final ElasticsearchOperations elasticsearchOperations) {
+        this.elasticsearchOperations = elasticsearchOperations;
+    }
+
+    @Scheduled(
+            initialDelayString = "${visibility.reindex-interval-ms:600000}",
+            fixedDelayString = "${visibility.reindex-interval-ms:600000}")
+    public void loadUsers() {
+        if (!this.elasticsearchOperations.indexOps(User.class).exists()) {
+            return;
+        }
+
+        final NativeSearchQuery allUsersQuery =
+                new NativeSearchQueryBuilder()
+                        .withFields(
+                                "id",
+                                "publicAccount",
+                                "profileVersion",
+                                "following",
+                                "blocked",
+                                "muted")
+                        .withQuery(QueryBuilders.matchAllQuery())
+                        .withPageable(PageRequest.of(0, LOAD_BATCH_SIZE))
+                        .build();
+        try (final SearchHitsIterator<User> users =
+                this.elasticsearchOperations.searchForStream(allUsersQuery, User.class)) {
+            users.forEachRemaining(hit -> this.index(hit.getContent()));
+        }
+    }
+
+    @Override
+    public User onAfterSave(final User user, final IndexCoordinates index) {
+        this.index(user);
+        return user;
+    }
+
+    public void index(final User user) {
+        final Lock writeLock = this.lock.writeLock();
+        writeLock.lock();
+        try {
+            final int ordinal = this.ordinalOf(user.getId());
+            this.following.set(ordinal, this.toBitmap(user.getFollowing()));
+            this.blocked.set(ordinal, this.toBitmap(user.getBlocked()));
+            this.muted.set(ordinal, this.toBitmap(user.getMuted()));
+            this.profileVersions.set(
+                    ordinal, Math.max(this.profileVersions.get(ordinal), user.getProfileVersion()));
+            if (user.isPublicAccount()) {
+                this.publicPosters.add(ordinal);
+            } else {
+                this.publicPosters.remove(ordinal);
+            }
+            this.indexedUsers.add(ordinal);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void applyGraphChange(final GraphChange change) {
+        final Lock writeLock = this.lock.writeLock();
+        writeLock.lock();
+        try {
+            final Integer user = this.ordinals.get(change.getUserId());
+            if (user == null || !this.indexedUsers.contains(user)) {
+                return;
+            }
+
+            final RoaringBitmap relation;
+            switch (change.getType()) {
+                case FOLLOW:
+                    relation = this.following.get(user);
+                    break;
+                case MUTE:
+                    relation = this.muted.get(user);
+                    break;
+                default:
+                    relation = this.blocked.get(user);
+                    break;
+            }
+            final int target = this.ordinalOf(change.getTargetId());
+            if (change.isApply()) {
+                relation.add(target);
+            } else {
+                relation.remove(target);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void setPublicAccount(
+            final String userId, final boolean publicAccount, final long profileVersion) {
+        final Lock writeLock = this.lock.writeLock();
+        writeLock.lock();
+        try {
+            final int ordinal = this.ordinalOf(userId);
+            if (profileVersion < this.profileVersions.get(ordinal)) {
+                return;
+            }
+            this.profileVersions.set(ordinal, profileVersion);
+            if (publicAccount) {
+                this.publicPosters.add(ordinal);
+            } else {
+                this.publicPosters.remove(ordinal);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public boolean isIndexed(final String userId) {
+        final Lock readLock = this.lock.readLock();
+        readLock.lock();
+        try {
+            final Integer ordinal = this.ordinals.get(userId);
+            return ordinal != null && this.indexedUsers.contains(ordinal);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    public List<String> getPublicPosterIds() {
+        final Lock readLock = this.lock.readLock();
+        readLock.lock();
+        try {
+            return this.toUserIds(this.publicPosters);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    public List<String> getViewablePosterIds(final String viewerId, final boolean excludeMuted) {
+        final Lock readLock = this.lock.readLock();
+        readLock.lock();
+        try {
+            final Integer viewer = this.ordinals.get(viewerId);
+            if (viewer == null) {
+                return this.toUserIds(this.publicPosters);
+            }
+
+            final RoaringBitmap viewable =
+                    RoaringBitmap.or(this.publicPosters, this.following.get(viewer));
+            viewable.andNot(this.blocked.get(viewer));
+            if (excludeMuted) {
+                viewable.andNot(this.muted.get(viewer));
+            }
+            return this.toUserIds(viewable);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    public boolean canView(final String viewerId, final String posterId) {
+        final Lock readLock = this.lock.readLock();
+        readLock.lock();
+        try {
+            final Integer poster = this.ordinals.get(posterId);
+            if (poster == null) {
+                return false;
+            }
+            final Integer viewer = this.ordinals.get(viewerId);
+            if (viewer == null) {
+                return this.publicPosters.contains(poster);
+            }
+
+            final boolean reachable =
+                    this.publicPosters.contains(poster)
+                            || this.following.get(viewer).contains(poster);
+            return reachable && !this.blocked.get(viewer).contains(poster);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private int ordinalOf(final String userId) {
+        final Integer existing = this.ordinals.get(userId);
+        if (existing != null) {
+            return existing;
+        }
+
+        final int ordinal = this.userIds.size();
+        this.ordinals.put(userId, ordinal);
+        this.userIds.add(userId);
+        this.following.add(new RoaringBitmap());
+        this.blocked.add(new RoaringBitmap());
+        this.muted.add(new RoaringBitmap());
+        this.profileVersions.add(0L);
+        return ordinal;
+    }
+
+    private RoaringBitmap toBitmap(final Collection<String> relatedUserIds) {
+        final RoaringBitmap bitmap = new RoaringBitmap();
+        if (relatedUserIds != null) {
+            relatedUserIds.forEach(relatedUserId -> bitmap.add(this.ordinalOf(relatedUserId)));
+        }
+        bitmap.runOptimize();
+        return bitmap;
+    }
+
+    private List<String> toUserIds(final RoaringBitmap bitmap) {
+        final List<String> ids = new ArrayList<>(bitmap.getCardinality());
+        bitmap.forEach((int ordinal) -> ids.add(this.userIds.get(ordinal)));
+        return ids;
+    }
+}
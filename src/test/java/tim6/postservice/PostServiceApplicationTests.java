@@ -4,29 +4,59 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 import tim6.postservice.post.intergration.comments.CommentOnPostTest;
+import tim6.postservice.post.intergration.comments.GetCommentsTest;
 import tim6.postservice.post.intergration.creation.CreatePostTest;
 import tim6.postservice.post.intergration.dislikes.DislikePostTest;
 import tim6.postservice.post.intergration.dislikes.RemovePostDislikeTest;
 import tim6.postservice.post.intergration.favorites.FavoritePostTest;
+import tim6.postservice.post.intergration.favorites.GetFavoritesTest;
 import tim6.postservice.post.intergration.favorites.RemoveFavoritePostTest;
 import tim6.postservice.post.intergration.feed.GetFeedTest;
+import tim6.postservice.post.intergration.feed.HybridFeedTest;
+import tim6.postservice.post.intergration.feed.QueryFeedTest;
+import tim6.postservice.post.intergration.feed.TimelineTest;
 import tim6.postservice.post.intergration.likes.LikePostTest;
+import tim6.postservice.post.intergration.likes.ReactionWriteBehindTest;
 import tim6.postservice.post.intergration.likes.RemovePostLikeTest;
+import tim6.postservice.post.intergration.likes.ShardedLikesCountTest;
+import tim6.postservice.post.intergration.migration.LegacyPostBackfillTest;
+import tim6.postservice.post.intergration.search.PosterVisibilityBackfillTest;
 import tim6.postservice.post.intergration.search.SearchByTagsTest;
 import tim6.postservice.post.intergration.search.SearchByUserIdTest;
+import tim6.postservice.post.intergration.users.GraphChangesBatchTest;
+import tim6.postservice.post.intergration.users.MentionPropagationTest;
+import tim6.postservice.post.intergration.users.ReadTimeUserInfoTest;
+import tim6.postservice.post.intergration.users.UserEventRedeliveryTest;
+import tim6.postservice.post.intergration.users.VisibilityReplicationTest;
+import tim6.postservice.post.intergration.visibility.GetPostVisibilityTest;
 
 @RunWith(Suite.class)
 @SuiteClasses({
     CreatePostTest.class,
     LikePostTest.class,
     RemovePostLikeTest.class,
+    ShardedLikesCountTest.class,
+    ReactionWriteBehindTest.class,
     DislikePostTest.class,
     RemovePostDislikeTest.class,
     FavoritePostTest.class,
     RemoveFavoritePostTest.class,
+    GetFavoritesTest.class,
     SearchByUserIdTest.class,
     SearchByTagsTest.class,
+    PosterVisibilityBackfillTest.class,
     GetFeedTest.class,
-    CommentOnPostTest.class
+    TimelineTest.class,
+    HybridFeedTest.class,
+    QueryFeedTest.class,
+    CommentOnPostTest.class,
+    GetCommentsTest.class,
+    ReadTimeUserInfoTest.class,
+    MentionPropagationTest.class,
+    GraphChangesBatchTest.class,
+    UserEventRedeliveryTest.class,
+    VisibilityReplicationTest.class,
+    GetPostVisibilityTest.class,
+    LegacyPostBackfillTest.class
 })
 class PostServiceApplicationTests {}
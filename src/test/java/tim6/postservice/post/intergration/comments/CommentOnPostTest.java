@@ -1,8 +1,11 @@
 package tim6.postservice.post.intergration.comments;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Date;
@@ -11,6 +14,9 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import org.assertj.core.api.SoftAssertions;
 import org.junit.After;
@@ -20,20 +26,28 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.util.UriComponentsBuilder;
 import tim6.postservice.adapter.http.dto.CommentCreateDTO;
+import tim6.postservice.adapter.http.dto.CommentGetDTO;
+import tim6.postservice.adapter.http.dto.CursorPageDTO;
 import tim6.postservice.common.CommonTestBase;
 import tim6.postservice.domain.models.Comment;
 import tim6.postservice.domain.models.Post;
 import tim6.postservice.domain.models.User;
 import tim6.postservice.domain.models.UserInfo;
+import tim6.postservice.domain.repositories.CommentRepository;
 import tim6.postservice.domain.repositories.PostRepository;
 import tim6.postservice.domain.repositories.UserRepository;
+import tim6.postservice.domain.services.CommentService;
+import tim6.postservice.domain.services.PostWriteMetrics;
 import tim6.postservice.helpers.AuthHelper;
 
 public class CommentOnPostTest extends CommonTestBase {
@@ -61,11 +75,17 @@ public class CommentOnPostTest extends CommonTestBase {
     private final Set<String> TAGS = Set.of("tag1", "tag2", "tag3");
     private final Set<UserInfo> USER_TAGS = new HashSet<>();
 
+    private final int CONCURRENT_COMMENTERS = 16;
+    private final int MAX_CONFLICT_ROUNDS = 10;
+
     @Value("${jwt.secret}")
     private String JWT_SECRET;
 
     @Autowired private PostRepository postRepository;
     @Autowired private UserRepository userRepository;
+    @Autowired private CommentRepository commentRepository;
+    @Autowired private CommentService commentService;
+    @Autowired private MeterRegistry meterRegistry;
     @Autowired private TestRestTemplate testRestTemplate;
     @LocalServerPort private int port;
 
@@ -79,6 +99,7 @@ public class CommentOnPostTest extends CommonTestBase {
     public void cleanUpData() {
         this.userRepository.deleteAll();
         this.postRepository.deleteAll();
+        this.commentRepository.deleteAll();
     }
 
     private void initializeUsers() {
@@ -129,11 +150,7 @@ public class CommentOnPostTest extends CommonTestBase {
                         new UserInfo(this.PUBLIC_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         Set.of("tag1", "tag2"),
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
         postsToSave.add(publicPost);
 
         final Post privatePostByFollowedPoster =
@@ -144,11 +161,7 @@ public class CommentOnPostTest extends CommonTestBase {
                         new UserInfo(this.PRIVATE_FOLLOWED_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
         postsToSave.add(privatePostByFollowedPoster);
 
         final Post privatePostByNotFollowedPoster =
@@ -159,11 +172,7 @@ public class CommentOnPostTest extends CommonTestBase {
                         new UserInfo(this.PRIVATE_NOT_FOLLOWED_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
         postsToSave.add(privatePostByNotFollowedPoster);
 
         this.postRepository.saveAll(postsToSave);
@@ -193,14 +202,19 @@ public class CommentOnPostTest extends CommonTestBase {
 
         final Optional<Post> publicPost = this.postRepository.findById(this.PUBLIC_POST_ID);
         assertTrue(publicPost.isPresent());
+        assertEquals(1, publicPost.get().getCommentsCount());
 
-        final List<Comment> comments = publicPost.get().getComments();
+        final List<CommentGetDTO> comments = this.getComments(this.PUBLIC_POST_ID);
         final SoftAssertions softAssertions = new SoftAssertions();
         softAssertions
-                .assertThat(comments.stream().map(Comment::getId).collect(Collectors.toList()))
+                .assertThat(
+                        comments.stream().map(CommentGetDTO::getId).collect(Collectors.toList()))
                 .containsOnly(this.COMMENT_ID_1);
         softAssertions
-                .assertThat(comments.stream().map(Comment::getComment).collect(Collectors.toList()))
+                .assertThat(
+                        comments.stream()
+                                .map(CommentGetDTO::getComment)
+                                .collect(Collectors.toList()))
                 .containsOnly(this.COMMENT_CONTENT_1);
         softAssertions.assertAll();
     }
@@ -239,23 +253,33 @@ public class CommentOnPostTest extends CommonTestBase {
 
         final Optional<Post> publicPost = this.postRepository.findById(this.PUBLIC_POST_ID);
         assertTrue(publicPost.isPresent());
-
-        final List<Comment> comments = publicPost.get().getComments();
+        assertEquals(3, publicPost.get().getCommentsCount());
+        assertEquals(
+                List.of(this.COMMENT_ID_3, this.COMMENT_ID_2, this.COMMENT_ID_1),
+                publicPost.get().getLatestComments().stream()
+                        .map(Comment::getId)
+                        .collect(Collectors.toList()));
+
+        final List<CommentGetDTO> comments = this.getComments(this.PUBLIC_POST_ID);
         final SoftAssertions softAssertions = new SoftAssertions();
         softAssertions
-                .assertThat(comments.stream().map(Comment::getId).collect(Collectors.toList()))
-                .containsExactly(this.COMMENT_ID_1, this.COMMENT_ID_2, this.COMMENT_ID_3);
+                .assertThat(
+                        comments.stream().map(CommentGetDTO::getId).collect(Collectors.toList()))
+                .containsExactly(this.COMMENT_ID_3, this.COMMENT_ID_2, this.COMMENT_ID_1);
         softAssertions
-                .assertThat(comments.stream().map(Comment::getComment).collect(Collectors.toList()))
+                .assertThat(
+                        comments.stream()
+                                .map(CommentGetDTO::getComment)
+                                .collect(Collectors.toList()))
                 .containsOnly(
                         this.COMMENT_CONTENT_1, this.COMMENT_CONTENT_2, this.COMMENT_CONTENT_3);
         softAssertions
                 .assertThat(
-                        comments.get(0).getCommentDate().before(comments.get(1).getCommentDate()))
+                        comments.get(0).getCommentDate().after(comments.get(1).getCommentDate()))
                 .isEqualTo(true);
         softAssertions
                 .assertThat(
-                        comments.get(1).getCommentDate().before(comments.get(2).getCommentDate()))
+                        comments.get(1).getCommentDate().after(comments.get(2).getCommentDate()))
                 .isEqualTo(true);
         softAssertions.assertAll();
     }
@@ -281,6 +305,146 @@ public class CommentOnPostTest extends CommonTestBase {
         assertEquals(HttpStatus.BAD_REQUEST, response2.getStatusCode());
     }
 
+    @Test
+    public void testDoubleCommentCountedOnce() {
+        final CommentCreateDTO commentCreateDTO =
+                new CommentCreateDTO(this.COMMENT_ID_1, this.COMMENT_CONTENT_1);
+        final URI apiEndpoint = this.buildCommentUri(this.PUBLIC_POST_ID);
+        final String token = AuthHelper.createAuthToken(this.USER_ID, this.JWT_SECRET);
+
+        assertEquals(
+                HttpStatus.CREATED,
+                this.sendCommentRequest(apiEndpoint, commentCreateDTO, token).getStatusCode());
+        assertEquals(
+                HttpStatus.BAD_REQUEST,
+                this.sendCommentRequest(apiEndpoint, commentCreateDTO, token).getStatusCode());
+
+        final Post publicPost = this.postRepository.findById(this.PUBLIC_POST_ID).get();
+        assertEquals(1, publicPost.getCommentsCount());
+        assertEquals(
+                List.of(this.COMMENT_ID_1),
+                publicPost.getLatestComments().stream()
+                        .map(Comment::getId)
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testRetriedCommentRepairsPost() {
+        this.commentRepository.save(
+                new Comment(
+                        this.COMMENT_ID_1,
+                        this.PUBLIC_POST_ID,
+                        new UserInfo(this.USER_ID, "userName", "userAvatar"),
+                        this.COMMENT_CONTENT_1));
+
+        final ResponseEntity<Void> response =
+                this.sendCommentRequest(
+                        this.buildCommentUri(this.PUBLIC_POST_ID),
+                        new CommentCreateDTO(this.COMMENT_ID_1, this.COMMENT_CONTENT_1),
+                        AuthHelper.createAuthToken(this.USER_ID, this.JWT_SECRET));
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+
+        final Post publicPost = this.postRepository.findById(this.PUBLIC_POST_ID).get();
+        assertEquals(1, publicPost.getCommentsCount());
+        assertEquals(
+                List.of(this.COMMENT_ID_1),
+                publicPost.getLatestComments().stream()
+                        .map(Comment::getId)
+                        .collect(Collectors.toList()));
+    }
+
+    @Test(expected = OptimisticLockingFailureException.class)
+    public void testStalePostSaveConflictsWithCommentAppend() {
+        final Post stalePost = this.postRepository.findById(this.PUBLIC_POST_ID).get();
+        final ResponseEntity<Void> response =
+                this.sendCommentRequest(
+                        this.buildCommentUri(this.PUBLIC_POST_ID),
+                        new CommentCreateDTO(this.COMMENT_ID_1, this.COMMENT_CONTENT_1),
+                        AuthHelper.createAuthToken(this.USER_ID, this.JWT_SECRET));
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+
+        stalePost.setDescription("Stale description");
+        this.postRepository.save(stalePost);
+    }
+
+    @Test
+    public void testConcurrentCommentsRetriedOnConflict() throws Exception {
+        final URI apiEndpoint = this.buildCommentUri(this.PUBLIC_POST_ID);
+        final String token = AuthHelper.createAuthToken(this.USER_ID, this.JWT_SECRET);
+        final List<CommentCreateDTO> commentCreateDTOs =
+                List.of(
+                        new CommentCreateDTO(this.COMMENT_ID_1, this.COMMENT_CONTENT_1),
+                        new CommentCreateDTO(this.COMMENT_ID_2, this.COMMENT_CONTENT_2),
+                        new CommentCreateDTO(this.COMMENT_ID_3, this.COMMENT_CONTENT_3));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(commentCreateDTOs.size());
+        try {
+            final List<Future<ResponseEntity<Void>>> responses = new ArrayList<>();
+            for (final CommentCreateDTO commentCreateDTO : commentCreateDTOs) {
+                responses.add(
+                        executor.submit(
+                                () ->
+                                        this.sendCommentRequest(
+                                                apiEndpoint, commentCreateDTO, token)));
+            }
+            for (final Future<ResponseEntity<Void>> response : responses) {
+                assertEquals(HttpStatus.CREATED, response.get().getStatusCode());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        final Post publicPost = this.postRepository.findById(this.PUBLIC_POST_ID).get();
+        assertEquals(3, publicPost.getCommentsCount());
+        assertEquals(3, publicPost.getLatestComments().size());
+    }
+
+    @Test
+    public void testCommentConflictsCountedInWriteMetrics() throws Exception {
+        final URI apiEndpoint = this.buildCommentUri(this.PUBLIC_POST_ID);
+        final String token = AuthHelper.createAuthToken(this.USER_ID, this.JWT_SECRET);
+        final Counter conflicts =
+                this.meterRegistry.counter(
+                        PostWriteMetrics.CONFLICTS_METRIC, PostWriteMetrics.ENDPOINT_TAG, "comments");
+        final Counter retries =
+                this.meterRegistry.counter(
+                        PostWriteMetrics.RETRIES_METRIC, PostWriteMetrics.ENDPOINT_TAG, "comments");
+        final double conflictsBefore = conflicts.count();
+        final double retriesBefore = retries.count();
+
+        final Object retryOnConflict =
+                ReflectionTestUtils.getField(this.commentService, "retryOnConflict");
+        ReflectionTestUtils.setField(this.commentService, "retryOnConflict", 0);
+        final ExecutorService executor = Executors.newFixedThreadPool(this.CONCURRENT_COMMENTERS);
+        try {
+            for (int round = 0;
+                    round < this.MAX_CONFLICT_ROUNDS && conflicts.count() == conflictsBefore;
+                    round++) {
+                final List<Future<ResponseEntity<Void>>> responses = new ArrayList<>();
+                for (int i = 0; i < this.CONCURRENT_COMMENTERS; i++) {
+                    final CommentCreateDTO commentCreateDTO =
+                            new CommentCreateDTO(
+                                    UUID.randomUUID().toString(), this.COMMENT_CONTENT_1);
+                    responses.add(
+                            executor.submit(
+                                    () ->
+                                            this.sendCommentRequest(
+                                                    apiEndpoint, commentCreateDTO, token)));
+                }
+                for (final Future<ResponseEntity<Void>> response : responses) {
+                    response.get();
+                }
+            }
+        } finally {
+            executor.shutdown();
+            ReflectionTestUtils.setField(
+                    this.commentService, "retryOnConflict", retryOnConflict);
+        }
+
+        assertTrue(conflicts.count() > conflictsBefore);
+        assertTrue(retries.count() > retriesBefore);
+    }
+
     @Test
     public void testCommentOnPrivateFollowedPost() {
         final CommentCreateDTO commentCreateDTO =
@@ -296,14 +460,19 @@ public class CommentOnPostTest extends CommonTestBase {
         final Optional<Post> publicPost =
                 this.postRepository.findById(this.PRIVATE_FOLLOWED_POST_ID);
         assertTrue(publicPost.isPresent());
+        assertEquals(1, publicPost.get().getCommentsCount());
 
-        final List<Comment> comments = publicPost.get().getComments();
+        final List<CommentGetDTO> comments = this.getComments(this.PRIVATE_FOLLOWED_POST_ID);
         final SoftAssertions softAssertions = new SoftAssertions();
         softAssertions
-                .assertThat(comments.stream().map(Comment::getId).collect(Collectors.toList()))
+                .assertThat(
+                        comments.stream().map(CommentGetDTO::getId).collect(Collectors.toList()))
                 .containsOnly(this.COMMENT_ID_1);
         softAssertions
-                .assertThat(comments.stream().map(Comment::getComment).collect(Collectors.toList()))
+                .assertThat(
+                        comments.stream()
+                                .map(CommentGetDTO::getComment)
+                                .collect(Collectors.toList()))
                 .containsOnly(this.COMMENT_CONTENT_1);
         softAssertions.assertAll();
     }
@@ -329,6 +498,32 @@ public class CommentOnPostTest extends CommonTestBase {
         return builder.build().encode().toUri();
     }
 
+    private List<CommentGetDTO> getComments(final String postId) {
+        final URI apiEndpoint =
+                UriComponentsBuilder.fromHttpUrl(
+                                String.format(
+                                        "http://localhost:%d/api/v1/posts/%s/comments",
+                                        this.port,
+                                        postId))
+                        .build()
+                        .encode()
+                        .toUri();
+        final HttpHeaders headers = new HttpHeaders();
+        headers.set(
+                "Authorization",
+                String.format(
+                        "Bearer %s", AuthHelper.createAuthToken(this.USER_ID, this.JWT_SECRET)));
+        final ResponseEntity<CursorPageDTO<CommentGetDTO>> response =
+                this.testRestTemplate.exchange(
+                        apiEndpoint,
+                        HttpMethod.GET,
+                        new HttpEntity<>(null, headers),
+                        new ParameterizedTypeReference<>() {});
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        return response.getBody().getContent();
+    }
+
     private ResponseEntity<Void> sendCommentRequest(
             final URI apiEndpoint, final CommentCreateDTO requestBody) {
         final HttpEntity<CommentCreateDTO> entity = new HttpEntity<>(requestBody);
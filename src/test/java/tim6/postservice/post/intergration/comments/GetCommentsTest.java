@@ -0,0 +1,216 @@
+package tim6.postservice.post.intergration.comments;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static tim6.postservice.helpers.AuthHelper.createAuthToken;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.util.UriComponentsBuilder;
+import tim6.postservice.adapter.http.dto.CommentGetDTO;
+import tim6.postservice.adapter.http.dto.CursorPageDTO;
+import tim6.postservice.adapter.http.dto.PostGetDTO;
+import tim6.postservice.common.CommonTestBase;
+import tim6.postservice.domain.models.Comment;
+import tim6.postservice.domain.models.Post;
+import tim6.postservice.domain.models.User;
+import tim6.postservice.domain.models.UserInfo;
+import tim6.postservice.domain.repositories.CommentRepository;
+import tim6.postservice.domain.repositories.PostRepository;
+import tim6.postservice.domain.repositories.UserRepository;
+import tim6.postservice.domain.services.CommentService;
+
+public class GetCommentsTest extends CommonTestBase {
+
+    private final String USER_ID = UUID.randomUUID().toString();
+    private final String PUBLIC_POSTER_ID = UUID.randomUUID().toString();
+    private final String PRIVATE_NOT_FOLLOWED_POSTER_ID = UUID.randomUUID().toString();
+
+    private final String PUBLIC_POST_ID = UUID.randomUUID().toString();
+    private final String PRIVATE_NOT_FOLLOWED_POST_ID = UUID.randomUUID().toString();
+
+    private final int COMMENTS_COUNT = CommentService.MAX_COMMENTS_PER_PAGE + 5;
+
+    private final String IMAGE_URL = "testImage.jpg";
+    private final String DESCRIPTION = "Proper description";
+    private final Set<String> TAGS = Set.of("tag1", "tag2", "tag3");
+    private final Set<UserInfo> USER_TAGS = new HashSet<>();
+
+    private final List<String> newestFirstCommentIds = new ArrayList<>();
+
+    @Value("${jwt.secret}")
+    private String JWT_SECRET;
+
+    @Autowired private PostRepository postRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private CommentRepository commentRepository;
+    @Autowired private TestRestTemplate testRestTemplate;
+    @LocalServerPort private int port;
+
+    @Before
+    public void initializeData() {
+        this.userRepository.save(
+                new User(this.PUBLIC_POSTER_ID, "publicPosterName", "posterAvatar", true));
+        this.userRepository.save(
+                new User(
+                        this.PRIVATE_NOT_FOLLOWED_POSTER_ID,
+                        "privatePosterName",
+                        "posterAvatar",
+                        false));
+        this.userRepository.save(new User(this.USER_ID, "userName", "userAvatar", true));
+
+        final Post publicPost = this.createPost(this.PUBLIC_POST_ID, this.PUBLIC_POSTER_ID);
+        publicPost.setCommentsCount(this.COMMENTS_COUNT);
+        this.postRepository.save(publicPost);
+        this.postRepository.save(
+                this.createPost(
+                        this.PRIVATE_NOT_FOLLOWED_POST_ID, this.PRIVATE_NOT_FOLLOWED_POSTER_ID));
+
+        final long now = System.currentTimeMillis();
+        final List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < this.COMMENTS_COUNT; i++) {
+            final Comment comment =
+                    new Comment(
+                            UUID.randomUUID().toString(),
+                            this.PUBLIC_POST_ID,
+                            new UserInfo(this.USER_ID, "userName", "userAvatar"),
+                            "Comment " + i);
+            comment.setCommentDate(new Date(now - i * 1000L));
+            comments.add(comment);
+            this.newestFirstCommentIds.add(comment.getId());
+        }
+        this.commentRepository.saveAll(comments);
+    }
+
+    @After
+    public void cleanUpData() {
+        this.userRepository.deleteAll();
+        this.postRepository.deleteAll();
+        this.commentRepository.deleteAll();
+    }
+
+    private Post createPost(final String postId, final String posterId) {
+        return new Post(
+                postId,
+                this.IMAGE_URL,
+                this.DESCRIPTION,
+                new UserInfo(posterId, "userName", "userAvatar"),
+                new Date(),
+                this.TAGS,
+                this.USER_TAGS);
+    }
+
+    @Test
+    public void testGetCommentsPaginated() {
+        final String token = createAuthToken(this.USER_ID, this.JWT_SECRET);
+        final ResponseEntity<CursorPageDTO<CommentGetDTO>> firstPage =
+                this.sendGetCommentsRequest(
+                        this.buildCommentsUri(this.PUBLIC_POST_ID, null), token);
+        assertEquals(HttpStatus.OK, firstPage.getStatusCode());
+        assertNotNull(firstPage.getBody());
+        assertNotNull(firstPage.getBody().getNextCursor());
+
+        final ResponseEntity<CursorPageDTO<CommentGetDTO>> secondPage =
+                this.sendGetCommentsRequest(
+                        this.buildCommentsUri(
+                                this.PUBLIC_POST_ID, firstPage.getBody().getNextCursor()),
+                        token);
+        assertEquals(HttpStatus.OK, secondPage.getStatusCode());
+        assertNotNull(secondPage.getBody());
+        assertNull(secondPage.getBody().getNextCursor());
+
+        final List<String> seenCommentIds = new ArrayList<>();
+        firstPage.getBody().getContent().forEach(comment -> seenCommentIds.add(comment.getId()));
+        secondPage.getBody().getContent().forEach(comment -> seenCommentIds.add(comment.getId()));
+        assertEquals(this.newestFirstCommentIds, seenCommentIds);
+    }
+
+    @Test
+    public void testGetCommentsInvalidCursor() {
+        final ResponseEntity<CursorPageDTO<CommentGetDTO>> response =
+                this.sendGetCommentsRequest(
+                        this.buildCommentsUri(this.PUBLIC_POST_ID, "not a cursor"),
+                        createAuthToken(this.USER_ID, this.JWT_SECRET));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    public void testGetCommentsOfPrivateNotFollowedPost() {
+        final ResponseEntity<CursorPageDTO<CommentGetDTO>> response =
+                this.sendGetCommentsRequest(
+                        this.buildCommentsUri(this.PRIVATE_NOT_FOLLOWED_POST_ID, null),
+                        createAuthToken(this.USER_ID, this.JWT_SECRET));
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+    }
+
+    @Test
+    public void testPostDetailContainsLatestComments() {
+        final URI apiEndpoint =
+                UriComponentsBuilder.fromHttpUrl(
+                                String.format(
+                                        "http://localhost:%d/api/v1/posts/%s",
+                                        this.port,
+                                        this.PUBLIC_POST_ID))
+                        .build()
+                        .encode()
+                        .toUri();
+        final ResponseEntity<PostGetDTO> response =
+                this.testRestTemplate.exchange(
+                        apiEndpoint,
+                        HttpMethod.GET,
+                        new HttpEntity<>(null, new HttpHeaders()),
+                        PostGetDTO.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(this.COMMENTS_COUNT, response.getBody().getComments_count());
+        assertEquals(
+                this.newestFirstCommentIds.subList(0, CommentService.LATEST_COMMENTS_IN_DETAIL),
+                response.getBody().getComments().stream()
+                        .map(CommentGetDTO::getId)
+                        .collect(Collectors.toList()));
+    }
+
+    private URI buildCommentsUri(final String postId, final String cursor) {
+        final UriComponentsBuilder builder =
+                UriComponentsBuilder.fromHttpUrl(
+                        String.format(
+                                "http://localhost:%d/api/v1/posts/%s/comments", this.port, postId));
+        if (cursor != null) {
+            builder.queryParam("cursor", cursor);
+        }
+        return builder.build().encode().toUri();
+    }
+
+    private ResponseEntity<CursorPageDTO<CommentGetDTO>> sendGetCommentsRequest(
+            final URI apiEndpoint, final String token) {
+        final HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", String.format("Bearer %s", token));
+        final HttpEntity<Void> entity = new HttpEntity<>(null, headers);
+
+        return this.testRestTemplate.exchange(
+                apiEndpoint, HttpMethod.GET, entity, new ParameterizedTypeReference<>() {});
+    }
+}
@@ -184,9 +184,9 @@ public class CreatePostTest extends CommonTestBase {
         softly.assertThat(response.getBody().getTags()).isEqualTo(this.TAGS);
         softly.assertThat(response.getBody().getUserTags()).isEqualTo(this.TAGGED_USERS_DTOS);
         softly.assertThat(response.getBody().getComments().size()).isEqualTo(0);
-        softly.assertThat(response.getBody().getLikes().size()).isEqualTo(0);
-        softly.assertThat(response.getBody().getDislikes().size()).isEqualTo(0);
-        softly.assertThat(response.getBody().getFavorites().size()).isEqualTo(0);
+        softly.assertThat(response.getBody().getLikes_count()).isEqualTo(0);
+        softly.assertThat(response.getBody().getDislikes_count()).isEqualTo(0);
+        softly.assertThat(response.getBody().getFavorites_count()).isEqualTo(0);
         softly.assertAll();
     }
 }
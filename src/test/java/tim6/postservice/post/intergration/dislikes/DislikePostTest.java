@@ -28,9 +28,12 @@ import org.springframework.web.util.UriComponentsBuilder;
 import tim6.postservice.adapter.http.dto.PostGetDTO;
 import tim6.postservice.common.CommonTestBase;
 import tim6.postservice.domain.models.Post;
+import tim6.postservice.domain.models.Reaction;
+import tim6.postservice.domain.models.ReactionType;
 import tim6.postservice.domain.models.User;
 import tim6.postservice.domain.models.UserInfo;
 import tim6.postservice.domain.repositories.PostRepository;
+import tim6.postservice.domain.repositories.ReactionRepository;
 import tim6.postservice.domain.repositories.UserRepository;
 
 public class DislikePostTest extends CommonTestBase {
@@ -50,14 +53,13 @@ public class DislikePostTest extends CommonTestBase {
     private final String DESCRIPTION = "Proper description";
     private final Set<String> TAGS = Set.of("tag1", "tag2", "tag3");
     private final Set<UserInfo> USER_TAGS = new HashSet<>();
-    private final Set<String> PREVIOUS_DISLIKES = Set.of(this.USER_ID);
-    private final Set<String> PREVIOUS_LIKES = Set.of(this.USER_ID);
 
     @Value("${jwt.secret}")
     private String JWT_SECRET;
 
     @Autowired private PostRepository postRepository;
     @Autowired private UserRepository userRepository;
+    @Autowired private ReactionRepository reactionRepository;
     @Autowired private TestRestTemplate testRestTemplate;
     @LocalServerPort private int port;
 
@@ -71,6 +73,7 @@ public class DislikePostTest extends CommonTestBase {
     public void cleanUpData() {
         this.userRepository.deleteAll();
         this.postRepository.deleteAll();
+        this.reactionRepository.deleteAll();
     }
 
     private void initializeUsers() {
@@ -121,11 +124,7 @@ public class DislikePostTest extends CommonTestBase {
                         new UserInfo(this.PUBLIC_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
         postsToSave.add(publicPost);
 
         final Post previouslyDislikedPost =
@@ -136,11 +135,10 @@ public class DislikePostTest extends CommonTestBase {
                         new UserInfo(this.PUBLIC_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        this.PREVIOUS_DISLIKES,
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
+        previouslyDislikedPost.setDislikesCount(1);
+        this.reactionRepository.save(
+                new Reaction(this.PREVIOUSLY_DISLIKED_POST_ID, this.USER_ID, ReactionType.DISLIKE));
         postsToSave.add(previouslyDislikedPost);
 
         final Post previouslyLikedPost =
@@ -151,11 +149,10 @@ public class DislikePostTest extends CommonTestBase {
                         new UserInfo(this.PUBLIC_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        this.PREVIOUS_LIKES,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
+        previouslyLikedPost.setLikesCount(1);
+        this.reactionRepository.save(
+                new Reaction(this.PREVIOUSLY_LIKED_POST_ID, this.USER_ID, ReactionType.LIKE));
         postsToSave.add(previouslyLikedPost);
 
         final Post privatePostByFollowedPoster =
@@ -166,11 +163,7 @@ public class DislikePostTest extends CommonTestBase {
                         new UserInfo(this.PRIVATE_FOLLOWED_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
         postsToSave.add(privatePostByFollowedPoster);
 
         final Post privatePostByNotFollowedPoster =
@@ -181,11 +174,7 @@ public class DislikePostTest extends CommonTestBase {
                         new UserInfo(this.PRIVATE_NOT_FOLLOWED_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
         postsToSave.add(privatePostByNotFollowedPoster);
 
         this.postRepository.saveAll(postsToSave);
@@ -204,8 +193,10 @@ public class DislikePostTest extends CommonTestBase {
 
         assertEquals(HttpStatus.OK, getPostResponse.getStatusCode());
         assertNotNull(getPostResponse.getBody());
-        assertEquals(1, getPostResponse.getBody().getDislikes().size());
-        assertTrue(getPostResponse.getBody().getDislikes().contains(this.USER_ID));
+        assertEquals(1, getPostResponse.getBody().getDislikes_count());
+        assertTrue(
+                this.reactionRepository.existsById(
+                        Reaction.idOf(this.PUBLIC_POST_ID, this.USER_ID, ReactionType.DISLIKE)));
     }
 
     @Test
@@ -221,9 +212,14 @@ public class DislikePostTest extends CommonTestBase {
 
         assertEquals(HttpStatus.OK, getPostResponse.getStatusCode());
         assertNotNull(getPostResponse.getBody());
-        assertEquals(0, getPostResponse.getBody().getLikes().size());
-        assertEquals(1, getPostResponse.getBody().getDislikes().size());
-        assertTrue(getPostResponse.getBody().getDislikes().contains(this.USER_ID));
+        assertEquals(0, getPostResponse.getBody().getLikes_count());
+        assertEquals(1, getPostResponse.getBody().getDislikes_count());
+        assertTrue(
+                this.reactionRepository.existsById(
+                        Reaction.idOf(
+                                this.PREVIOUSLY_LIKED_POST_ID,
+                                this.USER_ID,
+                                ReactionType.DISLIKE)));
     }
 
     @Test
@@ -239,8 +235,13 @@ public class DislikePostTest extends CommonTestBase {
 
         assertEquals(HttpStatus.OK, getPostResponse.getStatusCode());
         assertNotNull(getPostResponse.getBody());
-        assertEquals(1, getPostResponse.getBody().getDislikes().size());
-        assertTrue(getPostResponse.getBody().getDislikes().contains(this.USER_ID));
+        assertEquals(1, getPostResponse.getBody().getDislikes_count());
+        assertTrue(
+                this.reactionRepository.existsById(
+                        Reaction.idOf(
+                                this.PREVIOUSLY_DISLIKED_POST_ID,
+                                this.USER_ID,
+                                ReactionType.DISLIKE)));
     }
 
     @Test
@@ -258,8 +259,13 @@ public class DislikePostTest extends CommonTestBase {
 
         assertEquals(HttpStatus.OK, getPostResponse.getStatusCode());
         assertNotNull(getPostResponse.getBody());
-        assertEquals(1, getPostResponse.getBody().getDislikes().size());
-        assertTrue(getPostResponse.getBody().getDislikes().contains(this.USER_ID));
+        assertEquals(1, getPostResponse.getBody().getDislikes_count());
+        assertTrue(
+                this.reactionRepository.existsById(
+                        Reaction.idOf(
+                                this.PRIVATE_FOLLOWED_POST_ID,
+                                this.USER_ID,
+                                ReactionType.DISLIKE)));
     }
 
     @Test
@@ -27,9 +27,12 @@ import org.springframework.web.util.UriComponentsBuilder;
 import tim6.postservice.adapter.http.dto.PostGetDTO;
 import tim6.postservice.common.CommonTestBase;
 import tim6.postservice.domain.models.Post;
+import tim6.postservice.domain.models.Reaction;
+import tim6.postservice.domain.models.ReactionType;
 import tim6.postservice.domain.models.User;
 import tim6.postservice.domain.models.UserInfo;
 import tim6.postservice.domain.repositories.PostRepository;
+import tim6.postservice.domain.repositories.ReactionRepository;
 import tim6.postservice.domain.repositories.UserRepository;
 
 public class RemovePostDislikeTest extends CommonTestBase {
@@ -48,13 +51,13 @@ public class RemovePostDislikeTest extends CommonTestBase {
     private final String DESCRIPTION = "Proper description";
     private final Set<String> TAGS = Set.of("tag1", "tag2", "tag3");
     private final Set<UserInfo> USER_TAGS = new HashSet<>();
-    private final Set<String> PREVIOUS_DISLIKES = Set.of(this.USER_ID);
 
     @Value("${jwt.secret}")
     private String JWT_SECRET;
 
     @Autowired private PostRepository postRepository;
     @Autowired private UserRepository userRepository;
+    @Autowired private ReactionRepository reactionRepository;
     @Autowired private TestRestTemplate testRestTemplate;
     @LocalServerPort private int port;
 
@@ -68,6 +71,7 @@ public class RemovePostDislikeTest extends CommonTestBase {
     public void cleanUpData() {
         this.userRepository.deleteAll();
         this.postRepository.deleteAll();
+        this.reactionRepository.deleteAll();
     }
 
     private void initializeUsers() {
@@ -118,11 +122,10 @@ public class RemovePostDislikeTest extends CommonTestBase {
                         new UserInfo(this.PUBLIC_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        this.PREVIOUS_DISLIKES,
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
+        publicPost.setDislikesCount(1);
+        this.reactionRepository.save(
+                new Reaction(this.PUBLIC_POST_ID, this.USER_ID, ReactionType.DISLIKE));
         postsToSave.add(publicPost);
 
         final Post privatePostByFollowedPoster =
@@ -133,11 +136,10 @@ public class RemovePostDislikeTest extends CommonTestBase {
                         new UserInfo(this.PRIVATE_FOLLOWED_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        this.PREVIOUS_DISLIKES,
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
+        privatePostByFollowedPoster.setDislikesCount(1);
+        this.reactionRepository.save(
+                new Reaction(this.PRIVATE_FOLLOWED_POST_ID, this.USER_ID, ReactionType.DISLIKE));
         postsToSave.add(privatePostByFollowedPoster);
 
         final Post privatePostByNotFollowedPoster =
@@ -148,11 +150,13 @@ public class RemovePostDislikeTest extends CommonTestBase {
                         new UserInfo(this.PRIVATE_NOT_FOLLOWED_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        this.PREVIOUS_DISLIKES,
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
+        privatePostByNotFollowedPoster.setDislikesCount(1);
+        this.reactionRepository.save(
+                new Reaction(
+                        this.PRIVATE_NOT_FOLLOWED_POST_ID,
+                        this.USER_ID,
+                        ReactionType.DISLIKE));
         postsToSave.add(privatePostByNotFollowedPoster);
 
         final Post notPreviouslyDislikedPost =
@@ -163,11 +167,7 @@ public class RemovePostDislikeTest extends CommonTestBase {
                         new UserInfo(this.PUBLIC_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
         postsToSave.add(notPreviouslyDislikedPost);
 
         this.postRepository.saveAll(postsToSave);
@@ -186,7 +186,7 @@ public class RemovePostDislikeTest extends CommonTestBase {
 
         assertEquals(HttpStatus.OK, getPostResponse.getStatusCode());
         assertNotNull(getPostResponse.getBody());
-        assertEquals(0, getPostResponse.getBody().getDislikes().size());
+        assertEquals(0, getPostResponse.getBody().getDislikes_count());
     }
 
     @Test
@@ -205,7 +205,7 @@ public class RemovePostDislikeTest extends CommonTestBase {
 
         assertEquals(HttpStatus.OK, getPostResponse.getStatusCode());
         assertNotNull(getPostResponse.getBody());
-        assertEquals(0, getPostResponse.getBody().getDislikes().size());
+        assertEquals(0, getPostResponse.getBody().getDislikes_count());
     }
 
     @Test
@@ -224,7 +224,7 @@ public class RemovePostDislikeTest extends CommonTestBase {
 
         assertEquals(HttpStatus.OK, getPostResponse.getStatusCode());
         assertNotNull(getPostResponse.getBody());
-        assertEquals(0, getPostResponse.getBody().getDislikes().size());
+        assertEquals(0, getPostResponse.getBody().getDislikes_count());
     }
 
     @Test
@@ -6,7 +6,6 @@ import static org.junit.Assert.assertTrue;
 import static tim6.postservice.helpers.AuthHelper.createAuthToken;
 
 import java.net.URI;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Set;
@@ -27,9 +26,12 @@ import org.springframework.web.util.UriComponentsBuilder;
 import tim6.postservice.adapter.http.dto.PostGetDTO;
 import tim6.postservice.common.CommonTestBase;
 import tim6.postservice.domain.models.Post;
+import tim6.postservice.domain.models.Reaction;
+import tim6.postservice.domain.models.ReactionType;
 import tim6.postservice.domain.models.User;
 import tim6.postservice.domain.models.UserInfo;
 import tim6.postservice.domain.repositories.PostRepository;
+import tim6.postservice.domain.repositories.ReactionRepository;
 import tim6.postservice.domain.repositories.UserRepository;
 
 public class FavoritePostTest extends CommonTestBase {
@@ -53,6 +55,7 @@ public class FavoritePostTest extends CommonTestBase {
 
     @Autowired private PostRepository postRepository;
     @Autowired private UserRepository userRepository;
+    @Autowired private ReactionRepository reactionRepository;
     @Autowired private TestRestTemplate testRestTemplate;
     @LocalServerPort private int port;
 
@@ -66,6 +69,7 @@ public class FavoritePostTest extends CommonTestBase {
     public void cleanUpData() {
         this.userRepository.deleteAll();
         this.postRepository.deleteAll();
+        this.reactionRepository.deleteAll();
     }
 
     private void initializeUsers() {
@@ -110,11 +114,7 @@ public class FavoritePostTest extends CommonTestBase {
                         new UserInfo(this.PUBLIC_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
         this.postRepository.save(publicPost);
 
         final Post privatePostByFollowedPoster =
@@ -125,11 +125,7 @@ public class FavoritePostTest extends CommonTestBase {
                         new UserInfo(this.PRIVATE_FOLLOWED_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
         this.postRepository.save(privatePostByFollowedPoster);
 
         final Post privatePostByNotFollowedPoster =
@@ -140,11 +136,7 @@ public class FavoritePostTest extends CommonTestBase {
                         new UserInfo(this.PRIVATE_NOT_FOLLOWED_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
         this.postRepository.save(privatePostByNotFollowedPoster);
     }
 
@@ -161,8 +153,10 @@ public class FavoritePostTest extends CommonTestBase {
 
         assertEquals(HttpStatus.OK, getPostResponse.getStatusCode());
         assertNotNull(getPostResponse.getBody());
-        assertEquals(1, getPostResponse.getBody().getFavorites().size());
-        assertTrue(getPostResponse.getBody().getFavorites().contains(this.USER_ID));
+        assertEquals(1, getPostResponse.getBody().getFavorites_count());
+        assertTrue(
+                this.reactionRepository.existsById(
+                        Reaction.idOf(this.PUBLIC_POST_ID, this.USER_ID, ReactionType.FAVORITE)));
     }
 
     @Test
@@ -180,8 +174,13 @@ public class FavoritePostTest extends CommonTestBase {
 
         assertEquals(HttpStatus.OK, getPostResponse.getStatusCode());
         assertNotNull(getPostResponse.getBody());
-        assertEquals(1, getPostResponse.getBody().getFavorites().size());
-        assertTrue(getPostResponse.getBody().getFavorites().contains(this.USER_ID));
+        assertEquals(1, getPostResponse.getBody().getFavorites_count());
+        assertTrue(
+                this.reactionRepository.existsById(
+                        Reaction.idOf(
+                                this.PRIVATE_FOLLOWED_POST_ID,
+                                this.USER_ID,
+                                ReactionType.FAVORITE)));
     }
 
     @Test
@@ -0,0 +1,214 @@
+package tim6.postservice.post.intergration.favorites;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static tim6.postservice.helpers.AuthHelper.createAuthToken;
+
+import java.net.URI;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.util.UriComponentsBuilder;
+import tim6.postservice.adapter.http.dto.CursorPageDTO;
+import tim6.postservice.adapter.http.dto.PostOverviewDTO;
+import tim6.postservice.common.CommonTestBase;
+import tim6.postservice.domain.models.Post;
+import tim6.postservice.domain.models.Reaction;
+import tim6.postservice.domain.models.ReactionType;
+import tim6.postservice.domain.models.User;
+import tim6.postservice.domain.models.UserInfo;
+import tim6.postservice.domain.repositories.PostRepository;
+import tim6.postservice.domain.repositories.ReactionRepository;
+import tim6.postservice.domain.repositories.UserRepository;
+
+public class GetFavoritesTest extends CommonTestBase {
+
+    private final String USER_ID = UUID.randomUUID().toString();
+    private final String OTHER_USER_ID = UUID.randomUUID().toString();
+    private final String PUBLIC_POSTER_ID = UUID.randomUUID().toString();
+    private final String PRIVATE_NOT_FOLLOWED_POSTER_ID = UUID.randomUUID().toString();
+    private final String PRIVATE_FOLLOWED_POSTER_ID = UUID.randomUUID().toString();
+
+    private final String PUBLIC_POST_ID = UUID.randomUUID().toString();
+    private final String NOT_FAVORITED_POST_ID = UUID.randomUUID().toString();
+    private final String PRIVATE_FOLLOWED_POST_ID = UUID.randomUUID().toString();
+    private final String PRIVATE_NOT_FOLLOWED_POST_ID = UUID.randomUUID().toString();
+
+    private final String IMAGE_URL = "testImage.jpg";
+    private final String DESCRIPTION = "Proper description";
+    private final Set<String> TAGS = Set.of("tag1", "tag2", "tag3");
+    private final Set<UserInfo> USER_TAGS = new HashSet<>();
+
+    @Value("${jwt.secret}")
+    private String JWT_SECRET;
+
+    @Autowired private PostRepository postRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ReactionRepository reactionRepository;
+    @Autowired private TestRestTemplate testRestTemplate;
+    @LocalServerPort private int port;
+
+    @Before
+    public void initializeData() {
+        this.initializeUsers();
+        this.initializePosts();
+        this.initializeFavorites();
+    }
+
+    @After
+    public void cleanUpData() {
+        this.userRepository.deleteAll();
+        this.postRepository.deleteAll();
+        this.reactionRepository.deleteAll();
+    }
+
+    private void initializeUsers() {
+        final User publicPoster =
+                new User(this.PUBLIC_POSTER_ID, "publicPosterName", "posterAvatar", true);
+        this.userRepository.save(publicPoster);
+
+        final User privatePosterNotFollowedByUser =
+                new User(
+                        this.PRIVATE_NOT_FOLLOWED_POSTER_ID,
+                        "privatePosterName",
+                        "posterAvatar",
+                        false);
+        this.userRepository.save(privatePosterNotFollowedByUser);
+
+        final User privatePosterFollowedByUser =
+                new User(
+                        this.PRIVATE_FOLLOWED_POSTER_ID,
+                        "privatePosterName",
+                        "posterAvatar",
+                        false);
+        this.userRepository.save(privatePosterFollowedByUser);
+
+        final User user =
+                new User(
+                        this.USER_ID,
+                        "userName",
+                        "userAvatar",
+                        true,
+                        Set.of(this.PRIVATE_FOLLOWED_POSTER_ID),
+                        new HashSet<>(),
+                        new HashSet<>());
+        this.userRepository.save(user);
+    }
+
+    private void initializePosts() {
+        this.postRepository.save(this.createPost(this.PUBLIC_POST_ID, this.PUBLIC_POSTER_ID));
+        this.postRepository.save(
+                this.createPost(this.NOT_FAVORITED_POST_ID, this.PUBLIC_POSTER_ID));
+        this.postRepository.save(
+                this.createPost(this.PRIVATE_FOLLOWED_POST_ID, this.PRIVATE_FOLLOWED_POSTER_ID));
+        this.postRepository.save(
+                this.createPost(
+                        this.PRIVATE_NOT_FOLLOWED_POST_ID, this.PRIVATE_NOT_FOLLOWED_POSTER_ID));
+    }
+
+    private void initializeFavorites() {
+        final long now = System.currentTimeMillis();
+        this.saveFavorite(this.PUBLIC_POST_ID, this.USER_ID, new Date(now - 3000));
+        this.saveFavorite(this.PRIVATE_FOLLOWED_POST_ID, this.USER_ID, new Date(now - 2000));
+        this.saveFavorite(this.PRIVATE_NOT_FOLLOWED_POST_ID, this.USER_ID, new Date(now - 1000));
+        this.saveFavorite(this.NOT_FAVORITED_POST_ID, this.OTHER_USER_ID, new Date(now));
+    }
+
+    private Post createPost(final String postId, final String posterId) {
+        return new Post(
+                postId,
+                this.IMAGE_URL,
+                this.DESCRIPTION,
+                new UserInfo(posterId, "userName", "userAvatar"),
+                new Date(),
+                this.TAGS,
+                this.USER_TAGS);
+    }
+
+    private void saveFavorite(final String postId, final String userId, final Date reactedAt) {
+        final Reaction favorite = new Reaction(postId, userId, ReactionType.FAVORITE);
+        favorite.setReactedAt(reactedAt);
+        this.reactionRepository.save(favorite);
+    }
+
+    @Test
+    public void testGetFavorites() {
+        final ResponseEntity<CursorPageDTO<PostOverviewDTO>> response =
+                this.sendGetFavoritesRequest(
+                        this.buildGetFavoritesUri(null),
+                        createAuthToken(this.USER_ID, this.JWT_SECRET));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        final List<String> favoritePostIds =
+                response.getBody().getContent().stream()
+                        .map(PostOverviewDTO::getId)
+                        .collect(Collectors.toList());
+        assertEquals(List.of(this.PRIVATE_FOLLOWED_POST_ID, this.PUBLIC_POST_ID), favoritePostIds);
+        assertTrue(
+                response.getBody().getContent().stream()
+                        .allMatch(PostOverviewDTO::isFavoritedByMe));
+        assertFalse(
+                response.getBody().getContent().stream().anyMatch(PostOverviewDTO::isLikedByMe));
+        assertNull(response.getBody().getNextCursor());
+    }
+
+    @Test
+    public void testGetFavoritesInvalidCursor() {
+        final ResponseEntity<CursorPageDTO<PostOverviewDTO>> response =
+                this.sendGetFavoritesRequest(
+                        this.buildGetFavoritesUri("not a cursor"),
+                        createAuthToken(this.USER_ID, this.JWT_SECRET));
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    public void testGetFavoritesNotLoggedIn() {
+        final HttpEntity<Void> entity = new HttpEntity<>(null, new HttpHeaders());
+        final ResponseEntity<Void> response =
+                this.testRestTemplate.exchange(
+                        this.buildGetFavoritesUri(null), HttpMethod.GET, entity, Void.class);
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+    }
+
+    private URI buildGetFavoritesUri(final String cursor) {
+        final UriComponentsBuilder builder =
+                UriComponentsBuilder.fromHttpUrl(
+                        String.format("http://localhost:%d/api/v1/posts/favorites", this.port));
+        if (cursor != null) {
+            builder.queryParam("cursor", cursor);
+        }
+        return builder.build().encode().toUri();
+    }
+
+    private ResponseEntity<CursorPageDTO<PostOverviewDTO>> sendGetFavoritesRequest(
+            final URI apiEndpoint, final String token) {
+        final HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", String.format("Bearer %s", token));
+        final HttpEntity<Void> entity = new HttpEntity<>(null, headers);
+
+        return this.testRestTemplate.exchange(
+                apiEndpoint, HttpMethod.GET, entity, new ParameterizedTypeReference<>() {});
+    }
+}
@@ -5,7 +5,6 @@ import static org.junit.Assert.assertNotNull;
 import static tim6.postservice.helpers.AuthHelper.createAuthToken;
 
 import java.net.URI;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.Set;
@@ -26,9 +25,12 @@ import org.springframework.web.util.UriComponentsBuilder;
 import tim6.postservice.adapter.http.dto.PostGetDTO;
 import tim6.postservice.common.CommonTestBase;
 import tim6.postservice.domain.models.Post;
+import tim6.postservice.domain.models.Reaction;
+import tim6.postservice.domain.models.ReactionType;
 import tim6.postservice.domain.models.User;
 import tim6.postservice.domain.models.UserInfo;
 import tim6.postservice.domain.repositories.PostRepository;
+import tim6.postservice.domain.repositories.ReactionRepository;
 import tim6.postservice.domain.repositories.UserRepository;
 
 public class RemoveFavoritePostTest extends CommonTestBase {
@@ -47,13 +49,13 @@ public class RemoveFavoritePostTest extends CommonTestBase {
     private final String DESCRIPTION = "Proper description";
     private final Set<String> TAGS = Set.of("tag1", "tag2", "tag3");
     private final Set<UserInfo> USER_TAGS = new HashSet<>();
-    private final Set<String> PREVIOUS_FAVORITES = Set.of(this.USER_ID);
 
     @Value("${jwt.secret}")
     private String JWT_SECRET;
 
     @Autowired private PostRepository postRepository;
     @Autowired private UserRepository userRepository;
+    @Autowired private ReactionRepository reactionRepository;
     @Autowired private TestRestTemplate testRestTemplate;
     @LocalServerPort private int port;
 
@@ -67,6 +69,7 @@ public class RemoveFavoritePostTest extends CommonTestBase {
     public void cleanUpData() {
         this.userRepository.deleteAll();
         this.postRepository.deleteAll();
+        this.reactionRepository.deleteAll();
     }
 
     private void initializeUsers() {
@@ -111,11 +114,10 @@ public class RemoveFavoritePostTest extends CommonTestBase {
                         new UserInfo(this.PUBLIC_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        this.PREVIOUS_FAVORITES,
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
+        publicPost.setFavoritesCount(1);
+        this.reactionRepository.save(
+                new Reaction(this.PUBLIC_POST_ID, this.USER_ID, ReactionType.FAVORITE));
         this.postRepository.save(publicPost);
 
         final Post privatePostByFollowedPoster =
@@ -126,11 +128,10 @@ public class RemoveFavoritePostTest extends CommonTestBase {
                         new UserInfo(this.PRIVATE_FOLLOWED_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        this.PREVIOUS_FAVORITES,
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
+        privatePostByFollowedPoster.setFavoritesCount(1);
+        this.reactionRepository.save(
+                new Reaction(this.PRIVATE_FOLLOWED_POST_ID, this.USER_ID, ReactionType.FAVORITE));
         this.postRepository.save(privatePostByFollowedPoster);
 
         final Post privatePostByNotFollowedPoster =
@@ -141,11 +142,13 @@ public class RemoveFavoritePostTest extends CommonTestBase {
                         new UserInfo(this.PRIVATE_NOT_FOLLOWED_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        this.PREVIOUS_FAVORITES,
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
+        privatePostByNotFollowedPoster.setFavoritesCount(1);
+        this.reactionRepository.save(
+                new Reaction(
+                        this.PRIVATE_NOT_FOLLOWED_POST_ID,
+                        this.USER_ID,
+                        ReactionType.FAVORITE));
         this.postRepository.save(privatePostByNotFollowedPoster);
 
         final Post notPreviouslyFavoritedPost =
@@ -156,11 +159,7 @@ public class RemoveFavoritePostTest extends CommonTestBase {
                         new UserInfo(this.PUBLIC_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
         this.postRepository.save(notPreviouslyFavoritedPost);
     }
 
@@ -177,7 +176,7 @@ public class RemoveFavoritePostTest extends CommonTestBase {
 
         assertEquals(HttpStatus.OK, getPostResponse.getStatusCode());
         assertNotNull(getPostResponse.getBody());
-        assertEquals(0, getPostResponse.getBody().getFavorites().size());
+        assertEquals(0, getPostResponse.getBody().getFavorites_count());
     }
 
     @Test
@@ -196,7 +195,7 @@ public class RemoveFavoritePostTest extends CommonTestBase {
 
         assertEquals(HttpStatus.OK, getPostResponse.getStatusCode());
         assertNotNull(getPostResponse.getBody());
-        assertEquals(0, getPostResponse.getBody().getFavorites().size());
+        assertEquals(0, getPostResponse.getBody().getFavorites_count());
     }
 
     @Test
@@ -215,7 +214,7 @@ public class RemoveFavoritePostTest extends CommonTestBase {
 
         assertEquals(HttpStatus.OK, getPostResponse.getStatusCode());
         assertNotNull(getPostResponse.getBody());
-        assertEquals(0, getPostResponse.getBody().getFavorites().size());
+        assertEquals(0, getPostResponse.getBody().getFavorites_count());
     }
 
     @Test
@@ -30,9 +30,12 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.util.UriComponentsBuilder;
-import tim6.postservice.adapter.http.dto.PostGetDTO;
+import tim6.postservice.adapter.http.dto.CursorPageDTO;
+import tim6.postservice.adapter.http.dto.FeedDeltaDTO;
+import tim6.postservice.adapter.http.dto.PostOverviewDTO;
 import tim6.postservice.common.CommonTestBase;
 import tim6.postservice.domain.models.Post;
+import tim6.postservice.domain.models.PostCursor;
 import tim6.postservice.domain.models.User;
 import tim6.postservice.domain.models.UserInfo;
 import tim6.postservice.domain.repositories.PostRepository;
@@ -218,12 +221,13 @@ public class GetFeedTest extends CommonTestBase {
     @Test
     public void testGetFeed() {
         final URI feedURI = this.buildFeedUri();
-        final ResponseEntity<List<PostGetDTO>> response =
+        final ResponseEntity<CursorPageDTO<PostOverviewDTO>> response =
                 this.sendGetPostsFeedRequest(
                         feedURI, createAuthToken(this.USER_ID, this.JWT_SECRET));
         assertEquals(HttpStatus.OK, response.getStatusCode());
 
-        final List<PostGetDTO> postsFromFeed = response.getBody();
+        assertNotNull(response.getBody());
+        final List<PostOverviewDTO> postsFromFeed = response.getBody().getContent();
         assertNotNull(postsFromFeed);
         final SoftAssertions softly = new SoftAssertions();
         softly.assertThat(this.checkIfPostsAreSortedByTimeDescending(postsFromFeed)).isTrue();
@@ -237,6 +241,106 @@ public class GetFeedTest extends CommonTestBase {
         softly.assertAll();
     }
 
+    @Test
+    public void testGetFeedNextPage() {
+        final String token = createAuthToken(this.USER_ID, this.JWT_SECRET);
+        final ResponseEntity<CursorPageDTO<PostOverviewDTO>> firstPageResponse =
+                this.sendGetPostsFeedRequest(this.buildFeedUri(), token);
+        assertEquals(HttpStatus.OK, firstPageResponse.getStatusCode());
+        assertNotNull(firstPageResponse.getBody());
+        assertNotNull(firstPageResponse.getBody().getNextCursor());
+
+        final ResponseEntity<CursorPageDTO<PostOverviewDTO>> secondPageResponse =
+                this.sendGetPostsFeedRequest(
+                        this.buildFeedUri(firstPageResponse.getBody().getNextCursor()), token);
+        assertEquals(HttpStatus.OK, secondPageResponse.getStatusCode());
+        assertNotNull(secondPageResponse.getBody());
+
+        final List<PostOverviewDTO> firstPage = firstPageResponse.getBody().getContent();
+        final List<PostOverviewDTO> secondPage = secondPageResponse.getBody().getContent();
+        final List<PostOverviewDTO> bothPages =
+                Stream.concat(firstPage.stream(), secondPage.stream())
+                        .collect(Collectors.toList());
+        final SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(secondPage).isNotEmpty();
+        softly.assertThat(this.checkIfPostsAreSortedByTimeDescending(bothPages)).isTrue();
+        softly.assertThat(bothPages.stream().map(PostOverviewDTO::getId).distinct().count())
+                .isEqualTo(bothPages.size());
+        softly.assertAll();
+    }
+
+    @Test
+    public void testGetFeedInvalidCursor() {
+        final ResponseEntity<CursorPageDTO<PostOverviewDTO>> response =
+                this.sendGetPostsFeedRequest(
+                        this.buildFeedUri("not-a-cursor"),
+                        createAuthToken(this.USER_ID, this.JWT_SECRET));
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    public void testGetFeedSince() {
+        final String token = createAuthToken(this.USER_ID, this.JWT_SECRET);
+        final ResponseEntity<CursorPageDTO<PostOverviewDTO>> feedResponse =
+                this.sendGetPostsFeedRequest(this.buildFeedUri(), token);
+        assertEquals(HttpStatus.OK, feedResponse.getStatusCode());
+        assertNotNull(feedResponse.getBody());
+
+        final String lastSeenCursor = feedResponse.getBody().getNextCursor();
+        final ResponseEntity<FeedDeltaDTO> sinceResponse =
+                this.sendGetFeedSinceRequest(this.buildFeedSinceUri(lastSeenCursor), token);
+        assertEquals(HttpStatus.OK, sinceResponse.getStatusCode());
+        assertNotNull(sinceResponse.getBody());
+
+        final List<PostOverviewDTO> newerPosts = sinceResponse.getBody().getContent();
+        final SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(sinceResponse.getBody().getCount())
+                .isEqualTo(feedResponse.getBody().getContent().size() - 1);
+        softly.assertThat(newerPosts.stream().map(PostOverviewDTO::getId))
+                .containsExactlyElementsOf(
+                        feedResponse.getBody().getContent().stream()
+                                .limit(newerPosts.size())
+                                .map(PostOverviewDTO::getId)
+                                .collect(Collectors.toList()));
+        softly.assertAll();
+    }
+
+    @Test
+    public void testGetFeedSinceDeliversAllNewerPostsInChunks() {
+        final String token = createAuthToken(this.USER_ID, this.JWT_SECRET);
+        final List<String> deliveredPostIds = new ArrayList<>();
+        String cursor = new PostCursor(0, "").encode();
+        boolean hasMore = true;
+        while (hasMore) {
+            final ResponseEntity<FeedDeltaDTO> sinceResponse =
+                    this.sendGetFeedSinceRequest(this.buildFeedSinceUri(cursor), token);
+            assertEquals(HttpStatus.OK, sinceResponse.getStatusCode());
+            assertNotNull(sinceResponse.getBody());
+
+            sinceResponse.getBody().getContent().stream()
+                    .map(PostOverviewDTO::getId)
+                    .forEach(deliveredPostIds::add);
+            cursor = sinceResponse.getBody().getCursor();
+            hasMore = sinceResponse.getBody().isHasMore();
+        }
+
+        final SoftAssertions softly = new SoftAssertions();
+        softly.assertThat(deliveredPostIds).doesNotHaveDuplicates();
+        softly.assertThat(deliveredPostIds).hasSize(60);
+        softly.assertAll();
+    }
+
+    @Test
+    public void testGetFeedSinceNothingNew() {
+        final String token = createAuthToken(this.USER_ID, this.JWT_SECRET);
+        final ResponseEntity<FeedDeltaDTO> sinceResponse =
+                this.sendGetFeedSinceRequest(
+                        this.buildFeedSinceUri(
+                                new PostCursor(System.currentTimeMillis(), "").encode()),
+                        token);
+        assertEquals(HttpStatus.NOT_MODIFIED, sinceResponse.getStatusCode());
+    }
+
     @Test
     public void testGetFeedNoAuth() {
         final URI feedURI = this.buildFeedUri();
@@ -251,6 +355,34 @@ public class GetFeedTest extends CommonTestBase {
         return builder.build().encode().toUri();
     }
 
+    private URI buildFeedUri(final String cursor) {
+        final UriComponentsBuilder builder =
+                UriComponentsBuilder.fromHttpUrl(
+                                String.format("http://localhost:%d/api/v1/posts/feed", this.port))
+                        .queryParam("cursor", cursor);
+        return builder.build().encode().toUri();
+    }
+
+    private URI buildFeedSinceUri(final String after) {
+        final UriComponentsBuilder builder =
+                UriComponentsBuilder.fromHttpUrl(
+                                String.format(
+                                        "http://localhost:%d/api/v1/posts/feed/since", this.port))
+                        .queryParam("after", after);
+        return builder.build().encode().toUri();
+    }
+
+    private ResponseEntity<FeedDeltaDTO> sendGetFeedSinceRequest(
+            final URI apiEndpoint, final String token) {
+        final HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", String.format("Bearer %s", token));
+        headers.set(HttpHeaders.CONTENT_LENGTH, "0");
+        final HttpEntity<Void> entity = new HttpEntity<>(null, headers);
+
+        return this.testRestTemplate.exchange(
+                apiEndpoint, HttpMethod.GET, entity, FeedDeltaDTO.class);
+    }
+
     private ResponseEntity<Void> sendGetPostsFeedRequest(final URI apiEndpoint) {
         final HttpHeaders headers = new HttpHeaders();
         headers.set(HttpHeaders.CONTENT_LENGTH, "0");
@@ -259,7 +391,7 @@ public class GetFeedTest extends CommonTestBase {
         return this.testRestTemplate.exchange(apiEndpoint, HttpMethod.DELETE, entity, Void.class);
     }
 
-    private ResponseEntity<List<PostGetDTO>> sendGetPostsFeedRequest(
+    private ResponseEntity<CursorPageDTO<PostOverviewDTO>> sendGetPostsFeedRequest(
             final URI apiEndpoint, final String token) {
         final HttpHeaders headers = new HttpHeaders();
         headers.set("Authorization", String.format("Bearer %s", token));
@@ -270,10 +402,10 @@ public class GetFeedTest extends CommonTestBase {
                 apiEndpoint, HttpMethod.GET, entity, new ParameterizedTypeReference<>() {});
     }
 
-    private boolean checkIfPostsAreSortedByTimeDescending(final List<PostGetDTO> posts) {
+    private boolean checkIfPostsAreSortedByTimeDescending(final List<PostOverviewDTO> posts) {
         for (int i = 0; i < posts.size() - 1; i++) {
-            final PostGetDTO currentPost = posts.get(i);
-            final PostGetDTO nextPost = posts.get(i + 1);
+            final PostOverviewDTO currentPost = posts.get(i);
+            final PostOverviewDTO nextPost = posts.get(i + 1);
             if (currentPost.getPostDate().before(nextPost.getPostDate())) {
                 return false;
             }
@@ -282,7 +414,7 @@ public class GetFeedTest extends CommonTestBase {
     }
 
     private boolean checkIfPostsAreFromFollowedPosters(
-            final List<PostGetDTO> posts, final String... followed) {
+            final List<PostOverviewDTO> posts, final String... followed) {
         return posts.stream()
                 .allMatch(
                         post ->
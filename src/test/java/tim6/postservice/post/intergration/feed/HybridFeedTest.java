@@ -0,0 +1,180 @@
+package tim6.postservice.post.intergration.feed;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import tim6.postservice.common.CommonTestBase;
+import tim6.postservice.domain.models.Post;
+import tim6.postservice.domain.models.PostCursor;
+import tim6.postservice.domain.models.PostCursorPage;
+import tim6.postservice.domain.models.Timeline;
+import tim6.postservice.domain.models.TimelineEntry;
+import tim6.postservice.domain.models.User;
+import tim6.postservice.domain.models.UserInfo;
+import tim6.postservice.domain.repositories.PostRepository;
+import tim6.postservice.domain.repositories.TimelineRepository;
+import tim6.postservice.domain.repositories.UserRepository;
+import tim6.postservice.domain.services.PostService;
+import tim6.postservice.domain.services.TimelineService;
+
+public class HybridFeedTest extends CommonTestBase {
+
+    private final String VIEWER_ID = UUID.randomUUID().toString();
+    private final String MUTING_VIEWER_ID = UUID.randomUUID().toString();
+    private final String PUSHED_POSTER_ID = UUID.randomUUID().toString();
+    private final String PULLED_POSTER_ID = UUID.randomUUID().toString();
+
+    private final long PULL_FOLLOWER_THRESHOLD = 2;
+
+    @Autowired private PostRepository postRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private TimelineRepository timelineRepository;
+    @Autowired private TimelineService timelineService;
+    @Autowired private PostService postService;
+    @Autowired private ElasticsearchOperations elasticsearchOperations;
+
+    @Before
+    public void initializeData() {
+        ReflectionTestUtils.setField(
+                this.timelineService, "pullFollowerThreshold", this.PULL_FOLLOWER_THRESHOLD);
+
+        this.userRepository.save(
+                new User(this.PUSHED_POSTER_ID, "pushedPosterName", "posterAvatar", true));
+        final User pulledPoster =
+                new User(this.PULLED_POSTER_ID, "pulledPosterName", "posterAvatar", true);
+        pulledPoster.setFollowersCount(this.PULL_FOLLOWER_THRESHOLD);
+        this.userRepository.save(pulledPoster);
+
+        this.userRepository.save(
+                new User(
+                        this.VIEWER_ID,
+                        "viewerName",
+                        "viewerAvatar",
+                        true,
+                        Set.of(this.PUSHED_POSTER_ID, this.PULLED_POSTER_ID),
+                        new HashSet<>(),
+                        new HashSet<>()));
+        this.userRepository.save(
+                new User(
+                        this.MUTING_VIEWER_ID,
+                        "mutingViewerName",
+                        "viewerAvatar",
+                        true,
+                        Set.of(this.PUSHED_POSTER_ID, this.PULLED_POSTER_ID),
+                        new HashSet<>(),
+                        Set.of(this.PULLED_POSTER_ID)));
+        this.elasticsearchOperations.indexOps(User.class).refresh();
+    }
+
+    @After
+    public void cleanUpData() {
+        ReflectionTestUtils.setField(this.timelineService, "pullFollowerThreshold", 10000L);
+
+        this.userRepository.deleteAll();
+        this.postRepository.deleteAll();
+        this.timelineRepository.deleteAll();
+    }
+
+    @Test
+    public void testPulledPostsAreNotPushedButMergedIntoFeed() {
+        final Post oldestPushed = this.publish(this.PUSHED_POSTER_ID, new Date(1000L));
+        final Post oldestPulled = this.publish(this.PULLED_POSTER_ID, new Date(2000L));
+        final Post newestPushed = this.publish(this.PUSHED_POSTER_ID, new Date(3000L));
+        final Post newestPulled = this.publish(this.PULLED_POSTER_ID, new Date(4000L));
+
+        assertEquals(
+                List.of(newestPushed.getId(), oldestPushed.getId()),
+                this.timelinePostIds(this.VIEWER_ID));
+        assertEquals(
+                List.of(
+                        newestPulled.getId(),
+                        newestPushed.getId(),
+                        oldestPulled.getId(),
+                        oldestPushed.getId()),
+                this.feedPostIds(this.VIEWER_ID, null));
+    }
+
+    @Test
+    public void testMergedFeedContinuesAfterCursor() {
+        final Post oldestPushed = this.publish(this.PUSHED_POSTER_ID, new Date(1000L));
+        final Post oldestPulled = this.publish(this.PULLED_POSTER_ID, new Date(2000L));
+        final Post newestPushed = this.publish(this.PUSHED_POSTER_ID, new Date(3000L));
+        this.publish(this.PULLED_POSTER_ID, new Date(4000L));
+
+        assertEquals(
+                List.of(oldestPulled.getId(), oldestPushed.getId()),
+                this.feedPostIds(this.VIEWER_ID, PostCursor.of(newestPushed)));
+    }
+
+    @Test
+    public void testMutedPulledPosterLeftOutOfFeed() {
+        final Post oldestPushed = this.publish(this.PUSHED_POSTER_ID, new Date(1000L));
+        this.publish(this.PULLED_POSTER_ID, new Date(2000L));
+        final Post newestPushed = this.publish(this.PUSHED_POSTER_ID, new Date(3000L));
+
+        assertEquals(
+                List.of(newestPushed.getId(), oldestPushed.getId()),
+                this.feedPostIds(this.MUTING_VIEWER_ID, null));
+    }
+
+    @Test
+    public void testFeedCursorAdvancesPastDeletedTimelinePosts() {
+        final List<Post> posts = new ArrayList<>();
+        for (int i = 0; i <= PostService.MAX_POSTS_FOR_FEED; i++) {
+            posts.add(0, this.publish(this.PUSHED_POSTER_ID, new Date(1000L * (i + 1))));
+        }
+        this.postRepository.deleteById(posts.get(0).getId());
+        this.elasticsearchOperations.indexOps(Post.class).refresh();
+
+        final PostCursorPage firstPage = this.postService.getFeed(this.MUTING_VIEWER_ID, null);
+
+        assertEquals(PostService.MAX_POSTS_FOR_FEED - 1, firstPage.getPosts().size());
+        assertEquals(
+                PostCursor.of(posts.get(PostService.MAX_POSTS_FOR_FEED - 1)),
+                firstPage.getNextCursor());
+        assertEquals(
+                List.of(posts.get(PostService.MAX_POSTS_FOR_FEED).getId()),
+                this.feedPostIds(this.MUTING_VIEWER_ID, firstPage.getNextCursor()));
+    }
+
+    private Post publish(final String posterId, final Date postDate) {
+        final Post post =
+                this.postRepository.save(
+                        new Post(
+                                UUID.randomUUID().toString(),
+                                "testImage.jpg",
+                                "Proper description",
+                                new UserInfo(posterId, "posterName", "posterAvatar"),
+                                postDate,
+                                Set.of("tag1"),
+                                new HashSet<>()));
+        this.timelineService.pushToFollowers(post, this.userRepository.findById(posterId).get());
+        this.elasticsearchOperations.indexOps(Post.class).refresh();
+        return post;
+    }
+
+    private List<String> timelinePostIds(final String userId) {
+        this.elasticsearchOperations.indexOps(Timeline.class).refresh();
+        return this.timelineRepository.findById(userId).get().getEntries().stream()
+                .map(TimelineEntry::getPostId)
+                .collect(Collectors.toList());
+    }
+
+    private List<String> feedPostIds(final String userId, final PostCursor after) {
+        return this.postService.getFeed(userId, after).getPosts().stream()
+                .map(Post::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,125 @@
+package tim6.postservice.post.intergration.feed;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import tim6.postservice.common.CommonTestBase;
+import tim6.postservice.domain.models.Post;
+import tim6.postservice.domain.models.PostCursor;
+import tim6.postservice.domain.models.User;
+import tim6.postservice.domain.models.UserInfo;
+import tim6.postservice.domain.repositories.PostRepository;
+import tim6.postservice.domain.repositories.UserRepository;
+import tim6.postservice.domain.services.FeedMode;
+import tim6.postservice.domain.services.PostService;
+
+public class QueryFeedTest extends CommonTestBase {
+
+    private final String VIEWER_ID = UUID.randomUUID().toString();
+    private final List<String> FOLLOWED_POSTER_IDS =
+            List.of(
+                    UUID.randomUUID().toString(),
+                    UUID.randomUUID().toString(),
+                    UUID.randomUUID().toString());
+    private final String MUTED_POSTER_ID = UUID.randomUUID().toString();
+    private final String NOT_FOLLOWED_POSTER_ID = UUID.randomUUID().toString();
+
+    private final int FOLLOWED_POSTS_COUNT = PostService.MAX_POSTS_FOR_FEED + 5;
+
+    private final List<String> expectedFeedPostIds = new ArrayList<>();
+
+    @Autowired private PostRepository postRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private PostService postService;
+    @Autowired private ElasticsearchOperations elasticsearchOperations;
+
+    @Before
+    public void initializeData() {
+        ReflectionTestUtils.setField(this.postService, "feedMode", FeedMode.QUERY);
+
+        final Set<String> followedIds = new HashSet<>(this.FOLLOWED_POSTER_IDS);
+        followedIds.add(this.MUTED_POSTER_ID);
+        this.userRepository.save(
+                new User(
+                        this.VIEWER_ID,
+                        "viewerName",
+                        "viewerAvatar",
+                        true,
+                        followedIds,
+                        new HashSet<>(),
+                        Set.of(this.MUTED_POSTER_ID)));
+        this.FOLLOWED_POSTER_IDS.forEach(
+                posterId ->
+                        this.userRepository.save(
+                                new User(posterId, "posterName", "posterAvatar", true)));
+        this.userRepository.save(
+                new User(this.MUTED_POSTER_ID, "mutedPosterName", "posterAvatar", true));
+        this.userRepository.save(
+                new User(this.NOT_FOLLOWED_POSTER_ID, "otherPosterName", "posterAvatar", true));
+
+        long postedAt = 1000L;
+        for (int i = 0; i < this.FOLLOWED_POSTS_COUNT; i++) {
+            final String posterId =
+                    this.FOLLOWED_POSTER_IDS.get(i % this.FOLLOWED_POSTER_IDS.size());
+            this.expectedFeedPostIds.add(0, this.savePost(posterId, new Date(postedAt++)).getId());
+            this.savePost(this.MUTED_POSTER_ID, new Date(postedAt++));
+            this.savePost(this.NOT_FOLLOWED_POSTER_ID, new Date(postedAt++));
+        }
+        this.elasticsearchOperations.indexOps(Post.class).refresh();
+    }
+
+    @After
+    public void cleanUpData() {
+        ReflectionTestUtils.setField(this.postService, "feedMode", FeedMode.HYBRID);
+
+        this.userRepository.deleteAll();
+        this.postRepository.deleteAll();
+    }
+
+    @Test
+    public void testQueryFeedReturnsNewestFollowedPostsAcrossPosters() {
+        final List<Post> firstPage = this.postService.getFeed(this.VIEWER_ID, null).getPosts();
+
+        assertEquals(
+                this.expectedFeedPostIds.subList(0, PostService.MAX_POSTS_FOR_FEED),
+                firstPage.stream().map(Post::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testQueryFeedContinuesAfterCursor() {
+        final List<Post> firstPage = this.postService.getFeed(this.VIEWER_ID, null).getPosts();
+        final List<Post> secondPage =
+                this.postService
+                        .getFeed(this.VIEWER_ID, PostCursor.of(firstPage.get(firstPage.size() - 1)))
+                        .getPosts();
+
+        assertEquals(
+                this.expectedFeedPostIds.subList(
+                        PostService.MAX_POSTS_FOR_FEED, this.FOLLOWED_POSTS_COUNT),
+                secondPage.stream().map(Post::getId).collect(Collectors.toList()));
+    }
+
+    private Post savePost(final String posterId, final Date postDate) {
+        return this.postRepository.save(
+                new Post(
+                        UUID.randomUUID().toString(),
+                        "testImage.jpg",
+                        "Proper description",
+                        new UserInfo(posterId, "posterName", "posterAvatar"),
+                        postDate,
+                        Set.of("tag1"),
+                        new HashSet<>()));
+    }
+}
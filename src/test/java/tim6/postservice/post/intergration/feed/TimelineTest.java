@@ -0,0 +1,203 @@
+package tim6.postservice.post.intergration.feed;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import tim6.postservice.adapter.kafka.ConsumerService;
+import tim6.postservice.adapter.kafka.models.KafkaMessage;
+import tim6.postservice.adapter.kafka.models.payloads.FollowPayload;
+import tim6.postservice.adapter.kafka.models.payloads.MutePayload;
+import tim6.postservice.common.CommonTestBase;
+import tim6.postservice.domain.models.Post;
+import tim6.postservice.domain.models.Timeline;
+import tim6.postservice.domain.models.TimelineEntry;
+import tim6.postservice.domain.models.User;
+import tim6.postservice.domain.models.UserInfo;
+import tim6.postservice.domain.repositories.PostRepository;
+import tim6.postservice.domain.repositories.TimelineRepository;
+import tim6.postservice.domain.repositories.UserRepository;
+import tim6.postservice.domain.services.PostService;
+import tim6.postservice.domain.services.TimelineService;
+
+public class TimelineTest extends CommonTestBase {
+
+    private final String POSTER_ID = UUID.randomUUID().toString();
+    private final String FOLLOWER_ID = UUID.randomUUID().toString();
+    private final String MUTING_FOLLOWER_ID = UUID.randomUUID().toString();
+
+    private final int MAX_TIMELINE_SIZE = 3;
+    private final int MAX_AWAIT_ATTEMPTS = 50;
+
+    @Autowired private PostRepository postRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private TimelineRepository timelineRepository;
+    @Autowired private TimelineService timelineService;
+    @Autowired private PostService postService;
+    @Autowired private ConsumerService consumerService;
+    @Autowired private ElasticsearchOperations elasticsearchOperations;
+
+    @Before
+    public void initializeData() {
+        this.userRepository.save(new User(this.POSTER_ID, "posterName", "posterAvatar", true));
+        this.userRepository.save(
+                new User(
+                        this.FOLLOWER_ID,
+                        "followerName",
+                        "followerAvatar",
+                        true,
+                        Set.of(this.POSTER_ID),
+                        new HashSet<>(),
+                        new HashSet<>()));
+        this.userRepository.save(
+                new User(
+                        this.MUTING_FOLLOWER_ID,
+                        "mutingFollowerName",
+                        "followerAvatar",
+                        true,
+                        Set.of(this.POSTER_ID),
+                        new HashSet<>(),
+                        Set.of(this.POSTER_ID)));
+        this.elasticsearchOperations.indexOps(User.class).refresh();
+    }
+
+    @After
+    public void cleanUpData() {
+        ReflectionTestUtils.setField(this.timelineService, "maxTimelineSize", 500);
+
+        this.userRepository.deleteAll();
+        this.postRepository.deleteAll();
+        this.timelineRepository.deleteAll();
+    }
+
+    @Test
+    public void testPostPushedToUnmutedFollowers() {
+        final Post post = this.publish(new Date());
+
+        assertEquals(List.of(post.getId()), this.timelinePostIds(this.FOLLOWER_ID));
+        assertTrue(this.timelineRepository.findById(this.MUTING_FOLLOWER_ID).isEmpty());
+    }
+
+    @Test
+    public void testRepeatedPushAddsEntryOnce() {
+        final Post post = this.publish(new Date());
+        this.timelineService.pushToFollowers(
+                post, this.userRepository.findById(this.POSTER_ID).get());
+
+        assertEquals(List.of(post.getId()), this.timelinePostIds(this.FOLLOWER_ID));
+    }
+
+    @Test
+    public void testTimelineTrimmedToMaxSize() {
+        ReflectionTestUtils.setField(
+                this.timelineService, "maxTimelineSize", this.MAX_TIMELINE_SIZE);
+
+        final List<String> postIds = new ArrayList<>();
+        for (int i = 0; i < this.MAX_TIMELINE_SIZE + 2; i++) {
+            postIds.add(0, this.publish(new Date(1000L * (i + 1))).getId());
+        }
+
+        assertEquals(
+                postIds.subList(0, this.MAX_TIMELINE_SIZE),
+                this.timelinePostIds(this.FOLLOWER_ID));
+    }
+
+    @Test
+    public void testUnfollowPrunesTimeline() {
+        this.publish(new Date());
+
+        this.consumerService.receiveMessages(
+                List.of(
+                        new KafkaMessage(
+                                "FOLLOW",
+                                new FollowPayload(this.FOLLOWER_ID, this.POSTER_ID, false))),
+                List.of(System.currentTimeMillis()));
+
+        assertEquals(List.of(), this.timelinePostIds(this.FOLLOWER_ID));
+    }
+
+    @Test
+    public void testMutePrunesTimeline() {
+        this.publish(new Date());
+
+        this.consumerService.receiveMessages(
+                List.of(
+                        new KafkaMessage(
+                                "MUTE", new MutePayload(this.FOLLOWER_ID, this.POSTER_ID, true))),
+                List.of(System.currentTimeMillis()));
+
+        assertEquals(List.of(), this.timelinePostIds(this.FOLLOWER_ID));
+    }
+
+    @Test
+    public void testUnmuteBackfillsTimeline() {
+        final Post post = this.publish(new Date());
+
+        this.consumerService.receiveMessages(
+                List.of(
+                        new KafkaMessage(
+                                "MUTE",
+                                new MutePayload(this.MUTING_FOLLOWER_ID, this.POSTER_ID, false))),
+                List.of(System.currentTimeMillis()));
+
+        assertEquals(List.of(post.getId()), this.timelinePostIds(this.MUTING_FOLLOWER_ID));
+    }
+
+    @Test
+    public void testCreatedPostFannedOutAfterCreateReturns() throws InterruptedException {
+        final Post post =
+                this.postService.createNew(
+                        new Post(
+                                UUID.randomUUID().toString(),
+                                "testImage.jpg",
+                                "Proper description",
+                                new UserInfo(this.POSTER_ID, "posterName", "posterAvatar"),
+                                new Date(),
+                                Set.of("tag1"),
+                                new HashSet<>()));
+
+        for (int attempt = 0;
+                attempt < this.MAX_AWAIT_ATTEMPTS
+                        && this.timelineRepository.findById(this.FOLLOWER_ID).isEmpty();
+                attempt++) {
+            Thread.sleep(200);
+        }
+        assertEquals(List.of(post.getId()), this.timelinePostIds(this.FOLLOWER_ID));
+    }
+
+    private Post publish(final Date postDate) {
+        final Post post =
+                this.postRepository.save(
+                        new Post(
+                                UUID.randomUUID().toString(),
+                                "testImage.jpg",
+                                "Proper description",
+                                new UserInfo(this.POSTER_ID, "posterName", "posterAvatar"),
+                                postDate,
+                                Set.of("tag1"),
+                                new HashSet<>()));
+        this.timelineService.pushToFollowers(
+                post, this.userRepository.findById(this.POSTER_ID).get());
+        this.elasticsearchOperations.indexOps(Post.class).refresh();
+        return post;
+    }
+
+    private List<String> timelinePostIds(final String userId) {
+        this.elasticsearchOperations.indexOps(Timeline.class).refresh();
+        return this.timelineRepository.findById(userId).get().getEntries().stream()
+                .map(TimelineEntry::getPostId)
+                .collect(Collectors.toList());
+    }
+}
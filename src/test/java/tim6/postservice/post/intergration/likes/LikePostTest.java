@@ -1,6 +1,7 @@
 package tim6.postservice.post.intergration.likes;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static tim6.postservice.helpers.AuthHelper.createAuthToken;
@@ -9,8 +10,12 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -27,9 +32,12 @@ import org.springframework.web.util.UriComponentsBuilder;
 import tim6.postservice.adapter.http.dto.PostGetDTO;
 import tim6.postservice.common.CommonTestBase;
 import tim6.postservice.domain.models.Post;
+import tim6.postservice.domain.models.Reaction;
+import tim6.postservice.domain.models.ReactionType;
 import tim6.postservice.domain.models.User;
 import tim6.postservice.domain.models.UserInfo;
 import tim6.postservice.domain.repositories.PostRepository;
+import tim6.postservice.domain.repositories.ReactionRepository;
 import tim6.postservice.domain.repositories.UserRepository;
 
 public class LikePostTest extends CommonTestBase {
@@ -38,25 +46,30 @@ public class LikePostTest extends CommonTestBase {
     private final String PUBLIC_POSTER_ID = UUID.randomUUID().toString();
     private final String PRIVATE_NOT_FOLLOWED_POSTER_ID = UUID.randomUUID().toString();
     private final String PRIVATE_FOLLOWED_POSTER_ID = UUID.randomUUID().toString();
+    private final String BLOCKED_POSTER_ID = UUID.randomUUID().toString();
+    private final String MUTED_POSTER_ID = UUID.randomUUID().toString();
 
     private final String PUBLIC_POST_ID = UUID.randomUUID().toString();
     private final String PREVIOUSLY_DISLIKED_POST_ID = UUID.randomUUID().toString();
     private final String PREVIOUSLY_LIKED_POST_ID = UUID.randomUUID().toString();
     private final String PRIVATE_FOLLOWED_POST_ID = UUID.randomUUID().toString();
     private final String PRIVATE_NOT_FOLLOWED_POST_ID = UUID.randomUUID().toString();
+    private final String BLOCKED_POSTER_POST_ID = UUID.randomUUID().toString();
+    private final String MUTED_POSTER_POST_ID = UUID.randomUUID().toString();
 
     private final String IMAGE_URL = "testImage.jpg";
     private final String DESCRIPTION = "Proper description";
     private final Set<String> TAGS = Set.of("tag1", "tag2", "tag3");
     private final Set<UserInfo> USER_TAGS = new HashSet<>();
-    private final Set<String> PREVIOUS_DISLIKES = Set.of(this.USER_ID);
-    private final Set<String> PREVIOUS_LIKES = Set.of(this.USER_ID);
+
+    private final int CONCURRENT_LIKERS = 8;
 
     @Value("${jwt.secret}")
     private String JWT_SECRET;
 
     @Autowired private PostRepository postRepository;
     @Autowired private UserRepository userRepository;
+    @Autowired private ReactionRepository reactionRepository;
     @Autowired private TestRestTemplate testRestTemplate;
     @LocalServerPort private int port;
 
@@ -70,6 +83,7 @@ public class LikePostTest extends CommonTestBase {
     public void cleanUpData() {
         this.userRepository.deleteAll();
         this.postRepository.deleteAll();
+        this.reactionRepository.deleteAll();
     }
 
     private void initializeUsers() {
@@ -93,15 +107,23 @@ public class LikePostTest extends CommonTestBase {
                         false);
         this.userRepository.save(privatePosterFollowedByUser);
 
+        final User blockedPoster =
+                new User(this.BLOCKED_POSTER_ID, "blockedPosterName", "posterAvatar", true);
+        this.userRepository.save(blockedPoster);
+
+        final User mutedPoster =
+                new User(this.MUTED_POSTER_ID, "mutedPosterName", "posterAvatar", false);
+        this.userRepository.save(mutedPoster);
+
         final User user =
                 new User(
                         this.USER_ID,
                         "userName",
                         "userAvatar",
                         true,
-                        Set.of(this.PRIVATE_FOLLOWED_POSTER_ID),
-                        new HashSet<>(),
-                        new HashSet<>());
+                        Set.of(this.PRIVATE_FOLLOWED_POSTER_ID, this.MUTED_POSTER_ID),
+                        Set.of(this.BLOCKED_POSTER_ID),
+                        Set.of(this.MUTED_POSTER_ID));
         this.userRepository.save(user);
     }
 
@@ -114,11 +136,7 @@ public class LikePostTest extends CommonTestBase {
                         new UserInfo(this.PUBLIC_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
         this.postRepository.save(publicPost);
 
         final Post previouslyDislikedPost =
@@ -129,11 +147,10 @@ public class LikePostTest extends CommonTestBase {
                         new UserInfo(this.PUBLIC_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        this.PREVIOUS_DISLIKES,
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
+        previouslyDislikedPost.setDislikesCount(1);
+        this.reactionRepository.save(
+                new Reaction(this.PREVIOUSLY_DISLIKED_POST_ID, this.USER_ID, ReactionType.DISLIKE));
         this.postRepository.save(previouslyDislikedPost);
 
         final Post previouslyLikedPost =
@@ -144,11 +161,10 @@ public class LikePostTest extends CommonTestBase {
                         new UserInfo(this.PUBLIC_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        this.PREVIOUS_LIKES,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
+        previouslyLikedPost.setLikesCount(1);
+        this.reactionRepository.save(
+                new Reaction(this.PREVIOUSLY_LIKED_POST_ID, this.USER_ID, ReactionType.LIKE));
         this.postRepository.save(previouslyLikedPost);
 
         final Post privatePostByFollowedPoster =
@@ -159,11 +175,7 @@ public class LikePostTest extends CommonTestBase {
                         new UserInfo(this.PRIVATE_FOLLOWED_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
         this.postRepository.save(privatePostByFollowedPoster);
 
         final Post privatePostByNotFollowedPoster =
@@ -174,12 +186,30 @@ public class LikePostTest extends CommonTestBase {
                         new UserInfo(this.PRIVATE_NOT_FOLLOWED_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
         this.postRepository.save(privatePostByNotFollowedPoster);
+
+        final Post postByBlockedPoster =
+                new Post(
+                        this.BLOCKED_POSTER_POST_ID,
+                        this.IMAGE_URL,
+                        this.DESCRIPTION,
+                        new UserInfo(this.BLOCKED_POSTER_ID, "userName", "userAvatar"),
+                        new Date(),
+                        this.TAGS,
+                        this.USER_TAGS);
+        this.postRepository.save(postByBlockedPoster);
+
+        final Post postByMutedPoster =
+                new Post(
+                        this.MUTED_POSTER_POST_ID,
+                        this.IMAGE_URL,
+                        this.DESCRIPTION,
+                        new UserInfo(this.MUTED_POSTER_ID, "userName", "userAvatar"),
+                        new Date(),
+                        this.TAGS,
+                        this.USER_TAGS);
+        this.postRepository.save(postByMutedPoster);
     }
 
     @Test
@@ -195,8 +225,10 @@ public class LikePostTest extends CommonTestBase {
 
         assertEquals(HttpStatus.OK, getPostResponse.getStatusCode());
         assertNotNull(getPostResponse.getBody());
-        assertEquals(1, getPostResponse.getBody().getLikes().size());
-        assertTrue(getPostResponse.getBody().getLikes().contains(this.USER_ID));
+        assertEquals(1, getPostResponse.getBody().getLikes_count());
+        assertTrue(
+                this.reactionRepository.existsById(
+                        Reaction.idOf(this.PUBLIC_POST_ID, this.USER_ID, ReactionType.LIKE)));
     }
 
     @Test
@@ -212,9 +244,14 @@ public class LikePostTest extends CommonTestBase {
 
         assertEquals(HttpStatus.OK, getPostResponse.getStatusCode());
         assertNotNull(getPostResponse.getBody());
-        assertEquals(0, getPostResponse.getBody().getDislikes().size());
-        assertEquals(1, getPostResponse.getBody().getLikes().size());
-        assertTrue(getPostResponse.getBody().getLikes().contains(this.USER_ID));
+        assertEquals(0, getPostResponse.getBody().getDislikes_count());
+        assertEquals(1, getPostResponse.getBody().getLikes_count());
+        assertTrue(
+                this.reactionRepository.existsById(
+                        Reaction.idOf(
+                                this.PREVIOUSLY_DISLIKED_POST_ID,
+                                this.USER_ID,
+                                ReactionType.LIKE)));
     }
 
     @Test
@@ -230,8 +267,13 @@ public class LikePostTest extends CommonTestBase {
 
         assertEquals(HttpStatus.OK, getPostResponse.getStatusCode());
         assertNotNull(getPostResponse.getBody());
-        assertEquals(1, getPostResponse.getBody().getLikes().size());
-        assertTrue(getPostResponse.getBody().getLikes().contains(this.USER_ID));
+        assertEquals(1, getPostResponse.getBody().getLikes_count());
+        assertTrue(
+                this.reactionRepository.existsById(
+                        Reaction.idOf(
+                                this.PREVIOUSLY_LIKED_POST_ID,
+                                this.USER_ID,
+                                ReactionType.LIKE)));
     }
 
     @Test
@@ -249,8 +291,39 @@ public class LikePostTest extends CommonTestBase {
 
         assertEquals(HttpStatus.OK, getPostResponse.getStatusCode());
         assertNotNull(getPostResponse.getBody());
-        assertEquals(1, getPostResponse.getBody().getLikes().size());
-        assertTrue(getPostResponse.getBody().getLikes().contains(this.USER_ID));
+        assertEquals(1, getPostResponse.getBody().getLikes_count());
+        assertTrue(
+                this.reactionRepository.existsById(
+                        Reaction.idOf(
+                                this.PRIVATE_FOLLOWED_POST_ID,
+                                this.USER_ID,
+                                ReactionType.LIKE)));
+    }
+
+    @Test
+    public void testGetPostShowsViewerReactionFlags() {
+        final URI likePostEndpoint = this.buildLikePostUri(this.PUBLIC_POST_ID);
+        final ResponseEntity<Void> likePostResponse =
+                this.sendLikePostRequest(
+                        likePostEndpoint, createAuthToken(this.USER_ID, this.JWT_SECRET));
+        assertEquals(HttpStatus.NO_CONTENT, likePostResponse.getStatusCode());
+
+        final URI getPostEndpoint = this.buildGetPostUri(this.PUBLIC_POST_ID);
+        final ResponseEntity<PostGetDTO> getPostResponse =
+                this.sendGetPostRequest(
+                        getPostEndpoint, createAuthToken(this.USER_ID, this.JWT_SECRET));
+
+        assertEquals(HttpStatus.OK, getPostResponse.getStatusCode());
+        assertNotNull(getPostResponse.getBody());
+        assertTrue(getPostResponse.getBody().isLikedByMe());
+        assertFalse(getPostResponse.getBody().isDislikedByMe());
+        assertFalse(getPostResponse.getBody().isFavoritedByMe());
+
+        final ResponseEntity<PostGetDTO> anonymousGetPostResponse =
+                this.sendGetPostRequest(getPostEndpoint);
+        assertEquals(HttpStatus.OK, anonymousGetPostResponse.getStatusCode());
+        assertNotNull(anonymousGetPostResponse.getBody());
+        assertFalse(anonymousGetPostResponse.getBody().isLikedByMe());
     }
 
     @Test
@@ -262,6 +335,66 @@ public class LikePostTest extends CommonTestBase {
         assertEquals(HttpStatus.FORBIDDEN, likePostResponse.getStatusCode());
     }
 
+    @Test
+    public void testConcurrentLikesAllCounted() throws Exception {
+        final List<String> likerIds = new ArrayList<>();
+        for (int i = 0; i < this.CONCURRENT_LIKERS; i++) {
+            final String likerId = UUID.randomUUID().toString();
+            this.userRepository.save(new User(likerId, "likerName", "likerAvatar", true));
+            likerIds.add(likerId);
+        }
+
+        final URI likePostEndpoint = this.buildLikePostUri(this.PUBLIC_POST_ID);
+        final ExecutorService executor = Executors.newFixedThreadPool(likerIds.size());
+        try {
+            final List<Future<ResponseEntity<Void>>> responses = new ArrayList<>();
+            for (final String likerId : likerIds) {
+                responses.add(
+                        executor.submit(
+                                () ->
+                                        this.sendLikePostRequest(
+                                                likePostEndpoint,
+                                                createAuthToken(likerId, this.JWT_SECRET))));
+            }
+            for (final Future<ResponseEntity<Void>> response : responses) {
+                assertEquals(HttpStatus.NO_CONTENT, response.get().getStatusCode());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(
+                this.CONCURRENT_LIKERS,
+                this.postRepository.findById(this.PUBLIC_POST_ID).get().getLikesCount());
+        for (final String likerId : likerIds) {
+            assertTrue(
+                    this.reactionRepository.existsById(
+                            Reaction.idOf(this.PUBLIC_POST_ID, likerId, ReactionType.LIKE)));
+        }
+    }
+
+    @Test
+    public void testLikeBlockedPosterPost() {
+        final URI likePostEndpoint = this.buildLikePostUri(this.BLOCKED_POSTER_POST_ID);
+        final ResponseEntity<Void> likePostResponse =
+                this.sendLikePostRequest(
+                        likePostEndpoint, createAuthToken(this.USER_ID, this.JWT_SECRET));
+        assertEquals(HttpStatus.FORBIDDEN, likePostResponse.getStatusCode());
+        assertEquals(
+                0, this.postRepository.findById(this.BLOCKED_POSTER_POST_ID).get().getLikesCount());
+    }
+
+    @Test
+    public void testLikeMutedPosterPost() {
+        final URI likePostEndpoint = this.buildLikePostUri(this.MUTED_POSTER_POST_ID);
+        final ResponseEntity<Void> likePostResponse =
+                this.sendLikePostRequest(
+                        likePostEndpoint, createAuthToken(this.USER_ID, this.JWT_SECRET));
+        assertEquals(HttpStatus.NO_CONTENT, likePostResponse.getStatusCode());
+        assertEquals(
+                1, this.postRepository.findById(this.MUTED_POSTER_POST_ID).get().getLikesCount());
+    }
+
     @Test
     public void testLikePostNotLoggedIn() {
         final URI likePostEndpoint = this.buildLikePostUri(this.PUBLIC_POST_ID);
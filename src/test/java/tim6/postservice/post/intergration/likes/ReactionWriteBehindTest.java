@@ -0,0 +1,209 @@
+package tim6.postservice.post.intergration.likes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static tim6.postservice.helpers.AuthHelper.createAuthToken;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.elasticsearch.action.admin.indices.settings.put.UpdateSettingsRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.common.settings.Settings;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+import tim6.postservice.common.CommonTestBase;
+import tim6.postservice.domain.models.Post;
+import tim6.postservice.domain.models.Reaction;
+import tim6.postservice.domain.models.ReactionChange;
+import tim6.postservice.domain.models.ReactionType;
+import tim6.postservice.domain.models.User;
+import tim6.postservice.domain.models.UserInfo;
+import tim6.postservice.domain.repositories.PostRepository;
+import tim6.postservice.domain.repositories.ReactionRepository;
+import tim6.postservice.domain.repositories.UserRepository;
+import tim6.postservice.domain.services.ReactionBuffer;
+import tim6.postservice.domain.services.ReactionService;
+
+public class ReactionWriteBehindTest extends CommonTestBase {
+
+    private final String USER_ID = UUID.randomUUID().toString();
+    private final String PUBLIC_POSTER_ID = UUID.randomUUID().toString();
+
+    private final String POST_ID = UUID.randomUUID().toString();
+
+    private final String IMAGE_URL = "testImage.jpg";
+    private final String DESCRIPTION = "Proper description";
+    private final Set<String> TAGS = Set.of("tag1", "tag2", "tag3");
+    private final Set<UserInfo> USER_TAGS = new HashSet<>();
+
+    @Value("${jwt.secret}")
+    private String JWT_SECRET;
+
+    @Autowired private PostRepository postRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ReactionRepository reactionRepository;
+    @Autowired private ReactionService reactionService;
+    @Autowired private ReactionBuffer reactionBuffer;
+    @Autowired private ElasticsearchOperations elasticsearchOperations;
+    @Autowired private RestHighLevelClient elasticsearchClient;
+    @Autowired private TestRestTemplate testRestTemplate;
+    @LocalServerPort private int port;
+
+    @Before
+    public void initializeData() {
+        this.userRepository.save(
+                new User(this.PUBLIC_POSTER_ID, "publicPosterName", "posterAvatar", true));
+        this.userRepository.save(new User(this.USER_ID, "userName", "userAvatar", true));
+
+        this.postRepository.save(
+                new Post(
+                        this.POST_ID,
+                        this.IMAGE_URL,
+                        this.DESCRIPTION,
+                        new UserInfo(this.PUBLIC_POSTER_ID, "userName", "userAvatar"),
+                        new Date(),
+                        this.TAGS,
+                        this.USER_TAGS));
+    }
+
+    @After
+    public void cleanUpData() throws IOException {
+        this.blockReactionWrites(false);
+        ReflectionTestUtils.setField(this.reactionService, "writeBehindEnabled", false);
+        ReflectionTestUtils.setField(this.reactionService, "stopped", false);
+        this.reactionBuffer.drain();
+        this.reactionBuffer.drainCounterDeltas();
+
+        this.userRepository.deleteAll();
+        this.postRepository.deleteAll();
+        this.reactionRepository.deleteAll();
+    }
+
+    @Test
+    public void testBufferedLikeIsVisibleToViewerAndPersistedOnFlush() {
+        ReflectionTestUtils.setField(this.reactionService, "writeBehindEnabled", true);
+
+        assertEquals(HttpStatus.NO_CONTENT, this.sendLikePostRequest().getStatusCode());
+
+        assertFalse(this.reactionRepository.existsById(this.likeId()));
+        assertEquals(0, this.postRepository.findById(this.POST_ID).get().getLikesCount());
+        assertTrue(
+                this.reactionService
+                        .getViewerReactions(this.USER_ID, List.of(this.POST_ID))
+                        .has(this.POST_ID, ReactionType.LIKE));
+
+        this.reactionService.flush();
+
+        assertTrue(this.reactionRepository.existsById(this.likeId()));
+        assertEquals(1, this.postRepository.findById(this.POST_ID).get().getLikesCount());
+        assertNull(this.reactionBuffer.findPending(this.POST_ID, this.USER_ID, ReactionType.LIKE));
+    }
+
+    @Test
+    public void testFailedFlushRequeuesBufferedLike() throws IOException {
+        ReflectionTestUtils.setField(this.reactionService, "writeBehindEnabled", true);
+
+        assertEquals(HttpStatus.NO_CONTENT, this.sendLikePostRequest().getStatusCode());
+
+        this.blockReactionWrites(true);
+        this.reactionService.flush();
+
+        assertNotNull(
+                this.reactionBuffer.findPending(this.POST_ID, this.USER_ID, ReactionType.LIKE));
+        assertEquals(0, this.postRepository.findById(this.POST_ID).get().getLikesCount());
+
+        this.blockReactionWrites(false);
+        this.reactionService.flush();
+
+        assertTrue(this.reactionRepository.existsById(this.likeId()));
+        assertEquals(1, this.postRepository.findById(this.POST_ID).get().getLikesCount());
+        assertNull(this.reactionBuffer.findPending(this.POST_ID, this.USER_ID, ReactionType.LIKE));
+    }
+
+    @Test
+    public void testShutdownDrainPersistsLikeAndStopsScheduledFlush() {
+        ReflectionTestUtils.setField(this.reactionService, "writeBehindEnabled", true);
+
+        assertEquals(HttpStatus.NO_CONTENT, this.sendLikePostRequest().getStatusCode());
+
+        this.reactionService.drainOnShutdown();
+
+        assertTrue(this.reactionRepository.existsById(this.likeId()));
+        assertEquals(1, this.postRepository.findById(this.POST_ID).get().getLikesCount());
+
+        this.reactionBuffer.record(
+                List.of(new ReactionChange(this.POST_ID, this.USER_ID, ReactionType.LIKE, false)));
+        this.reactionService.flush();
+
+        assertNotNull(
+                this.reactionBuffer.findPending(this.POST_ID, this.USER_ID, ReactionType.LIKE));
+        assertTrue(this.reactionRepository.existsById(this.likeId()));
+    }
+
+    @Test
+    public void testFailedSyncLikeIsReportedAndNotBuffered() throws IOException {
+        this.blockReactionWrites(true);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, this.sendLikePostRequest().getStatusCode());
+
+        assertNull(this.reactionBuffer.findPending(this.POST_ID, this.USER_ID, ReactionType.LIKE));
+        assertEquals(0, this.postRepository.findById(this.POST_ID).get().getLikesCount());
+    }
+
+    private String likeId() {
+        return Reaction.idOf(this.POST_ID, this.USER_ID, ReactionType.LIKE);
+    }
+
+    private void blockReactionWrites(final boolean blocked) throws IOException {
+        final String reactionsIndex =
+                this.elasticsearchOperations.getIndexCoordinatesFor(Reaction.class).getIndexName();
+        this.elasticsearchClient
+                .indices()
+                .putSettings(
+                        new UpdateSettingsRequest(reactionsIndex)
+                                .settings(Settings.builder().put("index.blocks.write", blocked)),
+                        RequestOptions.DEFAULT);
+    }
+
+    private ResponseEntity<Void> sendLikePostRequest() {
+        final URI apiEndpoint =
+                UriComponentsBuilder.fromHttpUrl(
+                                String.format(
+                                        "http://localhost:%d/api/v1/posts/%s/likes",
+                                        this.port,
+                                        this.POST_ID))
+                        .build()
+                        .encode()
+                        .toUri();
+        final HttpHeaders headers = new HttpHeaders();
+        headers.set(
+                "Authorization",
+                String.format("Bearer %s", createAuthToken(this.USER_ID, this.JWT_SECRET)));
+        headers.set(HttpHeaders.CONTENT_LENGTH, "0");
+        final HttpEntity<Void> entity = new HttpEntity<>(null, headers);
+
+        return this.testRestTemplate.exchange(apiEndpoint, HttpMethod.GET, entity, Void.class);
+    }
+}
@@ -0,0 +1,175 @@
+package tim6.postservice.post.intergration.likes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static tim6.postservice.helpers.AuthHelper.createAuthToken;
+
+import java.net.URI;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.util.UriComponentsBuilder;
+import tim6.postservice.adapter.http.dto.PostGetDTO;
+import tim6.postservice.common.CommonTestBase;
+import tim6.postservice.domain.models.Post;
+import tim6.postservice.domain.models.ReactionCounterShard;
+import tim6.postservice.domain.models.User;
+import tim6.postservice.domain.models.UserInfo;
+import tim6.postservice.domain.repositories.PostRepository;
+import tim6.postservice.domain.repositories.ReactionCounterShardRepository;
+import tim6.postservice.domain.repositories.ReactionRepository;
+import tim6.postservice.domain.repositories.UserRepository;
+import tim6.postservice.domain.services.ReactionCounterService;
+
+public class ShardedLikesCountTest extends CommonTestBase {
+
+    private final String FIRST_USER_ID = UUID.randomUUID().toString();
+    private final String SECOND_USER_ID = UUID.randomUUID().toString();
+    private final String PUBLIC_POSTER_ID = UUID.randomUUID().toString();
+
+    private final String HOT_POST_ID = UUID.randomUUID().toString();
+
+    private final String IMAGE_URL = "testImage.jpg";
+    private final String DESCRIPTION = "Proper description";
+    private final Set<String> TAGS = Set.of("tag1", "tag2", "tag3");
+    private final Set<UserInfo> USER_TAGS = new HashSet<>();
+
+    @Value("${jwt.secret}")
+    private String JWT_SECRET;
+
+    @Autowired private PostRepository postRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ReactionRepository reactionRepository;
+    @Autowired private ReactionCounterShardRepository reactionCounterShardRepository;
+    @Autowired private ReactionCounterService reactionCounterService;
+    @Autowired private ElasticsearchOperations elasticsearchOperations;
+    @Autowired private TestRestTemplate testRestTemplate;
+    @LocalServerPort private int port;
+
+    @Before
+    public void initializeData() {
+        this.userRepository.save(
+                new User(this.PUBLIC_POSTER_ID, "publicPosterName", "posterAvatar", true));
+        this.userRepository.save(
+                new User(this.FIRST_USER_ID, "firstUserName", "userAvatar", true));
+        this.userRepository.save(
+                new User(this.SECOND_USER_ID, "secondUserName", "userAvatar", true));
+
+        final Post hotPost =
+                new Post(
+                        this.HOT_POST_ID,
+                        this.IMAGE_URL,
+                        this.DESCRIPTION,
+                        new UserInfo(this.PUBLIC_POSTER_ID, "userName", "userAvatar"),
+                        new Date(),
+                        this.TAGS,
+                        this.USER_TAGS);
+        hotPost.setLikesCount(this.reactionCounterService.getShardThreshold());
+        this.postRepository.save(hotPost);
+    }
+
+    @After
+    public void cleanUpData() {
+        this.userRepository.deleteAll();
+        this.postRepository.deleteAll();
+        this.reactionRepository.deleteAll();
+        this.reactionCounterShardRepository.deleteAll();
+    }
+
+    @Test
+    public void testLikesAboveThresholdAreShardedAndSummed() {
+        final long threshold = this.reactionCounterService.getShardThreshold();
+
+        assertEquals(
+                HttpStatus.NO_CONTENT,
+                this.sendLikePostRequest(createAuthToken(this.FIRST_USER_ID, this.JWT_SECRET))
+                        .getStatusCode());
+        assertTrue(this.reactionCounterService.isSharded(this.HOT_POST_ID));
+
+        assertEquals(
+                HttpStatus.NO_CONTENT,
+                this.sendLikePostRequest(createAuthToken(this.SECOND_USER_ID, this.JWT_SECRET))
+                        .getStatusCode());
+        assertEquals(
+                threshold + 1,
+                this.postRepository.findById(this.HOT_POST_ID).get().getLikesCount());
+
+        this.elasticsearchOperations.indexOps(ReactionCounterShard.class).refresh();
+        this.reactionCounterService.refreshShardedCounts();
+
+        final ResponseEntity<PostGetDTO> getPostResponse = this.sendGetPostRequest();
+        assertEquals(HttpStatus.OK, getPostResponse.getStatusCode());
+        assertNotNull(getPostResponse.getBody());
+        assertEquals(threshold + 2, getPostResponse.getBody().getLikes_count());
+    }
+
+    @Test
+    public void testCountsOfPostShardedByAnotherInstanceAreSummed() {
+        final long threshold = this.reactionCounterService.getShardThreshold();
+        final Post hotPost = this.postRepository.findById(this.HOT_POST_ID).get();
+        hotPost.setShardedCounters(true);
+        this.postRepository.save(hotPost);
+        this.reactionCounterShardRepository.save(
+                new ReactionCounterShard(
+                        ReactionCounterShard.idOf(this.HOT_POST_ID, 0), this.HOT_POST_ID, 3, 0, 0));
+        assertFalse(this.reactionCounterService.isSharded(this.HOT_POST_ID));
+
+        final ResponseEntity<PostGetDTO> getPostResponse = this.sendGetPostRequest();
+        assertEquals(HttpStatus.OK, getPostResponse.getStatusCode());
+        assertNotNull(getPostResponse.getBody());
+        assertEquals(threshold + 3, getPostResponse.getBody().getLikes_count());
+        assertTrue(this.reactionCounterService.isSharded(this.HOT_POST_ID));
+    }
+
+    private ResponseEntity<Void> sendLikePostRequest(final String token) {
+        final URI apiEndpoint =
+                UriComponentsBuilder.fromHttpUrl(
+                                String.format(
+                                        "http://localhost:%d/api/v1/posts/%s/likes",
+                                        this.port,
+                                        this.HOT_POST_ID))
+                        .build()
+                        .encode()
+                        .toUri();
+        final HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", String.format("Bearer %s", token));
+        headers.set(HttpHeaders.CONTENT_LENGTH, "0");
+        final HttpEntity<Void> entity = new HttpEntity<>(null, headers);
+
+        return this.testRestTemplate.exchange(apiEndpoint, HttpMethod.GET, entity, Void.class);
+    }
+
+    private ResponseEntity<PostGetDTO> sendGetPostRequest() {
+        final URI apiEndpoint =
+                UriComponentsBuilder.fromHttpUrl(
+                                String.format(
+                                        "http://localhost:%d/api/v1/posts/%s",
+                                        this.port,
+                                        this.HOT_POST_ID))
+                        .build()
+                        .encode()
+                        .toUri();
+        final HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_LENGTH, "0");
+        final HttpEntity<Void> entity = new HttpEntity<>(null, headers);
+
+        return this.testRestTemplate.exchange(
+                apiEndpoint, HttpMethod.GET, entity, PostGetDTO.class);
+    }
+}
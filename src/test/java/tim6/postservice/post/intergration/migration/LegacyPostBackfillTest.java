@@ -0,0 +1,240 @@
+package tim6.postservice.post.intergration.migration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static tim6.postservice.helpers.AuthHelper.createAuthToken;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+import tim6.postservice.adapter.http.dto.CommentGetDTO;
+import tim6.postservice.adapter.http.dto.PostGetDTO;
+import tim6.postservice.common.CommonTestBase;
+import tim6.postservice.domain.models.Comment;
+import tim6.postservice.domain.models.Post;
+import tim6.postservice.domain.models.Reaction;
+import tim6.postservice.domain.models.ReactionType;
+import tim6.postservice.domain.models.User;
+import tim6.postservice.domain.models.UserInfo;
+import tim6.postservice.domain.repositories.CommentRepository;
+import tim6.postservice.domain.repositories.PostRepository;
+import tim6.postservice.domain.repositories.ReactionRepository;
+import tim6.postservice.domain.repositories.UserRepository;
+import tim6.postservice.domain.services.CommentService;
+import tim6.postservice.domain.services.LegacyPostBackfill;
+
+public class LegacyPostBackfillTest extends CommonTestBase {
+
+    private final String USER_ID = UUID.randomUUID().toString();
+    private final String OTHER_USER_ID = UUID.randomUUID().toString();
+    private final String POSTER_ID = UUID.randomUUID().toString();
+
+    private final String LEGACY_POST_ID = UUID.randomUUID().toString();
+
+    private final List<String> LEGACY_COMMENT_IDS =
+            List.of(
+                    UUID.randomUUID().toString(),
+                    UUID.randomUUID().toString(),
+                    UUID.randomUUID().toString(),
+                    UUID.randomUUID().toString());
+
+    @Value("${jwt.secret}")
+    private String JWT_SECRET;
+
+    @Autowired private PostRepository postRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private ReactionRepository reactionRepository;
+    @Autowired private CommentRepository commentRepository;
+    @Autowired private LegacyPostBackfill legacyPostBackfill;
+    @Autowired private ElasticsearchOperations elasticsearchOperations;
+    @Autowired private TestRestTemplate testRestTemplate;
+    @LocalServerPort private int port;
+
+    @Before
+    public void initializeData() {
+        this.userRepository.save(new User(this.POSTER_ID, "posterName", "posterAvatar", true));
+        this.userRepository.save(new User(this.USER_ID, "userName", "userAvatar", true));
+        this.userRepository.save(
+                new User(this.OTHER_USER_ID, "otherUserName", "otherUserAvatar", true));
+
+        final Document source =
+                this.elasticsearchOperations
+                        .getElasticsearchConverter()
+                        .mapObject(
+                                new Post(
+                                        this.LEGACY_POST_ID,
+                                        "testImage.jpg",
+                                        "Proper description",
+                                        new UserInfo(this.POSTER_ID, "posterName", "posterAvatar"),
+                                        new Date(),
+                                        Set.of("legacy"),
+                                        new HashSet<>()));
+        source.put("likes", List.of(this.USER_ID, this.OTHER_USER_ID));
+        source.put("dislikes", List.of());
+        source.put("favorites", List.of(this.USER_ID));
+        final List<Map<String, Object>> legacyComments = new ArrayList<>();
+        for (int i = 0; i < this.LEGACY_COMMENT_IDS.size(); i++) {
+            final Comment comment =
+                    new Comment(
+                            this.LEGACY_COMMENT_IDS.get(i),
+                            null,
+                            new UserInfo(this.OTHER_USER_ID, "otherUserName", "otherUserAvatar"),
+                            "Legacy comment");
+            comment.setCommentDate(new Date(System.currentTimeMillis() - i * 1000L));
+            final Document commentSource =
+                    this.elasticsearchOperations.getElasticsearchConverter().mapObject(comment);
+            commentSource.remove("postId");
+            legacyComments.add(commentSource);
+        }
+        source.put("comments", legacyComments);
+        this.elasticsearchOperations.index(
+                new IndexQueryBuilder()
+                        .withId(this.LEGACY_POST_ID)
+                        .withSource(source.toJson())
+                        .build(),
+                this.elasticsearchOperations.getIndexCoordinatesFor(Post.class));
+        this.elasticsearchOperations.indexOps(Post.class).refresh();
+        ReflectionTestUtils.setField(this.legacyPostBackfill, "complete", false);
+    }
+
+    @After
+    public void cleanUpData() {
+        this.userRepository.deleteAll();
+        this.postRepository.deleteAll();
+        this.reactionRepository.deleteAll();
+        this.commentRepository.deleteAll();
+    }
+
+    @Test
+    public void testBackfillMigratesLegacyReactions() {
+        this.legacyPostBackfill.backfill();
+        assertFalse(this.legacyPostBackfill.isComplete());
+
+        assertTrue(
+                this.reactionRepository.existsById(
+                        Reaction.idOf(this.LEGACY_POST_ID, this.USER_ID, ReactionType.LIKE)));
+        assertTrue(
+                this.reactionRepository.existsById(
+                        Reaction.idOf(this.LEGACY_POST_ID, this.OTHER_USER_ID, ReactionType.LIKE)));
+        assertTrue(
+                this.reactionRepository.existsById(
+                        Reaction.idOf(this.LEGACY_POST_ID, this.USER_ID, ReactionType.FAVORITE)));
+
+        final Post migratedPost = this.postRepository.findById(this.LEGACY_POST_ID).get();
+        assertEquals(2, migratedPost.getLikesCount());
+        assertEquals(0, migratedPost.getDislikesCount());
+        assertEquals(1, migratedPost.getFavoritesCount());
+
+        this.elasticsearchOperations.indexOps(Post.class).refresh();
+        this.legacyPostBackfill.backfill();
+        assertTrue(this.legacyPostBackfill.isComplete());
+    }
+
+    @Test
+    public void testBackfillMigratesLegacyComments() {
+        this.legacyPostBackfill.backfill();
+
+        for (final String commentId : this.LEGACY_COMMENT_IDS) {
+            final Comment comment = this.commentRepository.findById(commentId).get();
+            assertEquals(this.LEGACY_POST_ID, comment.getPostId());
+        }
+        final Post migratedPost = this.postRepository.findById(this.LEGACY_POST_ID).get();
+        assertEquals(this.LEGACY_COMMENT_IDS.size(), migratedPost.getCommentsCount());
+        assertEquals(
+                this.LEGACY_COMMENT_IDS.subList(0, CommentService.LATEST_COMMENTS_IN_PREVIEW),
+                migratedPost.getLatestComments().stream()
+                        .map(Comment::getId)
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testGetLegacyPostBeforeBackfill() {
+        final ResponseEntity<PostGetDTO> getPostResponse =
+                this.sendGetPostRequest(createAuthToken(this.USER_ID, this.JWT_SECRET));
+
+        assertEquals(HttpStatus.OK, getPostResponse.getStatusCode());
+        assertNotNull(getPostResponse.getBody());
+        assertEquals(2, getPostResponse.getBody().getLikes_count());
+        assertEquals(1, getPostResponse.getBody().getFavorites_count());
+        assertTrue(getPostResponse.getBody().isLikedByMe());
+        assertTrue(getPostResponse.getBody().isFavoritedByMe());
+        assertEquals(this.LEGACY_COMMENT_IDS.size(), getPostResponse.getBody().getComments_count());
+        assertEquals(
+                this.LEGACY_COMMENT_IDS,
+                getPostResponse.getBody().getComments().stream()
+                        .map(CommentGetDTO::getId)
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testLikeLegacyLikedPostBeforeBackfill() {
+        final URI likePostEndpoint =
+                UriComponentsBuilder.fromHttpUrl(
+                                String.format(
+                                        "http://localhost:%d/api/v1/posts/%s/likes",
+                                        this.port,
+                                        this.LEGACY_POST_ID))
+                        .build()
+                        .encode()
+                        .toUri();
+        final HttpHeaders headers = new HttpHeaders();
+        headers.set(
+                "Authorization",
+                String.format("Bearer %s", createAuthToken(this.USER_ID, this.JWT_SECRET)));
+        headers.set(HttpHeaders.CONTENT_LENGTH, "0");
+        final ResponseEntity<Void> likePostResponse =
+                this.testRestTemplate.exchange(
+                        likePostEndpoint,
+                        HttpMethod.GET,
+                        new HttpEntity<>(null, headers),
+                        Void.class);
+        assertEquals(HttpStatus.NO_CONTENT, likePostResponse.getStatusCode());
+
+        assertEquals(2, this.postRepository.findById(this.LEGACY_POST_ID).get().getLikesCount());
+    }
+
+    private ResponseEntity<PostGetDTO> sendGetPostRequest(final String token) {
+        final URI getPostEndpoint =
+                UriComponentsBuilder.fromHttpUrl(
+                                String.format(
+                                        "http://localhost:%d/api/v1/posts/%s",
+                                        this.port,
+                                        this.LEGACY_POST_ID))
+                        .build()
+                        .encode()
+                        .toUri();
+        final HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", String.format("Bearer %s", token));
+        headers.set(HttpHeaders.CONTENT_LENGTH, "0");
+        return this.testRestTemplate.exchange(
+                getPostEndpoint,
+                HttpMethod.GET,
+                new HttpEntity<>(null, headers),
+                PostGetDTO.class);
+    }
+}
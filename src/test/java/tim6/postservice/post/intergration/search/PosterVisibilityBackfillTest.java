@@ -0,0 +1,171 @@
+package tim6.postservice.post.intergration.search;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+import tim6.postservice.adapter.http.dto.PostOverviewDTO;
+import tim6.postservice.common.CommonTestBase;
+import tim6.postservice.domain.models.Post;
+import tim6.postservice.domain.models.PropagationJob;
+import tim6.postservice.domain.models.PropagationJobStatus;
+import tim6.postservice.domain.models.User;
+import tim6.postservice.domain.models.UserInfo;
+import tim6.postservice.domain.repositories.PostRepository;
+import tim6.postservice.domain.repositories.PropagationJobRepository;
+import tim6.postservice.domain.repositories.UserRepository;
+import tim6.postservice.domain.services.PosterVisibilityBackfill;
+import tim6.postservice.domain.services.UserInfoPropagationService;
+import tim6.postservice.helpers.PostOverviewPage;
+
+public class PosterVisibilityBackfillTest extends CommonTestBase {
+
+    private final String PUBLIC_POSTER_ID = UUID.randomUUID().toString();
+    private final String PRIVATE_POSTER_ID = UUID.randomUUID().toString();
+
+    private final String PUBLIC_POST_ID = UUID.randomUUID().toString();
+    private final String PRIVATE_POST_ID = UUID.randomUUID().toString();
+
+    private final int MAX_AWAIT_ATTEMPTS = 50;
+
+    @Autowired private PostRepository postRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private PropagationJobRepository propagationJobRepository;
+    @Autowired private PosterVisibilityBackfill posterVisibilityBackfill;
+    @Autowired private UserInfoPropagationService userInfoPropagationService;
+    @Autowired private ElasticsearchOperations elasticsearchOperations;
+    @Autowired private TestRestTemplate testRestTemplate;
+    @LocalServerPort private int port;
+
+    @Before
+    public void initializeData() {
+        this.userRepository.save(
+                new User(this.PUBLIC_POSTER_ID, "publicPosterName", "posterAvatar", true));
+        this.userRepository.save(
+                new User(this.PRIVATE_POSTER_ID, "privatePosterName", "posterAvatar", false));
+
+        this.indexWithoutPosterVisibility(this.PUBLIC_POST_ID, this.PUBLIC_POSTER_ID);
+        this.indexWithoutPosterVisibility(this.PRIVATE_POST_ID, this.PRIVATE_POSTER_ID);
+        this.elasticsearchOperations.indexOps(Post.class).refresh();
+        ReflectionTestUtils.setField(this.posterVisibilityBackfill, "complete", false);
+    }
+
+    @After
+    public void cleanUpData() {
+        this.userRepository.deleteAll();
+        this.postRepository.deleteAll();
+        this.propagationJobRepository.deleteAll();
+    }
+
+    @Test
+    public void testPostsWithoutPosterVisibilityVisibleBeforeBackfill() {
+        assertEquals(List.of(this.PUBLIC_POST_ID), this.searchPostIdsByTags());
+    }
+
+    @Test
+    public void testBackfillStampsPosterVisibility() throws InterruptedException {
+        this.posterVisibilityBackfill.backfill();
+        assertFalse(this.posterVisibilityBackfill.isComplete());
+
+        this.elasticsearchOperations.indexOps(PropagationJob.class).refresh();
+        this.userInfoPropagationService.runQueuedJobs();
+        this.awaitDone(this.PUBLIC_POSTER_ID);
+        this.awaitDone(this.PRIVATE_POSTER_ID);
+        this.elasticsearchOperations.indexOps(Post.class).refresh();
+
+        this.posterVisibilityBackfill.backfill();
+        assertTrue(this.posterVisibilityBackfill.isComplete());
+        assertEquals(
+                0,
+                this.elasticsearchOperations.count(
+                        new NativeSearchQueryBuilder()
+                                .withQuery(
+                                        QueryBuilders.boolQuery()
+                                                .mustNot(
+                                                        QueryBuilders.existsQuery(
+                                                                "posterPublic")))
+                                .build(),
+                        Post.class));
+        assertEquals(List.of(this.PUBLIC_POST_ID), this.searchPostIdsByTags());
+    }
+
+    private void indexWithoutPosterVisibility(final String postId, final String posterId) {
+        final Document source =
+                this.elasticsearchOperations
+                        .getElasticsearchConverter()
+                        .mapObject(
+                                new Post(
+                                        postId,
+                                        "testImage.jpg",
+                                        "Proper description",
+                                        new UserInfo(posterId, "posterName", "posterAvatar"),
+                                        new Date(),
+                                        Set.of("backfill"),
+                                        new HashSet<>()));
+        source.remove("posterPublic");
+        this.elasticsearchOperations.index(
+                new IndexQueryBuilder().withId(postId).withSource(source.toJson()).build(),
+                this.elasticsearchOperations.getIndexCoordinatesFor(Post.class));
+    }
+
+    private List<String> searchPostIdsByTags() {
+        final URI uri =
+                UriComponentsBuilder.fromHttpUrl(
+                                String.format(
+                                        "http://localhost:%d/api/v1/posts/tags?tags=backfill",
+                                        this.port))
+                        .build()
+                        .encode()
+                        .toUri();
+        final HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_LENGTH, "0");
+        final ResponseEntity<PostOverviewPage> response =
+                this.testRestTemplate.exchange(
+                        uri,
+                        HttpMethod.GET,
+                        new HttpEntity<>(null, headers),
+                        PostOverviewPage.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        return response.getBody().getContent().stream()
+                .map(PostOverviewDTO::getId)
+                .collect(Collectors.toList());
+    }
+
+    private void awaitDone(final String userId) throws InterruptedException {
+        for (int attempt = 0; attempt < this.MAX_AWAIT_ATTEMPTS; attempt++) {
+            final PropagationJob job = this.propagationJobRepository.findById(userId).get();
+            if (job.getStatus() == PropagationJobStatus.DONE) {
+                return;
+            }
+            Thread.sleep(200);
+        }
+        throw new AssertionError("Propagation job did not finish");
+    }
+}
@@ -19,15 +19,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.util.UriComponentsBuilder;
+import tim6.postservice.adapter.http.dto.CursorPageDTO;
 import tim6.postservice.adapter.http.dto.PostOverviewDTO;
 import tim6.postservice.common.CommonTestBase;
-import tim6.postservice.domain.models.Comment;
 import tim6.postservice.domain.models.Post;
 import tim6.postservice.domain.models.User;
 import tim6.postservice.domain.models.UserInfo;
@@ -123,11 +124,8 @@ public class SearchByTagsTest extends CommonTestBase {
                         new UserInfo(this.PUBLIC_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         Set.of("tag1", "tag2"),
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
+        publicPost1.setPosterPublic(true);
         this.postRepository.save(publicPost1);
 
         final Post publicPost2 =
@@ -138,16 +136,8 @@ public class SearchByTagsTest extends CommonTestBase {
                         new UserInfo(this.PUBLIC_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         Set.of("tag2", "tag3"),
-                        this.USER_TAGS,
-                        Set.of("L1", "L2", "L3"),
-                        Set.of("D1", "D2", "D3"),
-                        Set.of("F1"),
-                        List.of(
-                                new Comment(
-                                        "CID1",
-                                        new UserInfo(
-                                                this.PUBLIC_POSTER_ID, "userName", "userAvatar"),
-                                        "content")));
+                        this.USER_TAGS);
+        publicPost2.setPosterPublic(true);
         this.postRepository.save(publicPost2);
 
         final Post publicPost3 =
@@ -158,11 +148,8 @@ public class SearchByTagsTest extends CommonTestBase {
                         new UserInfo(this.PUBLIC_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         Set.of("tag3", "tag4"),
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
+        publicPost3.setPosterPublic(true);
         this.postRepository.save(publicPost3);
 
         final Post publicPost4 =
@@ -173,11 +160,8 @@ public class SearchByTagsTest extends CommonTestBase {
                         new UserInfo(this.PUBLIC_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         new HashSet<>(),
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
+        publicPost4.setPosterPublic(true);
         this.postRepository.save(publicPost4);
 
         final Post privatePostByFollowedPoster1 =
@@ -188,11 +172,7 @@ public class SearchByTagsTest extends CommonTestBase {
                         new UserInfo(this.PRIVATE_FOLLOWED_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
         this.postRepository.save(privatePostByFollowedPoster1);
 
         final Post privatePostByFollowedPoster2 =
@@ -203,11 +183,7 @@ public class SearchByTagsTest extends CommonTestBase {
                         new UserInfo(this.PRIVATE_FOLLOWED_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
         this.postRepository.save(privatePostByFollowedPoster2);
 
         final Post privatePostByFollowedPoster3 =
@@ -218,11 +194,7 @@ public class SearchByTagsTest extends CommonTestBase {
                         new UserInfo(this.PRIVATE_FOLLOWED_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
         this.postRepository.save(privatePostByFollowedPoster3);
 
         final Post privatePostByNotFollowedPoster1 =
@@ -233,11 +205,7 @@ public class SearchByTagsTest extends CommonTestBase {
                         new UserInfo(this.PRIVATE_NOT_FOLLOWED_POST_ID_1, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
         this.postRepository.save(privatePostByNotFollowedPoster1);
 
         final Post privatePostByNotFollowedPoster2 =
@@ -248,11 +216,7 @@ public class SearchByTagsTest extends CommonTestBase {
                         new UserInfo(this.PRIVATE_NOT_FOLLOWED_POST_ID_2, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
         this.postRepository.save(privatePostByNotFollowedPoster2);
 
         final Post privatePostByNotFollowedPoster3 =
@@ -263,11 +227,7 @@ public class SearchByTagsTest extends CommonTestBase {
                         new UserInfo(this.PRIVATE_NOT_FOLLOWED_POST_ID_3, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
         this.postRepository.save(privatePostByNotFollowedPoster3);
     }
 
@@ -395,6 +355,91 @@ public class SearchByTagsTest extends CommonTestBase {
         softAssertions.assertAll();
     }
 
+    @Test
+    public void testGetPrivatePostsWithCursor() {
+        final String token = AuthHelper.createAuthToken(this.USER_ID, this.JWT_SECRET);
+        final List<String> seenPostIds = new ArrayList<>();
+        String cursor = "";
+        do {
+            final URI uri = this.buildGetPostsByTagsUri("tag1,tag2", cursor, 2);
+            final ResponseEntity<CursorPageDTO<PostOverviewDTO>> pageResponse =
+                    this.sendSearchPostsByTagsCursorRequest(uri, token);
+            assertEquals(HttpStatus.OK, pageResponse.getStatusCode());
+            assertNotNull(pageResponse.getBody());
+
+            pageResponse.getBody().getContent().stream()
+                    .map(PostOverviewDTO::getId)
+                    .forEach(seenPostIds::add);
+            cursor = pageResponse.getBody().getNextCursor();
+        } while (cursor != null);
+
+        final SoftAssertions softAssertions = new SoftAssertions();
+        softAssertions.assertThat(seenPostIds).doesNotHaveDuplicates();
+        softAssertions
+                .assertThat(seenPostIds)
+                .containsOnly(
+                        this.PUBLIC_POST_ID_1,
+                        this.PUBLIC_POST_ID_2,
+                        this.PRIVATE_FOLLOWED_POST_ID_1,
+                        this.PRIVATE_FOLLOWED_POST_ID_2,
+                        this.PRIVATE_FOLLOWED_POST_ID_3);
+        softAssertions.assertAll();
+    }
+
+    @Test
+    public void testGetPrivatePostsWithCursorIgnoresPostsIndexedAfterFirstPage() {
+        final String token = AuthHelper.createAuthToken(this.USER_ID, this.JWT_SECRET);
+        final List<String> seenPostIds = new ArrayList<>();
+        final ResponseEntity<CursorPageDTO<PostOverviewDTO>> firstPageResponse =
+                this.sendSearchPostsByTagsCursorRequest(
+                        this.buildGetPostsByTagsUri("tag1,tag2", "", 2), token);
+        assertEquals(HttpStatus.OK, firstPageResponse.getStatusCode());
+        assertNotNull(firstPageResponse.getBody());
+        firstPageResponse.getBody().getContent().stream()
+                .map(PostOverviewDTO::getId)
+                .forEach(seenPostIds::add);
+
+        final String latePostId = UUID.randomUUID().toString();
+        final Post latePost =
+                new Post(
+                        latePostId,
+                        this.IMAGE_URL,
+                        this.DESCRIPTION,
+                        new UserInfo(this.PUBLIC_POSTER_ID, "userName", "userAvatar"),
+                        new Date(0),
+                        Set.of("tag1"),
+                        this.USER_TAGS);
+        latePost.setPosterPublic(true);
+        this.postRepository.save(latePost);
+
+        String cursor = firstPageResponse.getBody().getNextCursor();
+        while (cursor != null) {
+            final URI uri = this.buildGetPostsByTagsUri("tag1,tag2", cursor, 2);
+            final ResponseEntity<CursorPageDTO<PostOverviewDTO>> pageResponse =
+                    this.sendSearchPostsByTagsCursorRequest(uri, token);
+            assertEquals(HttpStatus.OK, pageResponse.getStatusCode());
+            assertNotNull(pageResponse.getBody());
+
+            pageResponse.getBody().getContent().stream()
+                    .map(PostOverviewDTO::getId)
+                    .forEach(seenPostIds::add);
+            cursor = pageResponse.getBody().getNextCursor();
+        }
+
+        final SoftAssertions softAssertions = new SoftAssertions();
+        softAssertions.assertThat(seenPostIds).doesNotHaveDuplicates();
+        softAssertions.assertThat(seenPostIds).doesNotContain(latePostId);
+        softAssertions
+                .assertThat(seenPostIds)
+                .containsOnly(
+                        this.PUBLIC_POST_ID_1,
+                        this.PUBLIC_POST_ID_2,
+                        this.PRIVATE_FOLLOWED_POST_ID_1,
+                        this.PRIVATE_FOLLOWED_POST_ID_2,
+                        this.PRIVATE_FOLLOWED_POST_ID_3);
+        softAssertions.assertAll();
+    }
+
     private URI buildGetPostsByTagsUri(final String tags) {
         final UriComponentsBuilder builder =
                 UriComponentsBuilder.fromHttpUrl(
@@ -412,6 +457,26 @@ public class SearchByTagsTest extends CommonTestBase {
         return builder.build().encode().toUri();
     }
 
+    private URI buildGetPostsByTagsUri(final String tags, final String cursor, final int size) {
+        final UriComponentsBuilder builder =
+                UriComponentsBuilder.fromHttpUrl(
+                                String.format(
+                                        "http://localhost:%d/api/v1/posts/tags?tags=%s&size=%s",
+                                        this.port, tags, size))
+                        .queryParam("cursor", cursor);
+        return builder.build().encode().toUri();
+    }
+
+    private ResponseEntity<CursorPageDTO<PostOverviewDTO>> sendSearchPostsByTagsCursorRequest(
+            final URI apiEndpoint, final String token) {
+        final HttpHeaders headers = new HttpHeaders();
+        headers.set("Authorization", String.format("Bearer %s", token));
+        headers.set(HttpHeaders.CONTENT_LENGTH, "0");
+        final HttpEntity<Void> entity = new HttpEntity<>(null, headers);
+        return this.testRestTemplate.exchange(
+                apiEndpoint, HttpMethod.GET, entity, new ParameterizedTypeReference<>() {});
+    }
+
     private ResponseEntity<PostOverviewPage> sendSearchPostsByTagsPostRequest(
             final URI apiEndpoint, final String token) {
         final HttpHeaders headers = new HttpHeaders();
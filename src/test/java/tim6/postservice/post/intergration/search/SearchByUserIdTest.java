@@ -4,7 +4,6 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
 import java.net.URI;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
@@ -27,7 +26,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.util.UriComponentsBuilder;
 import tim6.postservice.adapter.http.dto.PostOverviewDTO;
 import tim6.postservice.common.CommonTestBase;
-import tim6.postservice.domain.models.Comment;
 import tim6.postservice.domain.models.Post;
 import tim6.postservice.domain.models.User;
 import tim6.postservice.domain.models.UserInfo;
@@ -122,11 +120,7 @@ public class SearchByUserIdTest extends CommonTestBase {
                         new UserInfo(this.PUBLIC_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
         this.postRepository.save(publicPost1);
 
         final Post publicPost2 =
@@ -137,16 +131,7 @@ public class SearchByUserIdTest extends CommonTestBase {
                         new UserInfo(this.PUBLIC_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        Set.of("L1", "L2", "L3"),
-                        Set.of("D1", "D2", "D3"),
-                        Set.of("F1"),
-                        List.of(
-                                new Comment(
-                                        "CID1",
-                                        new UserInfo(
-                                                this.PUBLIC_POSTER_ID, "userName", "userAvatar"),
-                                        "content")));
+                        this.USER_TAGS);
         this.postRepository.save(publicPost2);
 
         final Post publicPost3 =
@@ -157,11 +142,7 @@ public class SearchByUserIdTest extends CommonTestBase {
                         new UserInfo(this.PUBLIC_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
         this.postRepository.save(publicPost3);
 
         final Post privatePostByFollowedPoster1 =
@@ -172,11 +153,7 @@ public class SearchByUserIdTest extends CommonTestBase {
                         new UserInfo(this.PRIVATE_FOLLOWED_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
         this.postRepository.save(privatePostByFollowedPoster1);
 
         final Post privatePostByFollowedPoster2 =
@@ -187,11 +164,7 @@ public class SearchByUserIdTest extends CommonTestBase {
                         new UserInfo(this.PRIVATE_FOLLOWED_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
         this.postRepository.save(privatePostByFollowedPoster2);
 
         final Post privatePostByFollowedPoster3 =
@@ -202,11 +175,7 @@ public class SearchByUserIdTest extends CommonTestBase {
                         new UserInfo(this.PRIVATE_FOLLOWED_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
         this.postRepository.save(privatePostByFollowedPoster3);
 
         final Post privatePostByNotFollowedPoster1 =
@@ -217,11 +186,7 @@ public class SearchByUserIdTest extends CommonTestBase {
                         new UserInfo(this.PRIVATE_NOT_FOLLOWED_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
         this.postRepository.save(privatePostByNotFollowedPoster1);
 
         final Post privatePostByNotFollowedPoster2 =
@@ -232,11 +197,7 @@ public class SearchByUserIdTest extends CommonTestBase {
                         new UserInfo(this.PRIVATE_NOT_FOLLOWED_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
         this.postRepository.save(privatePostByNotFollowedPoster2);
 
         final Post privatePostByNotFollowedPoster3 =
@@ -247,11 +208,7 @@ public class SearchByUserIdTest extends CommonTestBase {
                         new UserInfo(this.PRIVATE_NOT_FOLLOWED_POSTER_ID, "userName", "userAvatar"),
                         new Date(),
                         this.TAGS,
-                        this.USER_TAGS,
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new HashSet<>(),
-                        new ArrayList<>());
+                        this.USER_TAGS);
         this.postRepository.save(privatePostByNotFollowedPoster3);
     }
 
@@ -0,0 +1,97 @@
+package tim6.postservice.post.intergration.users;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import tim6.postservice.common.CommonTestBase;
+import tim6.postservice.domain.models.GraphChange;
+import tim6.postservice.domain.models.GraphChangeType;
+import tim6.postservice.domain.models.User;
+import tim6.postservice.domain.repositories.UserRepository;
+import tim6.postservice.domain.services.FollowersCountBackfill;
+import tim6.postservice.domain.services.UserService;
+
+public class GraphChangesBatchTest extends CommonTestBase {
+
+    private final String USER_ID = UUID.randomUUID().toString();
+    private final String FIRST_TARGET_ID = UUID.randomUUID().toString();
+    private final String SECOND_TARGET_ID = UUID.randomUUID().toString();
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private UserService userService;
+    @Autowired private FollowersCountBackfill followersCountBackfill;
+
+    @Before
+    public void initializeData() {
+        this.userRepository.save(new User(this.USER_ID, "userName", "userAvatar", true));
+        this.userRepository.save(
+                new User(this.FIRST_TARGET_ID, "firstTargetName", "userAvatar", true));
+        this.userRepository.save(
+                new User(this.SECOND_TARGET_ID, "secondTargetName", "userAvatar", true));
+    }
+
+    @After
+    public void cleanUpData() {
+        this.userRepository.deleteAll();
+    }
+
+    @Test
+    public void testGraphChangesAppliedInOrder() {
+        this.userService.applyGraphChanges(
+                List.of(
+                        new GraphChange(
+                                GraphChangeType.FOLLOW, this.USER_ID, this.FIRST_TARGET_ID, true),
+                        new GraphChange(
+                                GraphChangeType.FOLLOW, this.USER_ID, this.SECOND_TARGET_ID, true),
+                        new GraphChange(
+                                GraphChangeType.FOLLOW,
+                                this.USER_ID,
+                                this.SECOND_TARGET_ID,
+                                false),
+                        new GraphChange(
+                                GraphChangeType.FOLLOW,
+                                this.SECOND_TARGET_ID,
+                                this.FIRST_TARGET_ID,
+                                true),
+                        new GraphChange(
+                                GraphChangeType.MUTE, this.USER_ID, this.FIRST_TARGET_ID, true),
+                        new GraphChange(
+                                GraphChangeType.BLOCK, this.USER_ID, this.SECOND_TARGET_ID, true)));
+
+        final User user = this.userRepository.findById(this.USER_ID).get();
+        assertEquals(Set.of(this.FIRST_TARGET_ID), user.getFollowing());
+        assertEquals(Set.of(this.FIRST_TARGET_ID), user.getMuted());
+        assertEquals(Set.of(this.SECOND_TARGET_ID), user.getBlocked());
+        assertEquals(
+                2, this.userRepository.findById(this.FIRST_TARGET_ID).get().getFollowersCount());
+        assertEquals(
+                0, this.userRepository.findById(this.SECOND_TARGET_ID).get().getFollowersCount());
+    }
+
+    @Test
+    public void testFollowersCountBackfillRecountsFollowers() {
+        final User user = this.userRepository.findById(this.USER_ID).get();
+        user.getFollowing().add(this.FIRST_TARGET_ID);
+        this.userRepository.save(user);
+        final User firstTarget = this.userRepository.findById(this.FIRST_TARGET_ID).get();
+        firstTarget.setFollowersCount(5);
+        this.userRepository.save(firstTarget);
+        final User secondTarget = this.userRepository.findById(this.SECOND_TARGET_ID).get();
+        secondTarget.setFollowersCount(2);
+        this.userRepository.save(secondTarget);
+
+        assertEquals(2, this.followersCountBackfill.backfill());
+
+        assertEquals(
+                1, this.userRepository.findById(this.FIRST_TARGET_ID).get().getFollowersCount());
+        assertEquals(
+                0, this.userRepository.findById(this.SECOND_TARGET_ID).get().getFollowersCount());
+        assertEquals(0, this.followersCountBackfill.backfill());
+    }
+}
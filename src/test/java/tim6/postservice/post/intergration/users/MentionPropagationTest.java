@@ -0,0 +1,161 @@
+package tim6.postservice.post.intergration.users;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import tim6.postservice.common.CommonTestBase;
+import tim6.postservice.domain.models.Comment;
+import tim6.postservice.domain.models.Post;
+import tim6.postservice.domain.models.PropagationJob;
+import tim6.postservice.domain.models.PropagationJobStatus;
+import tim6.postservice.domain.models.User;
+import tim6.postservice.domain.models.UserInfo;
+import tim6.postservice.domain.repositories.CommentRepository;
+import tim6.postservice.domain.repositories.PropagationJobRepository;
+import tim6.postservice.domain.repositories.UserRepository;
+import tim6.postservice.domain.services.StreamedUpdatePipeline;
+import tim6.postservice.domain.services.UserInfoPropagationService;
+
+public class MentionPropagationTest extends CommonTestBase {
+
+    private final String COMMENTER_ID = UUID.randomUUID().toString();
+    private final String OTHER_USER_ID = UUID.randomUUID().toString();
+
+    private final int PAGE_SIZE = 2;
+    private final int COMMENTS_COUNT = 7;
+
+    private final int MAX_AWAIT_ATTEMPTS = 50;
+
+    private final String POST_ID = UUID.randomUUID().toString();
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private CommentRepository commentRepository;
+    @Autowired private PropagationJobRepository propagationJobRepository;
+    @Autowired private StreamedUpdatePipeline streamedUpdatePipeline;
+    @Autowired private UserInfoPropagationService userInfoPropagationService;
+    @Autowired private ElasticsearchOperations elasticsearchOperations;
+
+    @Before
+    public void initializeData() {
+        ReflectionTestUtils.setField(this.streamedUpdatePipeline, "pageSize", this.PAGE_SIZE);
+
+        this.userRepository.save(new User(this.COMMENTER_ID, "commenterName", "avatar", true));
+        this.userRepository.save(new User(this.OTHER_USER_ID, "otherName", "avatar", true));
+
+        final List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < this.COMMENTS_COUNT; i++) {
+            comments.add(
+                    new Comment(
+                            this.POST_ID,
+                            new UserInfo(this.COMMENTER_ID, "commenterName", "avatar"),
+                            "Comment " + i));
+        }
+        comments.add(
+                new Comment(
+                        this.POST_ID,
+                        new UserInfo(this.OTHER_USER_ID, "otherName", "avatar"),
+                        "Other comment"));
+        this.commentRepository.saveAll(comments);
+        this.elasticsearchOperations.indexOps(Comment.class).refresh();
+        this.elasticsearchOperations.indexOps(Post.class).refresh();
+    }
+
+    @After
+    public void cleanUpData() {
+        ReflectionTestUtils.setField(this.streamedUpdatePipeline, "pageSize", 500);
+        ReflectionTestUtils.setField(
+                this.streamedUpdatePipeline, "updateByQueryMaxDocuments", 1000L);
+
+        this.userRepository.deleteAll();
+        this.commentRepository.deleteAll();
+        this.propagationJobRepository.deleteAll();
+    }
+
+    @Test
+    public void testAllPagesOfMentionsUpdated() throws InterruptedException {
+        ReflectionTestUtils.setField(
+                this.streamedUpdatePipeline, "updateByQueryMaxDocuments", 0L);
+        final User commenter = this.userRepository.findById(this.COMMENTER_ID).get();
+        commenter.setUsername("renamedCommenter");
+        commenter.setProfileVersion(1);
+        this.userInfoPropagationService.enqueue(commenter, false);
+        this.elasticsearchOperations.indexOps(PropagationJob.class).refresh();
+        this.userInfoPropagationService.runQueuedJobs();
+
+        final PropagationJob job = this.awaitDone(this.COMMENTER_ID);
+        assertEquals(this.COMMENTS_COUNT, job.getDocumentsUpdated());
+        assertFalse(job.getCheckpoint().isEmpty());
+        this.assertCommentsRenamed("renamedCommenter");
+    }
+
+    @Test
+    public void testSmallPropagationRunsAsUpdateByQuery() throws InterruptedException {
+        final User commenter = this.userRepository.findById(this.COMMENTER_ID).get();
+        commenter.setUsername("renamedCommenter");
+        commenter.setProfileVersion(1);
+        this.userInfoPropagationService.enqueue(commenter, false);
+        this.elasticsearchOperations.indexOps(PropagationJob.class).refresh();
+        this.userInfoPropagationService.runQueuedJobs();
+
+        final PropagationJob job = this.awaitDone(this.COMMENTER_ID);
+        assertEquals(this.COMMENTS_COUNT, job.getDocumentsUpdated());
+        assertTrue(job.getCheckpoint().isEmpty());
+        this.assertCommentsRenamed("renamedCommenter");
+    }
+
+    @Test
+    public void testOlderProfileVersionDoesNotSupersedeNewer() {
+        final User commenter = this.userRepository.findById(this.COMMENTER_ID).get();
+        commenter.setUsername("newerName");
+        commenter.setProfileVersion(2);
+        this.userInfoPropagationService.enqueue(commenter, false);
+
+        commenter.setUsername("olderName");
+        commenter.setProfileVersion(1);
+        this.userInfoPropagationService.enqueue(commenter, false);
+
+        final PropagationJob job =
+                this.propagationJobRepository.findById(this.COMMENTER_ID).get();
+        assertEquals(2, job.getProfileVersion());
+        assertEquals("newerName", job.getUserInfo().getUsername());
+    }
+
+    private void assertCommentsRenamed(final String username) {
+        this.elasticsearchOperations.indexOps(Comment.class).refresh();
+
+        int renamed = 0;
+        int untouched = 0;
+        for (final Comment comment : this.commentRepository.findAll()) {
+            if (comment.getCommenter().getId().equals(this.COMMENTER_ID)) {
+                assertEquals(username, comment.getCommenter().getUsername());
+                renamed++;
+            } else {
+                assertEquals("otherName", comment.getCommenter().getUsername());
+                untouched++;
+            }
+        }
+        assertEquals(this.COMMENTS_COUNT, renamed);
+        assertEquals(1, untouched);
+    }
+
+    private PropagationJob awaitDone(final String userId) throws InterruptedException {
+        for (int attempt = 0; attempt < this.MAX_AWAIT_ATTEMPTS; attempt++) {
+            final PropagationJob job = this.propagationJobRepository.findById(userId).get();
+            if (job.getStatus() == PropagationJobStatus.DONE) {
+                return job;
+            }
+            Thread.sleep(200);
+        }
+        throw new AssertionError("Propagation job did not finish");
+    }
+}
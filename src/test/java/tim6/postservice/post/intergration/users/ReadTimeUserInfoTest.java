@@ -0,0 +1,162 @@
+package tim6.postservice.post.intergration.users;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.net.URI;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.util.UriComponentsBuilder;
+import tim6.postservice.adapter.http.dto.PostGetDTO;
+import tim6.postservice.adapter.http.dto.UserInfoDTO;
+import tim6.postservice.adapter.kafka.VisibilityConsumerService;
+import tim6.postservice.adapter.kafka.models.KafkaMessage;
+import tim6.postservice.adapter.kafka.models.payloads.UserPayload;
+import tim6.postservice.common.CommonTestBase;
+import tim6.postservice.domain.models.Post;
+import tim6.postservice.domain.models.User;
+import tim6.postservice.domain.models.UserInfo;
+import tim6.postservice.domain.repositories.PostRepository;
+import tim6.postservice.domain.repositories.UserRepository;
+import tim6.postservice.domain.services.UserInfoMode;
+import tim6.postservice.domain.services.UserInfoResolver;
+
+public class ReadTimeUserInfoTest extends CommonTestBase {
+
+    private final String PUBLIC_POSTER_ID = UUID.randomUUID().toString();
+    private final String TAGGED_USER_ID = UUID.randomUUID().toString();
+
+    private final String PUBLIC_POST_ID = UUID.randomUUID().toString();
+
+    private final String IMAGE_URL = "testImage.jpg";
+    private final String DESCRIPTION = "Proper description";
+    private final Set<String> TAGS = Set.of("tag1", "tag2", "tag3");
+
+    @Autowired private PostRepository postRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private UserInfoResolver userInfoResolver;
+    @Autowired private VisibilityConsumerService visibilityConsumerService;
+    @Autowired private TestRestTemplate testRestTemplate;
+    @LocalServerPort private int port;
+
+    @Before
+    public void initializeData() {
+        ReflectionTestUtils.setField(
+                this.userInfoResolver, "userInfoMode", UserInfoMode.READ_TIME);
+
+        this.userRepository.save(
+                new User(this.PUBLIC_POSTER_ID, "publicPosterName", "posterAvatar", true));
+        this.userRepository.save(
+                new User(this.TAGGED_USER_ID, "taggedUserName", "taggedAvatar", true));
+
+        this.postRepository.save(
+                new Post(
+                        this.PUBLIC_POST_ID,
+                        this.IMAGE_URL,
+                        this.DESCRIPTION,
+                        new UserInfo(this.PUBLIC_POSTER_ID),
+                        new Date(),
+                        this.TAGS,
+                        Set.of(new UserInfo(this.TAGGED_USER_ID))));
+    }
+
+    @After
+    public void cleanUpData() {
+        ReflectionTestUtils.setField(
+                this.userInfoResolver, "userInfoMode", UserInfoMode.DENORMALIZED);
+
+        this.userRepository.deleteAll();
+        this.postRepository.deleteAll();
+    }
+
+    @Test
+    public void testUserInfoResolvedAtReadTime() {
+        final ResponseEntity<PostGetDTO> response = this.sendGetPostRequest();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(
+                new UserInfoDTO(this.PUBLIC_POSTER_ID, "publicPosterName", "posterAvatar"),
+                response.getBody().getPoster());
+        assertEquals(
+                Set.of(new UserInfoDTO(this.TAGGED_USER_ID, "taggedUserName", "taggedAvatar")),
+                response.getBody().getUserTags());
+    }
+
+    @Test
+    public void testProfileChangeVisibleWithoutRewritingPosts() {
+        final User poster = this.userRepository.findById(this.PUBLIC_POSTER_ID).get();
+        poster.setUsername("renamedPoster");
+        poster.setUserAvatar("renamedAvatar");
+        this.userRepository.save(poster);
+
+        final ResponseEntity<PostGetDTO> response = this.sendGetPostRequest();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(
+                new UserInfoDTO(this.PUBLIC_POSTER_ID, "renamedPoster", "renamedAvatar"),
+                response.getBody().getPoster());
+        assertEquals(
+                "",
+                this.postRepository.findById(this.PUBLIC_POST_ID).get().getPoster().getUsername());
+    }
+
+    @Test
+    public void testProfileChangeSavedByAnotherInstanceVisible() {
+        assertEquals(
+                new UserInfoDTO(this.PUBLIC_POSTER_ID, "publicPosterName", "posterAvatar"),
+                this.sendGetPostRequest().getBody().getPoster());
+
+        this.visibilityConsumerService.receiveVisibilityMessages(
+                List.of(
+                        new KafkaMessage(
+                                "USER",
+                                new UserPayload(
+                                        this.PUBLIC_POSTER_ID,
+                                        "renamedPoster",
+                                        "renamedAvatar",
+                                        true))),
+                List.of(System.currentTimeMillis()));
+
+        final ResponseEntity<PostGetDTO> response = this.sendGetPostRequest();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(
+                new UserInfoDTO(this.PUBLIC_POSTER_ID, "renamedPoster", "renamedAvatar"),
+                response.getBody().getPoster());
+    }
+
+    private ResponseEntity<PostGetDTO> sendGetPostRequest() {
+        final URI apiEndpoint =
+                UriComponentsBuilder.fromHttpUrl(
+                                String.format(
+                                        "http://localhost:%d/api/v1/posts/%s",
+                                        this.port,
+                                        this.PUBLIC_POST_ID))
+                        .build()
+                        .encode()
+                        .toUri();
+        final HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_LENGTH, "0");
+        final HttpEntity<Void> entity = new HttpEntity<>(null, headers);
+
+        return this.testRestTemplate.exchange(
+                apiEndpoint, HttpMethod.GET, entity, PostGetDTO.class);
+    }
+}
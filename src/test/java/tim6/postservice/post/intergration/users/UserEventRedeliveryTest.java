@@ -0,0 +1,119 @@
+package tim6.postservice.post.intergration.users;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import tim6.postservice.adapter.kafka.ConsumerService;
+import tim6.postservice.adapter.kafka.models.KafkaMessage;
+import tim6.postservice.adapter.kafka.models.payloads.UserPayload;
+import tim6.postservice.common.CommonTestBase;
+import tim6.postservice.domain.models.PropagationJob;
+import tim6.postservice.domain.models.PropagationJobStatus;
+import tim6.postservice.domain.models.User;
+import tim6.postservice.domain.repositories.PropagationJobRepository;
+import tim6.postservice.domain.repositories.UserRepository;
+import tim6.postservice.domain.services.UserInfoPropagationService;
+
+public class UserEventRedeliveryTest extends CommonTestBase {
+
+    private final String USER_ID = UUID.randomUUID().toString();
+
+    private final long EVENT_TIMESTAMP = 1_600_000_000_000L;
+
+    private final int MAX_AWAIT_ATTEMPTS = 50;
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private PropagationJobRepository propagationJobRepository;
+    @Autowired private ConsumerService consumerService;
+    @Autowired private UserInfoPropagationService userInfoPropagationService;
+    @Autowired private ElasticsearchOperations elasticsearchOperations;
+
+    @Before
+    public void initializeData() {
+        this.userRepository.save(new User(this.USER_ID, "userName", "userAvatar", true));
+    }
+
+    @After
+    public void cleanUpData() {
+        this.userRepository.deleteAll();
+        this.propagationJobRepository.deleteAll();
+    }
+
+    @Test
+    public void testRedeliveredUserEventDoesNotRestartPropagation() throws InterruptedException {
+        this.receiveUserEvent("renamedUser", this.EVENT_TIMESTAMP);
+        this.elasticsearchOperations.indexOps(PropagationJob.class).refresh();
+        this.userInfoPropagationService.runQueuedJobs();
+        final Date finishedAt = this.awaitDone(this.USER_ID).getHeartbeatAt();
+
+        this.receiveUserEvent("renamedUser", this.EVENT_TIMESTAMP);
+
+        final PropagationJob job = this.propagationJobRepository.findById(this.USER_ID).get();
+        assertEquals(PropagationJobStatus.DONE, job.getStatus());
+        assertEquals(this.EVENT_TIMESTAMP, job.getProfileVersion());
+        assertEquals(finishedAt, job.getHeartbeatAt());
+        assertEquals(
+                this.EVENT_TIMESTAMP,
+                this.userRepository.findById(this.USER_ID).get().getProfileVersion());
+    }
+
+    @Test
+    public void testOlderUserEventIgnored() {
+        this.receiveUserEvent("newerName", this.EVENT_TIMESTAMP);
+        this.receiveUserEvent("olderName", this.EVENT_TIMESTAMP - 1);
+
+        final User user = this.userRepository.findById(this.USER_ID).get();
+        assertEquals("newerName", user.getUsername());
+        assertEquals(this.EVENT_TIMESTAMP, user.getProfileVersion());
+        assertEquals(
+                "newerName",
+                this.propagationJobRepository
+                        .findById(this.USER_ID)
+                        .get()
+                        .getUserInfo()
+                        .getUsername());
+    }
+
+    @Test
+    public void testUserEventWithSameTimestampApplied() {
+        this.receiveUserEvent("firstName", this.EVENT_TIMESTAMP);
+        this.receiveUserEvent("secondName", this.EVENT_TIMESTAMP);
+
+        final User user = this.userRepository.findById(this.USER_ID).get();
+        assertEquals("secondName", user.getUsername());
+        assertEquals(
+                "secondName",
+                this.propagationJobRepository
+                        .findById(this.USER_ID)
+                        .get()
+                        .getUserInfo()
+                        .getUsername());
+    }
+
+    private void receiveUserEvent(final String username, final long timestamp) {
+        this.consumerService.receiveMessages(
+                List.of(
+                        new KafkaMessage(
+                                "USER",
+                                new UserPayload(this.USER_ID, username, "userAvatar", true))),
+                List.of(timestamp));
+    }
+
+    private PropagationJob awaitDone(final String userId) throws InterruptedException {
+        for (int attempt = 0; attempt < this.MAX_AWAIT_ATTEMPTS; attempt++) {
+            final PropagationJob job = this.propagationJobRepository.findById(userId).get();
+            if (job.getStatus() == PropagationJobStatus.DONE) {
+                return job;
+            }
+            Thread.sleep(200);
+        }
+        throw new AssertionError("Propagation job did not finish");
+    }
+}
@@ -0,0 +1,193 @@
+package tim6.postservice.post.intergration.users;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.kafka.listener.ConsumerSeekAware.ConsumerSeekCallback;
+import org.springframework.test.util.ReflectionTestUtils;
+import tim6.postservice.adapter.kafka.VisibilityConsumerService;
+import tim6.postservice.adapter.kafka.models.KafkaMessage;
+import tim6.postservice.adapter.kafka.models.payloads.BlockPayload;
+import tim6.postservice.adapter.kafka.models.payloads.FollowPayload;
+import tim6.postservice.adapter.kafka.models.payloads.UserPayload;
+import tim6.postservice.common.CommonTestBase;
+import tim6.postservice.domain.models.User;
+import tim6.postservice.domain.repositories.UserRepository;
+import tim6.postservice.domain.services.UserService;
+
+public class VisibilityReplicationTest extends CommonTestBase {
+
+    private final String VIEWER_ID = UUID.randomUUID().toString();
+    private final String PRIVATE_POSTER_ID = UUID.randomUUID().toString();
+
+    private final String ANONYMOUS_USER = "anonymousUser";
+
+    private final long EVENT_TIMESTAMP = 1_600_000_000_000L;
+
+    private final long SNAPSHOT_OFFSET = 42L;
+
+    @Autowired private UserRepository userRepository;
+    @Autowired private UserService userService;
+    @Autowired private VisibilityConsumerService visibilityConsumerService;
+    @Autowired private ElasticsearchOperations elasticsearchOperations;
+
+    @Before
+    public void initializeData() {
+        this.userRepository.save(new User(this.VIEWER_ID, "viewerName", "viewerAvatar", true));
+        this.userRepository.save(
+                new User(this.PRIVATE_POSTER_ID, "privatePosterName", "posterAvatar", false));
+    }
+
+    @After
+    public void cleanUpData() {
+        this.userRepository.deleteAll();
+    }
+
+    @Test
+    public void testFollowSavedByAnotherInstanceMakesPrivatePosterVisible() {
+        assertFalse(this.userService.canView(this.VIEWER_ID, this.PRIVATE_POSTER_ID));
+
+        this.receiveVisibilityEvent(
+                new KafkaMessage(
+                        "FOLLOW", new FollowPayload(this.VIEWER_ID, this.PRIVATE_POSTER_ID, true)),
+                this.EVENT_TIMESTAMP);
+
+        assertTrue(this.userService.canView(this.VIEWER_ID, this.PRIVATE_POSTER_ID));
+    }
+
+    @Test
+    public void testBlockSavedByAnotherInstanceHidesFollowedPoster() {
+        this.receiveVisibilityEvent(
+                new KafkaMessage(
+                        "FOLLOW", new FollowPayload(this.VIEWER_ID, this.PRIVATE_POSTER_ID, true)),
+                this.EVENT_TIMESTAMP);
+        this.receiveVisibilityEvent(
+                new KafkaMessage(
+                        "BLOCK", new BlockPayload(this.VIEWER_ID, this.PRIVATE_POSTER_ID, true)),
+                this.EVENT_TIMESTAMP);
+
+        assertFalse(this.userService.canView(this.VIEWER_ID, this.PRIVATE_POSTER_ID));
+    }
+
+    @Test
+    public void testAccountVisibilityChangeAppliedInOrderOfEvents() {
+        this.receiveVisibilityEvent(
+                new KafkaMessage(
+                        "USER",
+                        new UserPayload(
+                                this.PRIVATE_POSTER_ID, "privatePosterName", "posterAvatar", true)),
+                this.EVENT_TIMESTAMP);
+        assertTrue(this.userService.canView(this.ANONYMOUS_USER, this.PRIVATE_POSTER_ID));
+
+        this.receiveVisibilityEvent(
+                new KafkaMessage(
+                        "USER",
+                        new UserPayload(
+                                this.PRIVATE_POSTER_ID,
+                                "privatePosterName",
+                                "posterAvatar",
+                                false)),
+                this.EVENT_TIMESTAMP - 1);
+        assertTrue(this.userService.canView(this.ANONYMOUS_USER, this.PRIVATE_POSTER_ID));
+    }
+
+    @Test
+    public void testReindexPicksUpFollowSavedByAnotherInstance() {
+        assertFalse(this.userService.canView(this.VIEWER_ID, this.PRIVATE_POSTER_ID));
+
+        final User viewer =
+                new User(
+                        this.VIEWER_ID,
+                        "viewerName",
+                        "viewerAvatar",
+                        true,
+                        Set.of(this.PRIVATE_POSTER_ID),
+                        Set.of(),
+                        Set.of());
+        this.elasticsearchOperations.index(
+                new IndexQueryBuilder()
+                        .withId(this.VIEWER_ID)
+                        .withSource(
+                                this.elasticsearchOperations
+                                        .getElasticsearchConverter()
+                                        .mapObject(viewer)
+                                        .toJson())
+                        .build(),
+                this.elasticsearchOperations.getIndexCoordinatesFor(User.class));
+        this.elasticsearchOperations.indexOps(User.class).refresh();
+        assertFalse(this.userService.canView(this.VIEWER_ID, this.PRIVATE_POSTER_ID));
+
+        this.userService.loadVisibility();
+
+        assertTrue(this.userService.canView(this.VIEWER_ID, this.PRIVATE_POSTER_ID));
+    }
+
+    @Test
+    public void testSnapshotOffsetsSoughtOnFirstAssignmentOnly() {
+        final TopicPartition partition = new TopicPartition("post_service_topic", 0);
+        @SuppressWarnings("unchecked")
+        final Map<TopicPartition, Long> snapshotOffsets =
+                (Map<TopicPartition, Long>)
+                        ReflectionTestUtils.getField(
+                                this.visibilityConsumerService, "snapshotOffsets");
+        snapshotOffsets.put(partition, this.SNAPSHOT_OFFSET);
+
+        final Map<TopicPartition, Long> seeks = new HashMap<>();
+        final ConsumerSeekCallback callback = this.recordingSeekCallback(seeks);
+        this.visibilityConsumerService.onPartitionsAssigned(Map.of(partition, 0L), callback);
+        assertEquals(Map.of(partition, this.SNAPSHOT_OFFSET), seeks);
+
+        seeks.clear();
+        this.visibilityConsumerService.onPartitionsAssigned(Map.of(partition, 0L), callback);
+        assertTrue(seeks.isEmpty());
+    }
+
+    private ConsumerSeekCallback recordingSeekCallback(final Map<TopicPartition, Long> seeks) {
+        return new ConsumerSeekCallback() {
+            @Override
+            public void seek(final String topic, final int partition, final long offset) {
+                seeks.put(new TopicPartition(topic, partition), offset);
+            }
+
+            @Override
+            public void seekToBeginning(final String topic, final int partition) {}
+
+            @Override
+            public void seekToEnd(final String topic, final int partition) {}
+
+            @Override
+            public void seekRelative(
+                    final String topic,
+                    final int partition,
+                    final long offset,
+                    final boolean toCurrent) {}
+
+            @Override
+            public void seekToTimestamp(
+                    final String topic, final int partition, final long timestamp) {}
+
+            @Override
+            public void seekToTimestamp(
+                    final Collection<TopicPartition> topicPartitions, final long timestamp) {}
+        };
+    }
+
+    private void receiveVisibilityEvent(final KafkaMessage message, final long timestamp) {
+        this.visibilityConsumerService.receiveVisibilityMessages(
+                List.of(message), List.of(timestamp));
+    }
+}
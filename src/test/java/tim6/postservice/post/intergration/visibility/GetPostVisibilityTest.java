@@ -0,0 +1,174 @@
+package tim6.postservice.post.intergration.visibility;
+
+import static org.junit.Assert.assertEquals;
+import static tim6.postservice.helpers.AuthHelper.createAuthToken;
+
+import java.net.URI;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.util.UriComponentsBuilder;
+import tim6.postservice.common.CommonTestBase;
+import tim6.postservice.domain.models.Post;
+import tim6.postservice.domain.models.User;
+import tim6.postservice.domain.models.UserInfo;
+import tim6.postservice.domain.repositories.PostRepository;
+import tim6.postservice.domain.repositories.UserRepository;
+
+public class GetPostVisibilityTest extends CommonTestBase {
+
+    private final String USER_ID = UUID.randomUUID().toString();
+    private final String PUBLIC_POSTER_ID = UUID.randomUUID().toString();
+    private final String BLOCKED_PUBLIC_POSTER_ID = UUID.randomUUID().toString();
+    private final String PRIVATE_FOLLOWED_POSTER_ID = UUID.randomUUID().toString();
+    private final String PRIVATE_NOT_FOLLOWED_POSTER_ID = UUID.randomUUID().toString();
+    private final String BLOCKED_FOLLOWED_POSTER_ID = UUID.randomUUID().toString();
+    private final String MUTED_FOLLOWED_POSTER_ID = UUID.randomUUID().toString();
+
+    @Value("${jwt.secret}")
+    private String JWT_SECRET;
+
+    @Autowired private PostRepository postRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private TestRestTemplate testRestTemplate;
+    @LocalServerPort private int port;
+
+    @Before
+    public void initializeData() {
+        this.userRepository.save(
+                new User(this.PUBLIC_POSTER_ID, "publicPosterName", "posterAvatar", true));
+        this.userRepository.save(
+                new User(this.BLOCKED_PUBLIC_POSTER_ID, "blockedPosterName", "posterAvatar", true));
+        this.userRepository.save(
+                new User(
+                        this.PRIVATE_FOLLOWED_POSTER_ID,
+                        "privatePosterName",
+                        "posterAvatar",
+                        false));
+        this.userRepository.save(
+                new User(
+                        this.PRIVATE_NOT_FOLLOWED_POSTER_ID,
+                        "privatePosterName",
+                        "posterAvatar",
+                        false));
+        this.userRepository.save(
+                new User(
+                        this.BLOCKED_FOLLOWED_POSTER_ID,
+                        "blockedPosterName",
+                        "posterAvatar",
+                        false));
+        this.userRepository.save(
+                new User(this.MUTED_FOLLOWED_POSTER_ID, "mutedPosterName", "posterAvatar", false));
+
+        this.userRepository.save(
+                new User(
+                        this.USER_ID,
+                        "userName",
+                        "userAvatar",
+                        true,
+                        Set.of(
+                                this.PRIVATE_FOLLOWED_POSTER_ID,
+                                this.BLOCKED_FOLLOWED_POSTER_ID,
+                                this.MUTED_FOLLOWED_POSTER_ID),
+                        Set.of(this.BLOCKED_PUBLIC_POSTER_ID, this.BLOCKED_FOLLOWED_POSTER_ID),
+                        Set.of(this.MUTED_FOLLOWED_POSTER_ID)));
+    }
+
+    @After
+    public void cleanUpData() {
+        this.userRepository.deleteAll();
+        this.postRepository.deleteAll();
+    }
+
+    @Test
+    public void testGetPostOfPublicPoster() {
+        final String postId = this.savePost(this.PUBLIC_POSTER_ID);
+
+        assertEquals(HttpStatus.OK, this.sendGetPostRequest(postId, this.userToken()));
+        assertEquals(HttpStatus.OK, this.sendGetPostRequest(postId, null));
+    }
+
+    @Test
+    public void testGetPostOfPrivateFollowedPoster() {
+        final String postId = this.savePost(this.PRIVATE_FOLLOWED_POSTER_ID);
+
+        assertEquals(HttpStatus.OK, this.sendGetPostRequest(postId, this.userToken()));
+        assertEquals(HttpStatus.FORBIDDEN, this.sendGetPostRequest(postId, null));
+    }
+
+    @Test
+    public void testGetPostOfPrivateNotFollowedPoster() {
+        final String postId = this.savePost(this.PRIVATE_NOT_FOLLOWED_POSTER_ID);
+
+        assertEquals(HttpStatus.FORBIDDEN, this.sendGetPostRequest(postId, this.userToken()));
+    }
+
+    @Test
+    public void testGetPostOfBlockedPoster() {
+        final String publicPostId = this.savePost(this.BLOCKED_PUBLIC_POSTER_ID);
+        final String followedPostId = this.savePost(this.BLOCKED_FOLLOWED_POSTER_ID);
+
+        assertEquals(
+                HttpStatus.FORBIDDEN, this.sendGetPostRequest(publicPostId, this.userToken()));
+        assertEquals(
+                HttpStatus.FORBIDDEN, this.sendGetPostRequest(followedPostId, this.userToken()));
+        assertEquals(HttpStatus.OK, this.sendGetPostRequest(publicPostId, null));
+    }
+
+    @Test
+    public void testGetPostOfMutedPoster() {
+        final String postId = this.savePost(this.MUTED_FOLLOWED_POSTER_ID);
+
+        assertEquals(HttpStatus.OK, this.sendGetPostRequest(postId, this.userToken()));
+    }
+
+    private String userToken() {
+        return createAuthToken(this.USER_ID, this.JWT_SECRET);
+    }
+
+    private String savePost(final String posterId) {
+        final Post post =
+                new Post(
+                        UUID.randomUUID().toString(),
+                        "testImage.jpg",
+                        "Proper description",
+                        new UserInfo(posterId, "posterName", "posterAvatar"),
+                        new Date(),
+                        Set.of("tag1"),
+                        new HashSet<>());
+        return this.postRepository.save(post).getId();
+    }
+
+    private HttpStatus sendGetPostRequest(final String postId, final String token) {
+        final URI apiEndpoint =
+                UriComponentsBuilder.fromHttpUrl(
+                                String.format(
+                                        "http://localhost:%d/api/v1/posts/%s", this.port, postId))
+                        .build()
+                        .encode()
+                        .toUri();
+        final HttpHeaders headers = new HttpHeaders();
+        if (token != null) {
+            headers.set("Authorization", String.format("Bearer %s", token));
+        }
+        headers.set(HttpHeaders.CONTENT_LENGTH, "0");
+        final HttpEntity<Void> entity = new HttpEntity<>(null, headers);
+
+        return this.testRestTemplate
+                .exchange(apiEndpoint, HttpMethod.GET, entity, String.class)
+                .getStatusCode();
+    }
+}